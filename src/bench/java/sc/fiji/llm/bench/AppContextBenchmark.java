@@ -0,0 +1,75 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scijava.Context;
+
+import com.google.gson.JsonElement;
+
+import sc.fiji.llm.context.AppContextService;
+
+/**
+ * Cost of collecting the application context attached to every user message,
+ * with all {@code AppContextSupplier} plugins of a headless Fiji context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AppContextBenchmark {
+
+	private Context context;
+	private AppContextService appContextService;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = new Context();
+		appContextService = context.getService(AppContextService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public JsonElement getCurrentEnvironment() {
+		return appContextService.getCurrentEnvironment();
+	}
+}
@@ -0,0 +1,95 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+
+/**
+ * Synthetic inputs shared by the benchmarks, shaped like typical assistant
+ * conversations.
+ */
+final class BenchmarkData {
+
+	/** One section of a typical assistant reply: prose, a list, code and a table */
+	static final String MARKDOWN_SECTION = "## Segmenting nuclei\n\n" +
+		"To count the nuclei, first **threshold** the DAPI channel and then run " +
+		"*Analyze Particles*. See https://imagej.net/ij/docs/guide for details.\n\n" +
+		"1. Open the image\n2. Run `Image > Adjust > Threshold...`\n" +
+		"3. Apply ~~Otsu~~ Triangle\n\n" +
+		"```groovy\n#@ ImagePlus imp\nimport ij.IJ\n" +
+		"IJ.setAutoThreshold(imp, \"Triangle dark\")\n" +
+		"IJ.run(imp, \"Analyze Particles...\", \"size=20-Infinity show=Outlines\")\n" +
+		"```\n\n" + "| Measurement | Value |\n|---|---|\n| Count | 42 |\n" +
+		"| Mean area | 113.5 |\n\n" + "- [x] Threshold\n- [ ] Watershed\n\n";
+
+	/**
+	 * Like {@link #MARKDOWN_SECTION}, but only with constructs that need no HTML
+	 * cleaning (no strikethrough or task list)
+	 */
+	static final String PLAIN_SECTION = MARKDOWN_SECTION.replace("~~Otsu~~ ",
+		"").replace("- [x] Threshold\n- [ ] Watershed\n\n", "");
+
+	private BenchmarkData() {}
+
+	static String markdown(final int sections) {
+		final StringBuilder sb = new StringBuilder(MARKDOWN_SECTION.length() *
+			sections);
+		for (int i = 0; i < sections; i++) {
+			sb.append(MARKDOWN_SECTION);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Split text into chunks of the given size, mimicking streamed tokens.
+	 */
+	static List<String> chunks(final String text, final int chunkSize) {
+		final List<String> chunks = new ArrayList<>();
+		for (int i = 0; i < text.length(); i += chunkSize) {
+			chunks.add(text.substring(i, Math.min(text.length(), i + chunkSize)));
+		}
+		return chunks;
+	}
+
+	/**
+	 * @return Alternating user and assistant messages
+	 */
+	static List<ChatMessage> messages(final int count) {
+		final List<ChatMessage> messages = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			if (i % 2 == 0) {
+				messages.add(UserMessage.from("How do I count the nuclei in image " +
+					i + "? Please write a script that I can run on a folder."));
+			}
+			else {
+				messages.add(AiMessage.from(MARKDOWN_SECTION));
+			}
+		}
+		return messages;
+	}
+}
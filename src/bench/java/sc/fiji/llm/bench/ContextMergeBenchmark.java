@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonArray;
+
+import sc.fiji.llm.context.ContextItem;
+import sc.fiji.llm.context.ContextItemUtilities;
+import sc.fiji.llm.script.ScriptContextItem;
+
+/**
+ * Cost of merging the context items attached to a user message and
+ * serializing them to JSON, as done for every message sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextMergeBenchmark {
+
+	/** Number of attached items; every script gets four selections */
+	@Param({ "4", "40", "200" })
+	public int items;
+
+	private List<ContextItem> contextItems;
+
+	@Setup
+	public void setup() {
+		final String script = BenchmarkData.markdown(2);
+		contextItems = new ArrayList<>(items);
+		for (int i = 0; i < items; i++) {
+			final int tab = i / 4;
+			final int line = (i % 4) * 3 + 1;
+			contextItems.add(new ScriptContextItem("script" + tab + ".groovy",
+				script, 0, tab, line, line + 1, "Groovy"));
+		}
+	}
+
+	@Benchmark
+	public List<ContextItem> merge() {
+		return ContextItemUtilities.mergeContextItems(contextItems);
+	}
+
+	@Benchmark
+	public JsonArray mergeAndSerialize() {
+		final JsonArray array = new JsonArray();
+		for (final ContextItem item : ContextItemUtilities.mergeContextItems(
+			contextItems))
+		{
+			array.add(item.toJson());
+		}
+		return array;
+	}
+}
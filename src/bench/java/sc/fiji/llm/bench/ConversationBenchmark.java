@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.bench;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import sc.fiji.llm.chat.Conversation;
+import sc.fiji.llm.chat.SerializedConversation;
+
+/**
+ * Cost of persisting and restoring a conversation, following the same steps
+ * as {@code DefaultConversationService}: conversion to
+ * {@link SerializedConversation} and pretty-printed Gson file I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversationBenchmark {
+
+	@Param({ "10", "100", "500" })
+	public int messages;
+
+	private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+	private Conversation conversation;
+	private File dir;
+	private File saveFile;
+	private File loadFile;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		conversation = new Conversation("benchmark", SystemMessage.from(
+			"You are a helpful assistant for Fiji."));
+		for (final ChatMessage message : BenchmarkData.messages(messages)) {
+			conversation.addMessage(message.toString(), message);
+		}
+		dir = Files.createTempDirectory("fiji-llm-bench").toFile();
+		saveFile = new File(dir, "save.json");
+		loadFile = new File(dir, "load.json");
+		try (FileWriter writer = new FileWriter(loadFile)) {
+			gson.toJson(SerializedConversation.fromConversation(conversation),
+				writer);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		saveFile.delete();
+		loadFile.delete();
+		dir.delete();
+	}
+
+	@Benchmark
+	public void save() throws IOException {
+		try (FileWriter writer = new FileWriter(saveFile)) {
+			gson.toJson(SerializedConversation.fromConversation(conversation),
+				writer);
+		}
+	}
+
+	@Benchmark
+	public Conversation load() throws IOException {
+		try (FileReader reader = new FileReader(loadFile)) {
+			return gson.fromJson(reader, SerializedConversation.class)
+				.toConversation();
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import sc.fiji.llm.ui.IncrementalMarkdownRenderer;
+import sc.fiji.llm.ui.MarkdownRenderer;
+
+/**
+ * Cost of {@link MarkdownRenderer#renderToSafeHtml(String)} as a chat message
+ * grows. {@link #renderDocument} renders a complete message once, while
+ * {@link #streamDocument} re-renders after every streamed chunk, as the chat
+ * panel used to do while a response arrived. {@link #streamIncremental}
+ * streams the same chunks through {@link IncrementalMarkdownRenderer}, which
+ * only re-renders the trailing block.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkdownRenderBenchmark {
+
+	@Param({ "1", "10", "50" })
+	public int sections;
+
+	private String document;
+	private List<String> chunks;
+
+	@Setup
+	public void setup() {
+		document = BenchmarkData.markdown(sections);
+		chunks = BenchmarkData.chunks(document, 16);
+	}
+
+	@Benchmark
+	public String renderDocument() {
+		return MarkdownRenderer.renderToSafeHtml(document);
+	}
+
+	@Benchmark
+	public void streamDocument(final Blackhole bh) {
+		final StringBuilder raw = new StringBuilder();
+		for (final String chunk : chunks) {
+			raw.append(chunk);
+			bh.consume(MarkdownRenderer.renderToSafeHtml(raw.toString()));
+		}
+	}
+
+	@Benchmark
+	public void streamIncremental(final Blackhole bh) {
+		final IncrementalMarkdownRenderer renderer =
+			new IncrementalMarkdownRenderer();
+		for (final String chunk : chunks) {
+			bh.consume(renderer.append(chunk));
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
+import com.vladsch.flexmark.ext.emoji.EmojiExtension;
+import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
+import com.vladsch.flexmark.ext.gfm.tasklist.TaskListExtension;
+import com.vladsch.flexmark.ext.tables.TablesExtension;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+
+import sc.fiji.llm.ui.MarkdownRenderer;
+
+/**
+ * Compares {@link MarkdownRenderer#renderToSafeFragment(String)} with the
+ * previous pipeline, which built a new jsoup {@link Safelist}, recompiled the
+ * code fence regex and cleaned every document with jsoup. The {@code plain}
+ * input only uses constructs rendered straight from the AST; {@code mixed}
+ * contains a task list and strikethrough, so both pipelines clean it with
+ * jsoup. Run with {@code -prof gc} to compare allocation rates, e.g.
+ * {@code -Djmh.args="SafeHtml -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeHtmlBenchmark {
+
+	@Param({ "plain", "mixed" })
+	public String content;
+
+	private String markdown;
+	private Parser parser;
+	private HtmlRenderer renderer;
+
+	@Setup
+	public void setup() {
+		markdown = "plain".equals(content) ? BenchmarkData.PLAIN_SECTION
+			: BenchmarkData.MARKDOWN_SECTION;
+
+		// Same configuration as MarkdownRenderer
+		final MutableDataSet options = new MutableDataSet();
+		options.set(Parser.EXTENSIONS, Arrays.asList(EmojiExtension.create(),
+			TablesExtension.create(), StrikethroughExtension.create(),
+			TaskListExtension.create(), AutolinkExtension.create()));
+		parser = Parser.builder(options).build();
+		renderer = HtmlRenderer.builder(options).build();
+	}
+
+	@Benchmark
+	public String current() {
+		return MarkdownRenderer.renderToSafeFragment(markdown);
+	}
+
+	@Benchmark
+	public String previous() {
+		final String md = markdown.replaceAll("([^\n])```", "$1\n```");
+		final String html = renderer.render(parser.parse(md));
+		final Safelist safelist = Safelist.relaxed().addTags("pre", "code")
+			.addAttributes("img", "src", "alt", "width", "height");
+		return Jsoup.clean(html, safelist);
+	}
+}
@@ -0,0 +1,82 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+import dev.langchain4j.model.openai.OpenAiTokenCountEstimator;
+import sc.fiji.llm.provider.CharacterTokenCountEstimator;
+
+/**
+ * Cost of estimating the token count of a chat memory, which
+ * {@code TokenWindowChatMemory} does whenever a message is added. Compares the
+ * character-based estimate used for Ollama with the tokenizer-based OpenAI
+ * estimate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenEstimationBenchmark {
+
+	@Param({ "10", "100" })
+	public int messages;
+
+	private List<ChatMessage> memory;
+	private TokenCountEstimator characterEstimator;
+	private TokenCountEstimator openAiEstimator;
+
+	@Setup
+	public void setup() {
+		memory = BenchmarkData.messages(messages);
+		characterEstimator = new CharacterTokenCountEstimator();
+		openAiEstimator = new OpenAiTokenCountEstimator("gpt-4o-mini");
+	}
+
+	@Benchmark
+	public int characterEstimate() {
+		return characterEstimator.estimateTokenCountInMessages(memory);
+	}
+
+	@Benchmark
+	public int openAiEstimate() {
+		return openAiEstimator.estimateTokenCountInMessages(memory);
+	}
+}
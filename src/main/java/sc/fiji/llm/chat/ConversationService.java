@@ -22,6 +22,7 @@
 
 package sc.fiji.llm.chat;
 
+import java.io.File;
 import java.util.List;
 
 import net.imagej.ImageJService;
@@ -77,4 +78,9 @@ public interface ConversationService extends ImageJService {
 	 * @return true if the conversation was found and deleted
 	 */
 	boolean deleteConversation(String name);
+
+	/**
+	 * @return The directory where conversations are saved
+	 */
+	File getConversationDirectory();
 }
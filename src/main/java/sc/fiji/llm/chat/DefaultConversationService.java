@@ -42,7 +42,6 @@ import org.scijava.service.Service;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
-import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 
 @Plugin(type = Service.class)
@@ -112,6 +111,11 @@ public class DefaultConversationService extends AbstractService implements
 		return false;
 	}
 
+	@Override
+	public File getConversationDirectory() {
+		return conversationDir;
+	}
+
 	@Override
 	public void initialize() {
 		gson = new GsonBuilder().setPrettyPrinting().create();
@@ -156,24 +160,12 @@ public class DefaultConversationService extends AbstractService implements
 			Arrays.sort(files, (a, b) -> Long.compare(b.lastModified(), a
 				.lastModified()));
 			for (File file : files) {
-				try {
-					SerializedConversation serialized = gson.fromJson(new FileReader(
-						file), SerializedConversation.class);
+				try (FileReader reader = new FileReader(file)) {
+					SerializedConversation serialized = gson.fromJson(reader,
+						SerializedConversation.class);
 
 					if (serialized != null) {
-						SystemMessage systemMessage = new SystemMessage(serialized
-							.getSystemMessage());
-						Conversation conversation = new Conversation(serialized.getName(),
-							systemMessage);
-
-						for (SerializedConversation.SerializedConversationMessage msg : serialized
-							.getMessages())
-						{
-							ChatMessage memoryMessage = ChatMessageConverter.fromSerialized(
-								msg.getMemoryMessage());
-							conversation.addMessage(msg.getDisplayMessage(), memoryMessage);
-						}
-
+						Conversation conversation = serialized.toConversation();
 						conversationsByName.put(conversation.name(), conversation);
 						conversations.add(conversation);
 						conversationLengths.put(conversation.name(), conversation.messages()
@@ -213,21 +205,8 @@ public class DefaultConversationService extends AbstractService implements
 			File file = new File(conversationDir, sanitizeFileName(conversation
 				.name()) + ".json");
 
-			SerializedConversation serialized = new SerializedConversation();
-			serialized.setName(conversation.name());
-			serialized.setSystemMessage(conversation.systemMessage().text());
-
-			List<SerializedConversation.SerializedConversationMessage> messages =
-				new ArrayList<>();
-			for (Conversation.Message msg : conversation.messages()) {
-				SerializedConversation.SerializedConversationMessage serializedMsg =
-					new SerializedConversation.SerializedConversationMessage();
-				serializedMsg.setDisplayMessage(msg.display());
-				serializedMsg.setMemoryMessage(ChatMessageConverter.toSerialized(msg
-					.memory()));
-				messages.add(serializedMsg);
-			}
-			serialized.setMessages(messages);
+			SerializedConversation serialized = SerializedConversation
+				.fromConversation(conversation);
 
 			try (FileWriter writer = new FileWriter(file)) {
 				gson.toJson(serialized, writer);
@@ -26,6 +26,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+
 /**
  * Serializable container for a Conversation, used for JSON persistence.
  */
@@ -38,6 +41,44 @@ public class SerializedConversation {
 	// No-arg constructor for GSON
 	public SerializedConversation() {}
 
+	/**
+	 * @param conversation the conversation to serialize
+	 * @return A serializable copy of the given conversation
+	 */
+	public static SerializedConversation fromConversation(
+		Conversation conversation)
+	{
+		SerializedConversation serialized = new SerializedConversation();
+		serialized.setName(conversation.name());
+		serialized.setSystemMessage(conversation.systemMessage().text());
+
+		List<SerializedConversationMessage> messages = new ArrayList<>();
+		for (Conversation.Message msg : conversation.messages()) {
+			SerializedConversationMessage serializedMsg =
+				new SerializedConversationMessage();
+			serializedMsg.setDisplayMessage(msg.display());
+			serializedMsg.setMemoryMessage(ChatMessageConverter.toSerialized(msg
+				.memory()));
+			messages.add(serializedMsg);
+		}
+		serialized.setMessages(messages);
+		return serialized;
+	}
+
+	/**
+	 * @return A new {@link Conversation} restored from this serialized form
+	 */
+	public Conversation toConversation() {
+		Conversation conversation = new Conversation(name, new SystemMessage(
+			systemMessage));
+		for (SerializedConversationMessage msg : messages) {
+			ChatMessage memoryMessage = ChatMessageConverter.fromSerialized(msg
+				.getMemoryMessage());
+			conversation.addMessage(msg.getDisplayMessage(), memoryMessage);
+		}
+		return conversation;
+	}
+
 	public String getName() {
 		return name;
 	}
@@ -57,6 +57,9 @@ public class Fiji_Chat extends DynamicCommand {
 	public static final String NO_MODELS_AVAILABLE =
 		"<No Models Available For This Service>";
 	public static final String AUTO_RUN = "sc.fiji.chat.autoRunChat";
+	/** Preference for the tokens of context attached to each message */
+	public static final String CONTEXT_TOKEN_BUDGET =
+		"sc.fiji.chat.contextTokenBudget";
 	private static final String WIDTH = "400";
 
 	@Parameter
@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.context;
+
+import java.awt.AWTEvent;
+import java.awt.GraphicsEnvironment;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeListener;
+import java.util.function.Predicate;
+
+import org.scijava.event.EventService;
+import org.scijava.plugin.Parameter;
+import org.scijava.thread.ThreadService;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Base class for {@link AppContextSupplier}s whose slice only changes on
+ * known events. The slice is computed once and then served as is. Event
+ * handlers call {@link #invalidate()}, which rebuilds the slice in the
+ * background, so that it is usually ready by the time a message is sent.
+ * <p>
+ * On first use the supplier is subscribed to the {@link EventService}, so
+ * subclasses can declare {@code @EventHandler} methods, and
+ * {@link #listen()} is called to attach any other listeners.
+ * </p>
+ */
+public abstract class AbstractCachedAppContextSupplier implements
+	AppContextSupplier
+{
+
+	@Parameter
+	private EventService eventService;
+
+	@Parameter
+	private ThreadService threadService;
+
+	/** Guarded by this */
+	private JsonElement slice;
+	private boolean subscribed;
+
+	private volatile boolean stale = true;
+	private volatile boolean rebuildScheduled;
+
+	@Override
+	public synchronized JsonElement appConext() {
+		if (!subscribed) {
+			subscribed = true;
+			eventService.subscribe(this);
+			listen();
+		}
+		if (stale || slice == null) {
+			// Clear first, so an event during the computation marks it again
+			stale = false;
+			slice = computeContext();
+		}
+		return slice;
+	}
+
+	/**
+	 * @return A freshly computed slice of context
+	 */
+	protected abstract JsonElement computeContext();
+
+	/**
+	 * Called once before the first slice is computed, to attach listeners that
+	 * call {@link #invalidate()}.
+	 */
+	protected void listen() {}
+
+	/**
+	 * Marks the slice out of date and rebuilds it in the background. Cheap to
+	 * call repeatedly: pending rebuilds are coalesced.
+	 */
+	protected void invalidate() {
+		stale = true;
+		if (rebuildScheduled) {
+			return;
+		}
+		rebuildScheduled = true;
+		threadService.run(() -> {
+			rebuildScheduled = false;
+			appConext();
+		});
+	}
+
+	/**
+	 * Invalidates the slice whenever a matching window is opened, closed, shown
+	 * or hidden, or changes its title.
+	 *
+	 * @param filter selects the windows the slice depends on
+	 */
+	protected void invalidateOnWindowChanges(final Predicate<Window> filter) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return;
+		}
+		final PropertyChangeListener titleListener = e -> invalidate();
+		for (final Window window : Window.getWindows()) {
+			if (filter.test(window)) {
+				window.addPropertyChangeListener("title", titleListener);
+			}
+		}
+		Toolkit.getDefaultToolkit().addAWTEventListener(event -> {
+			if (!(event.getSource() instanceof Window window) || !filter.test(
+				window))
+			{
+				return;
+			}
+			switch (event.getID()) {
+				case WindowEvent.WINDOW_OPENED:
+					window.addPropertyChangeListener("title", titleListener);
+					invalidate();
+					break;
+				case WindowEvent.WINDOW_CLOSED:
+				case ComponentEvent.COMPONENT_SHOWN:
+				case ComponentEvent.COMPONENT_HIDDEN:
+					invalidate();
+					break;
+				default:
+					// Focus, moves and resizes do not affect the context
+			}
+		}, AWTEvent.WINDOW_EVENT_MASK | AWTEvent.COMPONENT_EVENT_MASK);
+	}
+}
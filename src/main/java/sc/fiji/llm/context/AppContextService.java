@@ -21,13 +21,44 @@
  */
 package sc.fiji.llm.context;
 
+import java.util.List;
+
 import org.scijava.plugin.SingletonService;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 
 import net.imagej.ImageJService;
 
 public interface AppContextService extends SingletonService<AppContextSupplier>, ImageJService {
-	
+	public static final String ENVIRONMENT_KEY = "fiji_application_context";
+
 	public JsonElement getCurrentEnvironment();
+
+	/**
+	 * @return The slice of context from each {@link AppContextSupplier}, in
+	 *         priority order
+	 */
+	public List<JsonElement> getCurrentSlices();
+
+	/**
+	 * @return Collection metrics of each {@link AppContextSupplier}, in priority
+	 *         order
+	 */
+	public List<AppContextStats> getSupplierStats();
+
+	/**
+	 * @param slices slices of application context
+	 * @return The slices in the form returned by {@link #getCurrentEnvironment()}
+	 */
+	public static JsonElement toEnvironment(final Iterable<JsonElement> slices) {
+		JsonObject appEnv = new JsonObject();
+		JsonArray contextList = new JsonArray();
+		for (JsonElement slice : slices) {
+			contextList.add(slice);
+		}
+		appEnv.add(ENVIRONMENT_KEY, contextList);
+		return appEnv;
+	}
 }
@@ -0,0 +1,119 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.context;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import sc.fiji.llm.metrics.LatencyHistogram;
+
+/**
+ * Immutable snapshot of how one {@link AppContextSupplier} performed when
+ * collecting application context.
+ */
+public class AppContextStats {
+
+	private final String supplier;
+	private final long calls;
+	private final long timeouts;
+	private final long cachedServed;
+	private final long failures;
+	private final double meanLatencyMillis;
+	private final double p95LatencyMillis;
+	private final double maxLatencyMillis;
+
+	AppContextStats(final String supplier, final LatencyHistogram latency,
+		final long timeouts, final long cachedServed, final long failures)
+	{
+		this.supplier = supplier;
+		this.calls = latency.count();
+		this.timeouts = timeouts;
+		this.cachedServed = cachedServed;
+		this.failures = failures;
+		this.meanLatencyMillis = latency.meanMillis();
+		this.p95LatencyMillis = latency.percentileMillis(95);
+		this.maxLatencyMillis = latency.maxNanos() / 1e6;
+	}
+
+	/**
+	 * @return The class name of the supplier
+	 */
+	public String supplier() {
+		return supplier;
+	}
+
+	/**
+	 * @return Number of completed collections, including late ones
+	 */
+	public long calls() {
+		return calls;
+	}
+
+	/**
+	 * @return Number of times the supplier missed its deadline
+	 */
+	public long timeouts() {
+		return timeouts;
+	}
+
+	/**
+	 * @return Number of missed deadlines answered with the last slice instead
+	 */
+	public long cachedServed() {
+		return cachedServed;
+	}
+
+	public long failures() {
+		return failures;
+	}
+
+	public double meanLatencyMillis() {
+		return meanLatencyMillis;
+	}
+
+	public double p95LatencyMillis() {
+		return p95LatencyMillis;
+	}
+
+	public double maxLatencyMillis() {
+		return maxLatencyMillis;
+	}
+
+	public JsonElement toJson() {
+		final JsonObject obj = new JsonObject();
+		obj.addProperty("supplier", supplier);
+		obj.addProperty("calls", calls);
+		obj.addProperty("timeouts", timeouts);
+		obj.addProperty("cached_served", cachedServed);
+		obj.addProperty("failures", failures);
+		obj.addProperty("latency_mean_ms", meanLatencyMillis);
+		obj.addProperty("latency_p95_ms", p95LatencyMillis);
+		obj.addProperty("latency_max_ms", maxLatencyMillis);
+		return obj;
+	}
+
+	@Override
+	public String toString() {
+		return toJson().toString();
+	}
+}
@@ -27,7 +27,10 @@ import com.google.gson.JsonElement;
 
 public interface AppContextSupplier extends SingletonPlugin {
 	public static final String TYPE_KEY = "type";
-	
+
+	/** Default time a supplier has to answer before it is left out */
+	public static final long DEFAULT_TIMEOUT_MILLIS = 500;
+
 	/**
 	 * Note: all elements should start with a {@link #TYPE_KEY}
 	 * property describing the context.
@@ -35,4 +38,14 @@ public interface AppContextSupplier extends SingletonPlugin {
 	 * @return A Json description of this slice of context.
 	 */
 	public JsonElement appConext();
+
+	/**
+	 * Suppliers are called in parallel; one that takes longer than this is
+	 * served from its previous slice, or left out.
+	 *
+	 * @return How long {@link #appConext()} may take, in milliseconds
+	 */
+	default long getTimeoutMillis() {
+		return DEFAULT_TIMEOUT_MILLIS;
+	}
 }
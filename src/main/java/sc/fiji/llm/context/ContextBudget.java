@@ -0,0 +1,295 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Fits context attached to a message into a token budget.
+ * <p>
+ * Entries are given most important first. Each entry is serialized and
+ * estimated once; if the total is over budget, entries are reduced from the
+ * least important upwards until it fits. An entry is first truncated, by
+ * shortening its largest top-level string (e.g. a script's content), and is
+ * omitted if that is not enough. An omitted entry is replaced by a stub that
+ * keeps its {@link ContextItem#TYPE_KEY}, so the model knows it was left out.
+ * Entries that are meaningless when cut short, such as a script diff, are
+ * never truncated, only omitted.
+ * </p>
+ */
+public class ContextBudget {
+
+	/** Set on entries whose content was shortened */
+	public static final String TRUNCATED_KEY = "truncated_to_fit_budget";
+
+	/** Set on the stubs of omitted entries */
+	public static final String OMITTED_KEY = "omitted_to_fit_budget";
+
+	/** Strings shorter than this are not worth truncating */
+	private static final int MIN_TRUNCATED_LENGTH = 200;
+
+	private final int maxTokens;
+	private final ToIntFunction<String> tokenEstimator;
+
+	/**
+	 * @param maxTokens the budget for all entries together
+	 * @param tokenEstimator estimates the tokens of serialized JSON
+	 */
+	public ContextBudget(final int maxTokens,
+		final ToIntFunction<String> tokenEstimator)
+	{
+		this.maxTokens = maxTokens;
+		this.tokenEstimator = tokenEstimator;
+	}
+
+	/**
+	 * @param entries the context, most important first
+	 * @return The entries' JSON, reduced to fit the budget where needed
+	 */
+	public Result fit(final List<Entry> entries) {
+		final int n = entries.size();
+		final JsonElement[] json = new JsonElement[n];
+		final int[] tokens = new int[n];
+		int total = 0;
+		for (int i = 0; i < n; i++) {
+			json[i] = entries.get(i).json;
+			tokens[i] = estimate(json[i]);
+			total += tokens[i];
+		}
+		final int originalTokens = total;
+
+		final List<String> truncated = new ArrayList<>();
+		final List<String> omitted = new ArrayList<>();
+		for (int i = n - 1; i >= 0 && total > maxTokens; i--) {
+			final String label = entries.get(i).label;
+			final JsonElement shortened = entries.get(i).truncatable ? truncate(
+				json[i], tokens[i], tokens[i] - (total - maxTokens)) : null;
+			if (shortened != null) {
+				final int shortenedTokens = estimate(shortened);
+				total += shortenedTokens - tokens[i];
+				json[i] = shortened;
+				tokens[i] = shortenedTokens;
+			}
+			if (total > maxTokens) {
+				final JsonElement stub = omit(json[i]);
+				final int stubTokens = estimate(stub);
+				total += stubTokens - tokens[i];
+				json[i] = stub;
+				tokens[i] = stubTokens;
+				omitted.add(label);
+			}
+			else if (shortened != null) {
+				truncated.add(label);
+			}
+		}
+		return new Result(List.of(json), originalTokens, total, truncated,
+			omitted);
+	}
+
+	private int estimate(final JsonElement json) {
+		return tokenEstimator.applyAsInt(json.toString());
+	}
+
+	/**
+	 * Shortens the largest top-level string of an object.
+	 *
+	 * @return The shortened copy, or null if it cannot be brought down to
+	 *         {@code targetTokens} this way
+	 */
+	private JsonElement truncate(final JsonElement json, final int tokens,
+		final int targetTokens)
+	{
+		if (!json.isJsonObject()) {
+			return null;
+		}
+		String key = null;
+		String largest = "";
+		for (final Map.Entry<String, JsonElement> member : json.getAsJsonObject()
+			.entrySet())
+		{
+			final JsonElement value = member.getValue();
+			if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString() &&
+				value.getAsString().length() > largest.length())
+			{
+				key = member.getKey();
+				largest = value.getAsString();
+			}
+		}
+		if (key == null || largest.length() < MIN_TRUNCATED_LENGTH) {
+			return null;
+		}
+		// Estimate the copy without the string, then the string as serialized
+		final JsonObject copy = json.getAsJsonObject().deepCopy();
+		copy.addProperty(TRUNCATED_KEY, true);
+		copy.addProperty(key, marker(largest.length()));
+		final int allowedTokens = targetTokens - estimate(copy);
+		if (allowedTokens <= 0) {
+			return null;
+		}
+		final int stringTokens = Math.max(1, estimate(new JsonPrimitive(
+			largest)));
+		int keep = (int) ((long) largest.length() * allowedTokens / stringTokens);
+		// Prefer to cut at a line break
+		final int lineEnd = largest.lastIndexOf('\n', keep - 1);
+		if (lineEnd > keep / 2) {
+			keep = lineEnd + 1;
+		}
+		copy.addProperty(key, largest.substring(0, keep) + marker(largest
+			.length() - keep));
+		return copy;
+	}
+
+	private static String marker(final int removed) {
+		return "[... " + removed + " more characters]";
+	}
+
+	private static JsonElement omit(final JsonElement json) {
+		final JsonObject stub = new JsonObject();
+		if (json.isJsonObject() && json.getAsJsonObject().has(
+			ContextItem.TYPE_KEY))
+		{
+			stub.add(ContextItem.TYPE_KEY, json.getAsJsonObject().get(
+				ContextItem.TYPE_KEY));
+		}
+		stub.add(OMITTED_KEY, new JsonPrimitive(true));
+		return stub;
+	}
+
+	/**
+	 * A piece of context to fit into the budget.
+	 */
+	public static class Entry {
+
+		private final String label;
+		private final JsonElement json;
+		private final boolean truncatable;
+
+		/**
+		 * @param label names the entry when reporting what was reduced
+		 * @param json the serialized context
+		 */
+		public Entry(final String label, final JsonElement json) {
+			this(label, json, true);
+		}
+
+		/**
+		 * @param label names the entry when reporting what was reduced
+		 * @param json the serialized context
+		 * @param truncatable false if a shortened copy would mislead the model,
+		 *          e.g. a partial patch, so the entry is omitted instead
+		 */
+		public Entry(final String label, final JsonElement json,
+			final boolean truncatable)
+		{
+			this.label = label;
+			this.json = json;
+			this.truncatable = truncatable;
+		}
+	}
+
+	/**
+	 * The result of {@link ContextBudget#fit(List)}.
+	 */
+	public static class Result {
+
+		private final List<JsonElement> json;
+		private final int originalTokens;
+		private final int tokens;
+		private final List<String> truncated;
+		private final List<String> omitted;
+
+		Result(final List<JsonElement> json, final int originalTokens,
+			final int tokens, final List<String> truncated,
+			final List<String> omitted)
+		{
+			this.json = json;
+			this.originalTokens = originalTokens;
+			this.tokens = tokens;
+			this.truncated = truncated;
+			this.omitted = omitted;
+		}
+
+		/**
+		 * @return The JSON of each entry, in the order given
+		 */
+		public List<JsonElement> getJson() {
+			return json;
+		}
+
+		/**
+		 * @return The estimated tokens of the context before fitting
+		 */
+		public int getOriginalTokens() {
+			return originalTokens;
+		}
+
+		/**
+		 * @return The estimated tokens of the context after fitting
+		 */
+		public int getTokens() {
+			return tokens;
+		}
+
+		/**
+		 * @return Labels of the entries that were shortened
+		 */
+		public List<String> getTruncated() {
+			return truncated;
+		}
+
+		/**
+		 * @return Labels of the entries that were left out
+		 */
+		public List<String> getOmitted() {
+			return omitted;
+		}
+
+		public boolean isReduced() {
+			return !truncated.isEmpty() || !omitted.isEmpty();
+		}
+
+		/**
+		 * @return A one-line description of what was reduced
+		 */
+		public String describe() {
+			final StringBuilder sb = new StringBuilder(
+				"Attached context was reduced to fit the budget (~" +
+					originalTokens + " to ~" + tokens + " tokens).");
+			if (!truncated.isEmpty()) {
+				sb.append(" Truncated: ").append(String.join(", ", truncated)).append(
+					".");
+			}
+			if (!omitted.isEmpty()) {
+				sb.append(" Omitted: ").append(String.join(", ", omitted)).append(".");
+			}
+			return sb.toString();
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static helpers for working with collections of {@link ContextItem}s.
+ */
+public final class ContextItemUtilities {
+
+	private ContextItemUtilities() {}
+
+	/**
+	 * Combine items sharing a {@link ContextItem#getMergeKey() merge key} into
+	 * a single item. Items without a merge key are kept as-is.
+	 *
+	 * @param contextItems the items to merge
+	 * @return A new list of merged items
+	 */
+	public static List<ContextItem> mergeContextItems(
+		final List<ContextItem> contextItems)
+	{
+		final List<ContextItem> result = new ArrayList<>();
+		final Map<String, List<ContextItem>> bins = new HashMap<>();
+
+		// Bin items by their merge key
+		for (final ContextItem item : contextItems) {
+			final String mergeKey = item.getMergeKey();
+			if (mergeKey != null) {
+				bins.computeIfAbsent(mergeKey, k -> new ArrayList<>()).add(item);
+			}
+			else {
+				// Items without a merge key are added as-is
+				result.add(item);
+			}
+		}
+
+		// Merge items in each bin and add to result
+		for (final List<ContextItem> bin : bins.values()) {
+			if (bin.size() > 1) {
+				final ContextItem merged = bin.get(0).mergeWith(bin.subList(1, bin
+					.size()));
+				result.add(merged);
+			}
+			else {
+				result.add(bin.get(0));
+			}
+		}
+		return result;
+	}
+}
@@ -21,17 +21,47 @@
  */
 package sc.fiji.llm.context;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.scijava.log.LogService;
 import org.scijava.plugin.AbstractSingletonService;
+import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 import org.scijava.service.Service;
+import org.scijava.thread.ThreadService;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 
+import sc.fiji.llm.metrics.LatencyHistogram;
+
+/**
+ * Default {@link AppContextService}. Suppliers are called in parallel, and
+ * each has until its {@link AppContextSupplier#getTimeoutMillis() deadline}
+ * to answer. A supplier that misses it is served from the last slice it
+ * returned, or left out if it never returned one. A call still running from
+ * an earlier request is awaited rather than started again, so a stuck
+ * supplier occupies at most one thread.
+ */
 @Plugin(type = Service.class)
 public class DefaultAppContextService extends AbstractSingletonService<AppContextSupplier> implements AppContextService {
 
+	@Parameter
+	private ThreadService threadService;
+
+	@Parameter
+	private LogService logService;
+
+	private final Map<AppContextSupplier, Collector> collectors =
+		new ConcurrentHashMap<>();
+
     @Override
     public Class<AppContextSupplier> getPluginType() {
 		return AppContextSupplier.class;
@@ -39,13 +69,120 @@ public class DefaultAppContextService extends AbstractSingletonService<AppContex
 
     @Override
     public JsonElement getCurrentEnvironment() {
-		JsonObject appEnv = new JsonObject();
-		JsonArray contextList = new JsonArray();
-		for (AppContextSupplier supplier : getInstances()) {
-			contextList.add(supplier.appConext());
+		return AppContextService.toEnvironment(getCurrentSlices());
+    }
+
+    @Override
+    public List<JsonElement> getCurrentSlices() {
+		final List<AppContextSupplier> suppliers = getInstances();
+		final long start = System.nanoTime();
+		final List<Future<JsonElement>> calls = new ArrayList<>(suppliers.size());
+		for (AppContextSupplier supplier : suppliers) {
+			calls.add(collector(supplier).start());
+		}
+
+		List<JsonElement> slices = new ArrayList<>();
+		for (int i = 0; i < suppliers.size(); i++) {
+			final AppContextSupplier supplier = suppliers.get(i);
+			final long deadline = start + TimeUnit.MILLISECONDS.toNanos(supplier
+				.getTimeoutMillis());
+			final JsonElement slice = collector(supplier).await(calls.get(i),
+				deadline);
+			if (slice != null) {
+				slices.add(slice);
+			}
 		}
-		appEnv.add("fiji_application_context", contextList);
-		return appEnv;
+		return slices;
     }
-	
+
+	@Override
+	public List<AppContextStats> getSupplierStats() {
+		final List<AppContextStats> stats = new ArrayList<>();
+		for (AppContextSupplier supplier : getInstances()) {
+			stats.add(collector(supplier).snapshot());
+		}
+		return stats;
+	}
+
+	private Collector collector(final AppContextSupplier supplier) {
+		return collectors.computeIfAbsent(supplier, Collector::new);
+	}
+
+	/**
+	 * Runs one supplier and records how it performs.
+	 */
+	private class Collector {
+
+		private final AppContextSupplier supplier;
+		private final LatencyHistogram latency = new LatencyHistogram();
+		private final LongAdder timeouts = new LongAdder();
+		private final LongAdder cachedServed = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+
+		/** The last slice returned, or null */
+		private volatile JsonElement lastSlice;
+
+		/** The latest call, possibly still running; guarded by this */
+		private Future<JsonElement> call;
+
+		Collector(final AppContextSupplier supplier) {
+			this.supplier = supplier;
+		}
+
+		synchronized Future<JsonElement> start() {
+			if (call == null || call.isDone()) {
+				call = threadService.run(this::collect);
+			}
+			return call;
+		}
+
+		private JsonElement collect() {
+			final long start = System.nanoTime();
+			try {
+				final JsonElement slice = supplier.appConext();
+				lastSlice = slice;
+				return slice;
+			}
+			finally {
+				latency.record(System.nanoTime() - start);
+			}
+		}
+
+		/**
+		 * @return The slice, the last slice if the deadline passes first, or null
+		 */
+		JsonElement await(final Future<JsonElement> future, final long deadline) {
+			try {
+				return future.get(Math.max(0, deadline - System.nanoTime()),
+					TimeUnit.NANOSECONDS);
+			}
+			catch (final TimeoutException e) {
+				timeouts.increment();
+				return cached();
+			}
+			catch (final ExecutionException e) {
+				failures.increment();
+				logService.warn("Failed to collect app context from " + supplier
+					.getClass().getName(), e.getCause());
+				return null;
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return cached();
+			}
+		}
+
+		private JsonElement cached() {
+			final JsonElement slice = lastSlice;
+			if (slice != null) {
+				cachedServed.increment();
+			}
+			return slice;
+		}
+
+		AppContextStats snapshot() {
+			return new AppContextStats(supplier.getClass().getName(), latency,
+				timeouts.sum(), cachedServed.sum(), failures.sum());
+		}
+	}
 }
@@ -21,8 +21,12 @@
  */
 package sc.fiji.llm.image;
 
+import java.awt.Window;
 import java.util.List;
 
+import org.scijava.display.event.DisplayCreatedEvent;
+import org.scijava.display.event.DisplayDeletedEvent;
+import org.scijava.event.EventHandler;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 
@@ -30,16 +34,39 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import sc.fiji.llm.context.AbstractCachedAppContextSupplier;
 import sc.fiji.llm.context.AppContextSupplier;
 
+/**
+ * Lists the visible images. The slice is rebuilt when an image window opens,
+ * closes, changes visibility or is retitled, or when a display is created or
+ * deleted.
+ */
 @Plugin(type = AppContextSupplier.class)
-public class AppImageContext implements AppContextSupplier {
+public class AppImageContext extends AbstractCachedAppContextSupplier {
+
+	private static final String IMAGE_WINDOW_CLASS = "ij.gui.ImageWindow";
 
 	@Parameter
 	private ImagePlusHelper iPlusHelper;
 
 	@Override
-	public JsonElement appConext()
+	protected void listen() {
+		invalidateOnWindowChanges(AppImageContext::isImageWindow);
+	}
+
+	@EventHandler
+	protected void onEvent(final DisplayCreatedEvent evt) {
+		invalidate();
+	}
+
+	@EventHandler
+	protected void onEvent(final DisplayDeletedEvent evt) {
+		invalidate();
+	}
+
+	@Override
+	protected JsonElement computeContext()
 	{
 		JsonObject imageContext = new JsonObject();
 		imageContext.addProperty(TYPE_KEY, "image_context");
@@ -60,5 +87,18 @@ public class AppImageContext implements AppContextSupplier {
 
 		return imageContext;
 	}
+
+	/**
+	 * @return Whether the window shows an ImageJ 1.x image, including stacks
+	 *         and plots
+	 */
+	private static boolean isImageWindow(final Window window) {
+		for (Class<?> c = window.getClass(); c != null; c = c.getSuperclass()) {
+			if (IMAGE_WINDOW_CLASS.equals(c.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
 	
 }
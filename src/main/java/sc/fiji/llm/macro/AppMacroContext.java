@@ -28,18 +28,31 @@ import org.scijava.plugin.Plugin;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import sc.fiji.llm.context.AbstractCachedAppContextSupplier;
 import sc.fiji.llm.context.AppContextSupplier;
 
+/**
+ * Reports whether the macro recorder is open. The slice is rebuilt when the
+ * recorder window opens, closes or changes visibility.
+ */
 @Plugin(type = AppContextSupplier.class)
-public class AppMacroContext implements AppContextSupplier {
+public class AppMacroContext extends AbstractCachedAppContextSupplier {
+
+	private static final String RECORDER_CLASS = "ij.plugin.frame.Recorder";
+
+    @Override
+    protected void listen() {
+		invalidateOnWindowChanges(window -> RECORDER_CLASS.equals(window
+			.getClass().getName()));
+    }
 
     @Override
-    public JsonElement appConext() {
+    protected JsonElement computeContext() {
 		JsonObject macroContext = new JsonObject();
 		macroContext.addProperty(TYPE_KEY, "macro_context");
 		boolean recorderOpen = false;
 		for (Frame frame : Frame.getFrames()) {
-			if (frame.toString().startsWith("ij.plugin.frame.Recorder")) {
+			if (RECORDER_CLASS.equals(frame.getClass().getName())) {
 				recorderOpen = frame.isVisible();
 				break;
 			}
@@ -0,0 +1,335 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * In-memory index of runnable commands, searched synchronously by name.
+ * <p>
+ * Matches are ranked by how closely the command name matches the query:
+ * exact names first, then names starting with the query, names containing it,
+ * names whose words start with every query word, menu paths containing the
+ * query and finally names within one typo of every query word. Ties go to the
+ * shorter name. Commands can also be looked up by their exact menu path.
+ * Commands can be added and removed at any time; all methods are thread-safe.
+ * </p>
+ *
+ * @param <T> the type of indexed command
+ */
+public class CommandIndex<T> {
+
+	private static final int EXACT = 100;
+	private static final int NAME_PREFIX = 80;
+	private static final int NAME_CONTAINS = 60;
+	private static final int WORD_PREFIXES = 40;
+	private static final int MENU_PATH_CONTAINS = 20;
+	private static final int FUZZY = 10;
+
+	/** Query words shorter than this are not matched fuzzily */
+	private static final int MIN_FUZZY_LENGTH = 4;
+
+	private final Map<T, Entry<T>> byCommand = new HashMap<>();
+
+	/** Entries in a list, which is much faster to scan than map values */
+	private final List<Entry<T>> entries = new ArrayList<>();
+
+	/** Exact menu path to command, for the first command added at each path */
+	private final Map<String, T> byMenuPath = new HashMap<>();
+
+	/** Number of entries containing each name word */
+	private final Map<String, Integer> vocabulary = new HashMap<>();
+
+	/**
+	 * Add a command, replacing any previous entry for it.
+	 *
+	 * @param command the command
+	 * @param name its display name, e.g. "Gaussian Blur..."
+	 * @param menuPath its menu path, e.g. "Process > Filters > Gaussian Blur..."
+	 */
+	public synchronized void add(final T command, final String name,
+		final String menuPath)
+	{
+		remove(command);
+		final Entry<T> entry = new Entry<>(command, name, menuPath);
+		byCommand.put(command, entry);
+		entries.add(entry);
+		if (menuPath != null) {
+			byMenuPath.putIfAbsent(menuPath, command);
+		}
+		for (final String word : entry.words) {
+			vocabulary.merge(word, 1, Integer::sum);
+		}
+	}
+
+	/**
+	 * @param command a previously added command; ignored if not indexed
+	 */
+	public synchronized void remove(final T command) {
+		final Entry<T> entry = byCommand.remove(command);
+		if (entry == null) {
+			return;
+		}
+		entries.remove(entry);
+		if (entry.menuString != null && byMenuPath.remove(entry.menuString,
+			command))
+		{
+			// Expose the next command sharing the path, if any
+			for (final Entry<T> other : entries) {
+				if (entry.menuString.equals(other.menuString)) {
+					byMenuPath.put(other.menuString, other.command);
+					break;
+				}
+			}
+		}
+		for (final String word : entry.words) {
+			vocabulary.computeIfPresent(word, (k, n) -> n == 1 ? null : n - 1);
+		}
+	}
+
+	/**
+	 * Remove all commands.
+	 */
+	public synchronized void clear() {
+		byCommand.clear();
+		entries.clear();
+		byMenuPath.clear();
+		vocabulary.clear();
+	}
+
+	/**
+	 * @return The number of indexed commands
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @param menuPath a menu path exactly as it was added
+	 * @return The command at the path, or null if there is none
+	 */
+	public synchronized T getByMenuPath(final String menuPath) {
+		return menuPath == null ? null : byMenuPath.get(menuPath);
+	}
+
+	/**
+	 * @param query a command name or part of one, e.g. "blur"
+	 * @param limit maximum number of results
+	 * @return Matching commands, best first
+	 */
+	public List<T> search(final String query, final int limit) {
+		final String q = normalize(query);
+		if (q.isEmpty() || limit <= 0) {
+			return List.of();
+		}
+		final List<String> words = MacroFunctionIndex.tokenize(q);
+		final long queryMask = mask(q);
+
+		synchronized (this) {
+			final List<Set<String>> typos = typos(words);
+			final int[] scores = new int[entries.size()];
+			// Best first: highest score, then shortest name, then alphabetical
+			final Comparator<Integer> order = Comparator.<Integer> comparingInt(
+				i -> -scores[i]).thenComparingInt(i -> entries.get(i).name.length())
+				.thenComparing(i -> entries.get(i).name);
+			// Keeps the best matches so far, worst at the head
+			final PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, order
+				.reversed());
+
+			for (int i = 0; i < scores.length; i++) {
+				final Entry<T> entry = entries.get(i);
+				// Every non-fuzzy match needs all the query's letters and digits
+				if ((entry.mask & queryMask) == queryMask) {
+					scores[i] = score(entry, q, words);
+				}
+				if (scores[i] == 0 && typos != null && allMatch(typos, entry.words)) {
+					scores[i] = FUZZY;
+				}
+				if (scores[i] > 0) {
+					best.add(i);
+					if (best.size() > limit) {
+						best.poll();
+					}
+				}
+			}
+
+			final List<T> results = new ArrayList<>(best.size());
+			while (!best.isEmpty()) {
+				results.add(entries.get(best.poll()).command);
+			}
+			Collections.reverse(results);
+			return results;
+		}
+	}
+
+	private static int score(final Entry<?> entry, final String query,
+		final List<String> words)
+	{
+		final String name = entry.name;
+		if (name.equals(query)) {
+			return EXACT;
+		}
+		if (name.startsWith(query)) {
+			return NAME_PREFIX;
+		}
+		if (name.contains(query)) {
+			return NAME_CONTAINS;
+		}
+		if (!words.isEmpty() && startsWords(words, entry.words)) {
+			return WORD_PREFIXES;
+		}
+		if (entry.menuPath.contains(query)) {
+			return MENU_PATH_CONTAINS;
+		}
+		return 0;
+	}
+
+	/**
+	 * @return Whether every query word starts a name word
+	 */
+	private static boolean startsWords(final List<String> queryWords,
+		final List<String> nameWords)
+	{
+		for (final String queryWord : queryWords) {
+			boolean found = false;
+			for (final String nameWord : nameWords) {
+				if (nameWord.startsWith(queryWord)) {
+					found = true;
+					break;
+				}
+			}
+			if (!found) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return For each query word, the name words within one edit of it; or
+	 *         null if some word is too short or has no such name word, in which
+	 *         case no command can match fuzzily
+	 */
+	private List<Set<String>> typos(final List<String> queryWords) {
+		if (queryWords.isEmpty()) {
+			return null;
+		}
+		final List<Set<String>> typos = new ArrayList<>(queryWords.size());
+		for (final String queryWord : queryWords) {
+			if (queryWord.length() < MIN_FUZZY_LENGTH) {
+				return null;
+			}
+			final Set<String> close = new HashSet<>();
+			for (final String word : vocabulary.keySet()) {
+				if (MacroFunctionIndex.withinOneEdit(queryWord, word)) {
+					close.add(word);
+				}
+			}
+			if (close.isEmpty()) {
+				return null;
+			}
+			typos.add(close);
+		}
+		return typos;
+	}
+
+	/**
+	 * @return Whether every set contains one of the name words
+	 */
+	private static boolean allMatch(final List<Set<String>> typos,
+		final List<String> nameWords)
+	{
+		for (final Set<String> close : typos) {
+			boolean found = false;
+			for (final String nameWord : nameWords) {
+				if (close.contains(nameWord)) {
+					found = true;
+					break;
+				}
+			}
+			if (!found) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** One bit per letter or digit in the text, folded into 64 bits */
+	private static long mask(final String text) {
+		long mask = 0;
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				mask |= 1L << (c & 63);
+			}
+		}
+		return mask;
+	}
+
+	/** Lower-cases and drops the "..." that marks commands with dialogs */
+	private static String normalize(final String text) {
+		if (text == null) {
+			return "";
+		}
+		String s = text.trim().toLowerCase(Locale.ROOT);
+		if (s.endsWith("...")) {
+			s = s.substring(0, s.length() - 3).trim();
+		}
+		return s;
+	}
+
+	private static class Entry<T> {
+
+		private final T command;
+		private final String name;
+		/** Lower-cased menu path, for searching */
+		private final String menuPath;
+		/** Menu path as added, for exact lookups */
+		private final String menuString;
+		private final List<String> words;
+
+		/** {@link CommandIndex#mask(String)} of the name and menu path */
+		private final long mask;
+
+		Entry(final T command, final String name, final String menuPath) {
+			this.command = command;
+			this.name = normalize(name);
+			this.menuPath = menuPath == null ? "" : menuPath.toLowerCase(
+				Locale.ROOT);
+			menuString = menuPath;
+			words = List.copyOf(new LinkedHashSet<>(MacroFunctionIndex.tokenize(
+				this.name)));
+			mask = mask(this.name) | mask(this.menuPath);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.util.List;
+
+import org.scijava.module.ModuleInfo;
+
+import net.imagej.ImageJService;
+
+/**
+ * SciJava service keeping a {@link CommandIndex} of all modules with a menu
+ * path. The index is built from the module service on first use and then
+ * kept current from module added, removed and updated events, so lookups
+ * never scan the module list or go through the global search framework.
+ * Modules are indexed under {@code getMenuPath().getMenuString()}.
+ */
+public interface CommandIndexService extends ImageJService {
+
+	/**
+	 * @param query a command name or part of one, e.g. "blur"
+	 * @param limit maximum number of results
+	 * @return Matching commands, best first
+	 */
+	List<ModuleInfo> search(String query, int limit);
+
+	/**
+	 * @param menuString a menu string as produced by
+	 *          {@link org.scijava.MenuPath#getMenuString()}
+	 * @return The module at that menu path, or null if there is none
+	 */
+	ModuleInfo getByMenuPath(String menuString);
+}
@@ -23,27 +23,19 @@
 package sc.fiji.llm.macro;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.StringJoiner;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.scijava.Cancelable;
 import org.scijava.MenuPath;
+import org.scijava.module.Module;
 import org.scijava.module.ModuleInfo;
 import org.scijava.module.ModuleService;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
-import org.scijava.plugin.PluginService;
-import org.scijava.search.SearchListener;
-import org.scijava.search.SearchOperation;
-import org.scijava.search.SearchResult;
-import org.scijava.search.SearchService;
-import org.scijava.search.Searcher;
-import org.scijava.search.module.ModuleSearchResult;
-import org.scijava.search.module.ModuleSearcher;
 
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
@@ -59,14 +51,17 @@ public class CommandInteractionTool extends AbstractAiToolPlugin {
 
 	private static final int MAX_RESULTS = 10;
 
-	@Parameter
-	private SearchService searchService;
+	/**
+	 * How long {@link #runCommands(List)} waits for each command, including
+	 * any dialog the user has to answer
+	 */
+	private static final long COMMAND_TIMEOUT_MINUTES = 5;
 
 	@Parameter
-	private ModuleService moduleService;
+	private CommandIndexService commandIndexService;
 
 	@Parameter
-	private PluginService pluginService;
+	private ModuleService moduleService;
 
 	public CommandInteractionTool() {
 		super(CommandInteractionTool.class);
@@ -88,6 +83,7 @@ public class CommandInteractionTool extends AbstractAiToolPlugin {
 Commands are reusable functions. They vary by runtime (e.g. installed plugins).
 To find available commands, use searchCommands. Always search for a command first to verify it exists before suggesting it to the user.
 To run a command, use: 1) searchCommands, then 2) runCommand with the desired menuPath.
+To run several commands in sequence, pass all their menu paths to runCommands in one call.
 """;
 	}
 
@@ -96,47 +92,116 @@ To run a command, use: 1) searchCommands, then 2) runCommand with the desired me
 		"Args: menuPath - formatted menu path (e.g., \"File > Open Samples > Blobs\")", })
 	public String runCommand(@P("menuPath") String menuPath) {
 		try {
-			if (menuPath == null || menuPath.isEmpty()) {
-				return jsonError("Menu path cannot be empty");
-			}
+			ModuleInfo moduleInfo = findPermittedCommand(menuPath);
 
-			// Create a MenuPath from the components by joining them
-			// MenuPath constructor takes a string like "Plugins > Samples > Blobs"
-			MenuPath path = new MenuPath(menuPath);
-			String menuString = path.getMenuString();
+			// Run the module - this goes through the same path as the search panel
+			// and includes automatic recorder integration
+			moduleService.run(moduleInfo, true);
+			return "Command executed: " + moduleInfo.getName();
+		}
+		catch (RuntimeException e) {
+			return jsonError(e.getMessage());
+		}
+	}
 
-			// Find the module with this menu path
-			ModuleInfo moduleInfo = moduleService.getModules().stream()
-				// NB: MenuPath uses object equality
-				.filter(info -> menuString.equals(info.getMenuPath().getMenuString()))
-				.findFirst().orElse(null);
+	@Tool(value = {
+		"Run several commands in order, each finishing before the next starts. Each must be allowed by runCommand",
+		"Args: menuPaths - formatted menu paths (e.g., [\"File > Open Samples > Blobs\", \"Process > Filters > Gaussian Blur...\"])",
+		"Returns: The outcome of each command; stops at the first failure or canceled dialog" })
+	public String runCommands(@P("menuPaths") List<String> menuPaths) {
+		if (menuPaths == null || menuPaths.isEmpty()) {
+			return jsonError("Menu paths cannot be empty");
+		}
 
-			if (moduleInfo == null) {
-				return jsonError("Command not found at path: " + menuPath);
+		// Resolve every path first so nothing runs if any is invalid
+		List<ModuleInfo> modules = new ArrayList<>(menuPaths.size());
+		for (String menuPath : menuPaths) {
+			try {
+				modules.add(findPermittedCommand(menuPath));
 			}
+			catch (RuntimeException e) {
+				return jsonError(e.getMessage() + " (no commands were run)");
+			}
+		}
 
-			// Validate that this command is allowed for agentic use
-			// Check for interactive commands (with "..." in the name)
-			boolean permittedCommand = false;
+		// Each command blocks this tool call until the user closes its dialog.
+		// Stopping the chat does not interrupt the wait, so it is bounded.
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < modules.size(); i++) {
+			ModuleInfo moduleInfo = modules.get(i);
+			try {
+				// Wait so that each command sees the results of the previous one
+				Module module = moduleService.run(moduleInfo, true).get(
+					COMMAND_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+				if (module instanceof Cancelable cancelable && cancelable
+					.isCanceled())
+				{
+					String reason = cancelable.getCancelReason();
+					return sb + jsonError("Command canceled: " + menuPaths.get(i) +
+						(reason == null ? "" : ": " + reason) +
+						" (remaining commands were not run)");
+				}
+				sb.append("Command executed: ").append(moduleInfo.getName()).append(
+					"\n");
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return sb + jsonError("Interrupted before " + menuPaths.get(i));
+			}
+			catch (TimeoutException e) {
+				return sb + jsonError("Command still running after " +
+					COMMAND_TIMEOUT_MINUTES + " minutes: " + menuPaths.get(i) +
+					" (remaining commands were not run)");
+			}
+			catch (ExecutionException | RuntimeException e) {
+				Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+				return sb + jsonError("Command failed: " + menuPaths.get(i) + ": " +
+					cause.getMessage());
+			}
+		}
+		return sb.toString();
+	}
 
-			String leafName = path.getLeaf().getName();
-			permittedCommand = permittedCommand || leafName.contains("...");
+	/**
+	 * Look up a command by menu path and check it is allowed for agentic use.
+	 *
+	 * @throws IllegalArgumentException if the path is empty, unknown or not
+	 *           permitted
+	 */
+	private ModuleInfo findPermittedCommand(String menuPath) {
+		if (menuPath == null || menuPath.isEmpty()) {
+			throw new IllegalArgumentException("Menu path cannot be empty");
+		}
 
-			permittedCommand = permittedCommand || menuString.contains(
-				"Open Samples") && !leafName.equals("Open Samples");
+		// Create a MenuPath from the components by joining them
+		// MenuPath constructor takes a string like "Plugins > Samples > Blobs"
+		MenuPath path = new MenuPath(menuPath);
+		String menuString = path.getMenuString();
 
-			if (!permittedCommand) {
-				return jsonError("This command is not allowed for agentic use. Instruct user to run it.");
-			}
+		// Find the module with this menu path
+		ModuleInfo moduleInfo = commandIndexService.getByMenuPath(menuString);
 
-			// Run the module - this goes through the same path as the search panel
-			// and includes automatic recorder integration
-			moduleService.run(moduleInfo, true);
-			return "Command executed: " + moduleInfo.getName();
+		if (moduleInfo == null) {
+			throw new IllegalArgumentException("Command not found at path: " +
+				menuPath);
 		}
-		catch (RuntimeException e) {
-			return jsonError(e.getMessage());
+
+		// Validate that this command is allowed for agentic use
+		// Check for interactive commands (with "..." in the name)
+		boolean permittedCommand = false;
+
+		String leafName = path.getLeaf().getName();
+		permittedCommand = permittedCommand || leafName.contains("...");
+
+		permittedCommand = permittedCommand || menuString.contains(
+			"Open Samples") && !leafName.equals("Open Samples");
+
+		if (!permittedCommand) {
+			throw new IllegalArgumentException(
+				"This command is not allowed for agentic use. Instruct user to run it: " +
+					menuPath);
 		}
+		return moduleInfo;
 	}
 
 	@Tool(value = { "Search for available commands",
@@ -148,51 +213,8 @@ To run a command, use: 1) searchCommands, then 2) runCommand with the desired me
 				return jsonError("Command name cannot be empty");
 			}
 
-			// Collect results with a timeout
-			List<SearchResult> results = Collections.synchronizedList(
-				new ArrayList<>());
-			CountDownLatch searchComplete = new CountDownLatch(1);
-
-			SearchListener listener = event -> {
-				// Process results from this search event
-				for (SearchResult result : event.results()) {
-					if (results.size() < MAX_RESULTS) {
-						results.add(result);
-					}
-					searchComplete.countDown();
-				}
-			};
-
-			// Save state of all searchers by class
-			Map<Searcher, Boolean> originalState = new HashMap<>();
-			List<Searcher> allSearchers = pluginService.createInstancesOfType(
-				Searcher.class);
-			for (Searcher searcher : allSearchers) {
-				originalState.put(searcher, searchService.enabled(searcher));
-			}
-
-			try {
-				// Disable all except ModuleSearcher
-				for (Searcher searcher : allSearchers) {
-					searchService.setEnabled(searcher,
-						searcher instanceof ModuleSearcher);
-				}
-
-				// Start the search operation
-				SearchOperation operation = searchService.search(listener);
-				operation.search(commandName);
-
-				// Wait for results with timeout (2 seconds should be plenty)
-				searchComplete.await(2, TimeUnit.SECONDS);
-				operation.terminate();
-
-			}
-			finally {
-				// Restore original state
-				for (Map.Entry<Searcher, Boolean> entry : originalState.entrySet()) {
-					searchService.setEnabled(entry.getKey(), entry.getValue());
-				}
-			}
+			List<ModuleInfo> results = commandIndexService.search(commandName,
+				MAX_RESULTS);
 
 			if (results.isEmpty()) {
 				return "No commands found matching: " + commandName;
@@ -200,18 +222,11 @@ To run a command, use: 1) searchCommands, then 2) runCommand with the desired me
 
 			// Format results as JSON-like string for LLM consumption
 			StringJoiner sb = new StringJoiner(",\n", "[\n", "\n]");
-			for (SearchResult result : results) {
-				if (result instanceof ModuleSearchResult msr) {
-					sb.add(formatModuleResult(msr));
-				}
-				// Ignore non-module results
+			for (ModuleInfo info : results) {
+				sb.add(formatModuleResult(info));
 			}
 			return sb.toString();
 		}
-		catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			return jsonError("Search interrupted");
-		}
 		catch (RuntimeException e) {
 			return jsonError("Search failed");
 		}
@@ -222,12 +237,11 @@ To run a command, use: 1) searchCommands, then 2) runCommand with the desired me
 	 * Includes: name, menu path, shortcut. Not included: identifier, description,
 	 * label, additional properties
 	 */
-	private String formatModuleResult(ModuleSearchResult msr) {
+	private String formatModuleResult(ModuleInfo info) {
 		StringJoiner props = new StringJoiner(", ", "{", "}");
-		ModuleInfo info = msr.info();
 
 		// Add name and basic info
-		props.add("\"name\": \"" + escapeJson(msr.name()) + "\"");
+		props.add("\"name\": \"" + escapeJson(info.getTitle()) + "\"");
 
 		// Include menu path if available
 		if (info.getMenuPath() != null && !info.getMenuPath().isEmpty()) {
@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.util.List;
+
+import org.scijava.event.EventHandler;
+import org.scijava.module.ModuleInfo;
+import org.scijava.module.ModuleService;
+import org.scijava.module.event.ModulesAddedEvent;
+import org.scijava.module.event.ModulesRemovedEvent;
+import org.scijava.module.event.ModulesUpdatedEvent;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Default implementation of {@link CommandIndexService}.
+ */
+@Plugin(type = Service.class)
+public class DefaultCommandIndexService extends AbstractService implements
+	CommandIndexService
+{
+
+	@Parameter
+	private ModuleService moduleService;
+
+	private final CommandIndex<ModuleInfo> index = new CommandIndex<>();
+
+	/** Whether {@link #index} has been filled from the module service */
+	private volatile boolean built;
+
+	@Override
+	public List<ModuleInfo> search(final String query, final int limit) {
+		return index().search(query, limit);
+	}
+
+	@Override
+	public ModuleInfo getByMenuPath(final String menuString) {
+		return index().getByMenuPath(menuString);
+	}
+
+	private CommandIndex<ModuleInfo> index() {
+		if (!built) {
+			synchronized (index) {
+				if (!built) {
+					addAll(moduleService.getModules());
+					built = true;
+				}
+			}
+		}
+		return index;
+	}
+
+	private void addAll(final List<? extends ModuleInfo> modules) {
+		for (final ModuleInfo info : modules) {
+			if (info.getMenuPath() == null || info.getMenuPath().isEmpty()) {
+				// Not reachable from a menu, so not runnable by menu path
+				index.remove(info);
+				continue;
+			}
+			index.add(info, info.getTitle(), info.getMenuPath().getMenuString());
+		}
+	}
+
+	// -- Event handlers --
+
+	@EventHandler
+	protected void onEvent(final ModulesAddedEvent event) {
+		update(event.getItems(), false);
+	}
+
+	@EventHandler
+	protected void onEvent(final ModulesUpdatedEvent event) {
+		update(event.getItems(), false);
+	}
+
+	@EventHandler
+	protected void onEvent(final ModulesRemovedEvent event) {
+		update(event.getItems(), true);
+	}
+
+	private void update(final List<? extends ModuleInfo> modules,
+		final boolean removed)
+	{
+		synchronized (index) {
+			// Before the first search the full build will pick up the change
+			if (!built) return;
+			if (removed) {
+				modules.forEach(index::remove);
+			}
+			else {
+				addAll(modules);
+			}
+		}
+	}
+}
@@ -0,0 +1,188 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.scijava.event.EventHandler;
+import org.scijava.log.LogService;
+import org.scijava.module.ModuleInfo;
+import org.scijava.module.ModuleService;
+import org.scijava.module.event.ModulesAddedEvent;
+import org.scijava.module.event.ModulesRemovedEvent;
+import org.scijava.module.event.ModulesUpdatedEvent;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2q.AllMiniLmL6V2QuantizedEmbeddingModel;
+import sc.fiji.llm.chat.ConversationService;
+import sc.fiji.llm.macro.MacroFunctionRegistry.MacroFunction;
+
+/**
+ * Default implementation of {@link MacroSearchService}, using the quantized
+ * all-MiniLM-L6-v2 sentence embedding model, which runs in process through
+ * ONNX Runtime. Embeddings are saved next to the conversations.
+ */
+@Plugin(type = Service.class)
+public class DefaultMacroSearchService extends AbstractService implements
+	MacroSearchService
+{
+
+	/** Identifies the model's embeddings in the saved cache */
+	private static final String MODEL_ID = "all-minilm-l6-v2-q";
+
+	private static final String CACHE_FILE = "macro-embeddings.cache";
+
+	/** Results less similar than this to the query are dropped */
+	private static final double MIN_SCORE = 0.2;
+
+	@Parameter
+	private ModuleService moduleService;
+
+	@Parameter
+	private ConversationService conversationService;
+
+	@Parameter(required = false)
+	private LogService logService;
+
+	private final EmbeddingCache cache = new EmbeddingCache(MODEL_ID);
+
+	/** Created on first use, as loading the model takes a moment */
+	private EmbeddingModel model;
+
+	/** Null before the first search and after modules change */
+	private EmbeddingIndex<Object> index;
+
+	private boolean cacheLoaded;
+
+	@Override
+	public List<Match> find(final String query, final int limit) {
+		if (query == null || query.isBlank() || limit <= 0) {
+			return List.of();
+		}
+		final EmbeddingIndex<Object> current = index();
+		final float[] embedding = model().embed(query).content().vector();
+
+		final List<Match> matches = new ArrayList<>();
+		for (final EmbeddingIndex.Match<Object> match : current.search(embedding,
+			Math.min(limit, MAX_RESULTS), MIN_SCORE))
+		{
+			matches.add(match.item() instanceof MacroFunction function ? new Match(
+				function, match.score()) : new Match((ModuleInfo) match.item(), match
+					.score()));
+		}
+		return matches;
+	}
+
+	private synchronized EmbeddingModel model() {
+		if (model == null) {
+			model = new AllMiniLmL6V2QuantizedEmbeddingModel();
+		}
+		return model;
+	}
+
+	private synchronized EmbeddingIndex<Object> index() {
+		if (index != null) {
+			return index;
+		}
+		if (!cacheLoaded) {
+			cacheLoaded = true;
+			try {
+				cache.load(cacheFile());
+			}
+			catch (final IOException e) {
+				if (logService != null) {
+					logService.debug("Could not load macro embeddings", e);
+				}
+			}
+		}
+
+		final List<Object> items = new ArrayList<>(MacroFunctionRegistry
+			.getAllFunctions());
+		for (final ModuleInfo info : moduleService.getModules()) {
+			// Like the command index, only commands that can be run by menu path
+			if (info.getMenuPath() != null && !info.getMenuPath().isEmpty()) {
+				items.add(info);
+			}
+		}
+		final List<String> texts = new ArrayList<>(items.size());
+		for (final Object item : items) {
+			texts.add(item instanceof MacroFunction function ? function.toString()
+				: text((ModuleInfo) item));
+		}
+		index = new EmbeddingIndex<>(items, cache.embedAll(model(), texts));
+
+		if (cache.isModified()) {
+			try {
+				cache.save(cacheFile());
+			}
+			catch (final IOException e) {
+				if (logService != null) {
+					logService.debug("Could not save macro embeddings", e);
+				}
+			}
+		}
+		return index;
+	}
+
+	/** The command's title, menu path and description, if any */
+	private static String text(final ModuleInfo info) {
+		final String description = info.getDescription();
+		return info.getTitle() + " (" + info.getMenuPath().getMenuString() + ")" +
+			(description == null || description.isBlank() ? "" : ": " +
+				description);
+	}
+
+	private File cacheFile() {
+		return new File(conversationService.getConversationDirectory(),
+			CACHE_FILE);
+	}
+
+	// -- Event handlers --
+
+	@EventHandler
+	protected void onEvent(final ModulesAddedEvent event) {
+		invalidate();
+	}
+
+	@EventHandler
+	protected void onEvent(final ModulesUpdatedEvent event) {
+		invalidate();
+	}
+
+	@EventHandler
+	protected void onEvent(final ModulesRemovedEvent event) {
+		invalidate();
+	}
+
+	/** Rebuild on the next search; cached embeddings make that quick */
+	private synchronized void invalidate() {
+		index = null;
+	}
+}
@@ -0,0 +1,249 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+/**
+ * Embeddings of texts keyed by a SHA-256 hash of the text, so that each text
+ * is embedded only once per model. Thread-safe.
+ * <p>
+ * The cache can be saved to and loaded from a file, so that the index of
+ * macro functions and commands is not embedded again after a restart. A file
+ * saved for another model or {@link #FORMAT_VERSION} is ignored.
+ * </p>
+ */
+public class EmbeddingCache {
+
+	/** Version of the file format written by {@link #save(File)} */
+	public static final int FORMAT_VERSION = 1;
+
+	/** Number of texts sent to the model at once */
+	private static final int BATCH_SIZE = 64;
+
+	private final String modelId;
+	private final Map<String, float[]> entries = new HashMap<>();
+
+	/** Whether entries were added since the last load or save */
+	private boolean modified;
+
+	/**
+	 * @param modelId identifies the model whose embeddings are cached, so that
+	 *          a saved cache is not used with another model
+	 */
+	public EmbeddingCache(final String modelId) {
+		this.modelId = modelId;
+	}
+
+	/**
+	 * Get the embedding of each text, embedding only the texts not cached yet.
+	 *
+	 * @param model the model identified by this cache's model id
+	 * @param texts the texts to embed
+	 * @return The embedding of each text, in order
+	 */
+	public List<float[]> embedAll(final EmbeddingModel model,
+		final List<String> texts)
+	{
+		final List<String> keys = new ArrayList<>(texts.size());
+		// Uncached texts by key, without duplicates
+		final Map<String, String> missing = new LinkedHashMap<>();
+		synchronized (entries) {
+			for (final String text : texts) {
+				final String key = key(text);
+				keys.add(key);
+				if (!entries.containsKey(key)) {
+					missing.put(key, text);
+				}
+			}
+		}
+
+		// Embed outside the lock; a concurrent miss just embeds twice
+		final List<String> missingKeys = new ArrayList<>(missing.keySet());
+		for (int start = 0; start < missingKeys.size(); start += BATCH_SIZE) {
+			final List<String> batch = missingKeys.subList(start, Math.min(
+				missingKeys.size(), start + BATCH_SIZE));
+			final List<TextSegment> segments = new ArrayList<>(batch.size());
+			for (final String key : batch) {
+				segments.add(TextSegment.from(missing.get(key)));
+			}
+			final List<Embedding> embeddings = model.embedAll(segments).content();
+			synchronized (entries) {
+				for (int i = 0; i < batch.size(); i++) {
+					entries.put(batch.get(i), embeddings.get(i).vector());
+				}
+				modified = true;
+			}
+		}
+
+		final List<float[]> vectors = new ArrayList<>(keys.size());
+		synchronized (entries) {
+			for (final String key : keys) {
+				vectors.add(entries.get(key));
+			}
+		}
+		return vectors;
+	}
+
+	/**
+	 * @return The number of cached embeddings
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * @return Whether embeddings were added since the cache was last loaded or
+	 *         saved
+	 */
+	public boolean isModified() {
+		synchronized (entries) {
+			return modified;
+		}
+	}
+
+	/**
+	 * Add the embeddings saved in a file. Missing or malformed files and files
+	 * for another model or {@link #FORMAT_VERSION} are ignored.
+	 *
+	 * @param file a file written by {@link #save(File)}
+	 * @throws IOException if the file exists but cannot be read
+	 */
+	public void load(final File file) throws IOException {
+		if (!file.isFile()) {
+			return;
+		}
+		final Map<String, float[]> saved = new HashMap<>();
+		try (Reader reader = Files.newBufferedReader(file.toPath(),
+			StandardCharsets.UTF_8))
+		{
+			final JsonObject json = new Gson().fromJson(reader, JsonObject.class);
+			if (json == null || !json.has("entries") || !json.has("version") ||
+				json.get("version").getAsInt() != FORMAT_VERSION || !json.has(
+					"model") || !modelId.equals(json.get("model").getAsString()))
+			{
+				return;
+			}
+			for (final Map.Entry<String, JsonElement> entry : json.getAsJsonObject(
+				"entries").entrySet())
+			{
+				saved.put(entry.getKey(), decode(entry.getValue().getAsString()));
+			}
+		}
+		catch (final JsonParseException | IllegalStateException
+				| UnsupportedOperationException | IllegalArgumentException e)
+		{
+			// Malformed cache: start over
+			return;
+		}
+		synchronized (entries) {
+			saved.forEach(entries::putIfAbsent);
+		}
+	}
+
+	/**
+	 * Write all embeddings to a file.
+	 *
+	 * @param file the destination
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(final File file) throws IOException {
+		final JsonObject saved = new JsonObject();
+		synchronized (entries) {
+			for (final Map.Entry<String, float[]> entry : entries.entrySet()) {
+				saved.addProperty(entry.getKey(), encode(entry.getValue()));
+			}
+			modified = false;
+		}
+		final JsonObject json = new JsonObject();
+		json.addProperty("version", FORMAT_VERSION);
+		json.addProperty("model", modelId);
+		json.add("entries", saved);
+		try (Writer writer = Files.newBufferedWriter(file.toPath(),
+			StandardCharsets.UTF_8))
+		{
+			new Gson().toJson(json, writer);
+		}
+	}
+
+	/** Little-endian floats in Base64, about a third the size of JSON numbers */
+	private static String encode(final float[] vector) {
+		final ByteBuffer bytes = ByteBuffer.allocate(vector.length * Float.BYTES)
+			.order(ByteOrder.LITTLE_ENDIAN);
+		bytes.asFloatBuffer().put(vector);
+		return Base64.getEncoder().encodeToString(bytes.array());
+	}
+
+	private static float[] decode(final String encoded) {
+		final byte[] bytes = Base64.getDecoder().decode(encoded);
+		if (bytes.length % Float.BYTES != 0) {
+			throw new IllegalArgumentException("Truncated embedding");
+		}
+		final float[] vector = new float[bytes.length / Float.BYTES];
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(
+			vector);
+		return vector;
+	}
+
+	/**
+	 * @param text an embedded text
+	 * @return The cache key for the text
+	 */
+	static String key(final String text) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest
+				.digest((text == null ? "" : text).getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (final NoSuchAlgorithmException e) {
+			// Every Java platform supports SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable flat vector index: items are stored with their embeddings, scaled
+ * to unit length, and a query embedding is compared to every item by cosine
+ * similarity.
+ * <p>
+ * A full scan of a few thousand vectors of a few hundred dimensions takes
+ * well under a millisecond, much less than embedding the query, so no
+ * approximate structure such as HNSW is used.
+ * </p>
+ *
+ * @param <T> the type of indexed item
+ */
+public class EmbeddingIndex<T> {
+
+	private final List<T> items;
+	private final int dimensions;
+
+	/** Row-major unit vectors, {@link #dimensions} floats per item */
+	private final float[] vectors;
+
+	/**
+	 * @param items the items to index
+	 * @param embeddings the embedding of each item, all of the same length
+	 * @throws IllegalArgumentException if the lists differ in size or the
+	 *           embeddings in length
+	 */
+	public EmbeddingIndex(final List<T> items, final List<float[]> embeddings) {
+		if (items.size() != embeddings.size()) {
+			throw new IllegalArgumentException(items.size() + " items but " +
+				embeddings.size() + " embeddings");
+		}
+		this.items = List.copyOf(items);
+		dimensions = embeddings.isEmpty() ? 0 : embeddings.get(0).length;
+		vectors = new float[this.items.size() * dimensions];
+		for (int i = 0; i < embeddings.size(); i++) {
+			final float[] embedding = embeddings.get(i);
+			if (embedding.length != dimensions) {
+				throw new IllegalArgumentException("Embedding " + i + " has " +
+					embedding.length + " dimensions, expected " + dimensions);
+			}
+			normalize(embedding, vectors, i * dimensions);
+		}
+	}
+
+	/**
+	 * @return The number of indexed items
+	 */
+	public int size() {
+		return items.size();
+	}
+
+	/**
+	 * Find the items closest to a query.
+	 *
+	 * @param query the embedding of the query, from the model that embedded the
+	 *          items
+	 * @param limit maximum number of results
+	 * @param minScore results with a lower cosine similarity are dropped
+	 * @return Matching items, most similar first
+	 * @throws IllegalArgumentException if the query has the wrong length
+	 */
+	public List<Match<T>> search(final float[] query, final int limit,
+		final double minScore)
+	{
+		if (limit <= 0 || items.isEmpty()) {
+			return List.of();
+		}
+		if (query.length != dimensions) {
+			throw new IllegalArgumentException("Query has " + query.length +
+				" dimensions, expected " + dimensions);
+		}
+		final float[] target = new float[dimensions];
+		if (!normalize(query, target, 0)) {
+			return List.of();
+		}
+
+		// Keeps the best matches so far, worst at the head
+		final PriorityQueue<Match<T>> best = new PriorityQueue<>(limit + 1, (a,
+			b) -> Double.compare(a.score(), b.score()));
+		for (int i = 0; i < items.size(); i++) {
+			final int offset = i * dimensions;
+			float dot = 0;
+			for (int d = 0; d < dimensions; d++) {
+				dot += vectors[offset + d] * target[d];
+			}
+			if (dot >= minScore) {
+				best.add(new Match<>(items.get(i), dot));
+				if (best.size() > limit) {
+					best.poll();
+				}
+			}
+		}
+
+		final List<Match<T>> matches = new ArrayList<>(best);
+		matches.sort((a, b) -> Double.compare(b.score(), a.score()));
+		return matches;
+	}
+
+	/**
+	 * Copy a vector scaled to unit length.
+	 *
+	 * @return Whether the vector is non-zero; a zero vector is copied as is
+	 */
+	private static boolean normalize(final float[] vector, final float[] out,
+		final int offset)
+	{
+		double norm = 0;
+		for (final float value : vector) {
+			norm += value * value;
+		}
+		final float scale = norm == 0 ? 0 : (float) (1 / Math.sqrt(norm));
+		for (int d = 0; d < vector.length; d++) {
+			out[offset + d] = vector[d] * scale;
+		}
+		return norm != 0;
+	}
+
+	/**
+	 * A search result.
+	 *
+	 * @param <T> the type of indexed item
+	 */
+	public static class Match<T> {
+
+		private final T item;
+		private final double score;
+
+		Match(final T item, final double score) {
+			this.item = item;
+			this.score = score;
+		}
+
+		public T item() {
+			return item;
+		}
+
+		/**
+		 * @return The cosine similarity to the query, between -1 and 1
+		 */
+		public double score() {
+			return score;
+		}
+	}
+}
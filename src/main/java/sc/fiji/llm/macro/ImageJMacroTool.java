@@ -26,6 +26,7 @@ import java.util.List;
 
 import javax.swing.SwingUtilities;
 
+import org.scijava.module.ModuleInfo;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 
@@ -43,9 +44,15 @@ import sc.fiji.llm.tools.ToolContext;
 @Plugin(type = AiToolPlugin.class)
 public class ImageJMacroTool extends AbstractAiToolPlugin {
 
+	private static final int SEARCH_RESULT_LIMIT =
+		MacroFunctionRegistry.DEFAULT_SEARCH_LIMIT;
+
 	@Parameter
 	private LegacyService legacyService;
 
+	@Parameter
+	private MacroSearchService macroSearchService;
+
 	public ImageJMacroTool() {
 		super(ImageJMacroTool.class);
 	}
@@ -65,7 +72,9 @@ public class ImageJMacroTool extends AbstractAiToolPlugin {
 	public String getUsage() {
 		return "We use ImageJ Macros to build reproducible workflows. These tools support macro creation and editing.\n" +
 			"To start recording a macro, use startRecorder.\n" +
-			"To find macro functions, use: 1) listMacroCategories(), 2) listMacroFunctionsByCategory(category).";
+			"To find macro functions or commands by what they do, use findMacroFunctions(query, k). " +
+			"To find macro functions by name or keywords, use searchMacroFunctions(query). " +
+			"To browse, use: 1) listMacroCategories(), 2) listMacroFunctionsByCategory(category).";
 	}
 
 	@Tool(value = { "Returns: A list of ImageJ macro function category names" })
@@ -106,6 +115,76 @@ public class ImageJMacroTool extends AbstractAiToolPlugin {
 		return sb.toString();
 	}
 
+	@Tool(value = {
+		"Args: query - keywords describing what the function does or part of its name, e.g. 'pixel value' or 'setAutoThreshold'",
+		"Returns: The best matching ImageJ macro functions, most relevant first" })
+	public String searchMacroFunctions(@P("query") String query) {
+		if (query == null || query.trim().isEmpty()) {
+			return jsonError("Query cannot be empty", "listMacroCategories");
+		}
+
+		final List<MacroFunctionIndex.Match> matches = MacroFunctionRegistry
+			.search(query, SEARCH_RESULT_LIMIT);
+
+		if (matches.isEmpty()) {
+			return "No macro functions match: " + query +
+				". Try other keywords, or browse with listMacroCategories.";
+		}
+
+		StringBuilder sb = new StringBuilder();
+
+		for (MacroFunctionIndex.Match match : matches) {
+			sb.append("• **").append(match.function().toString()).append("**\n");
+		}
+
+		return sb.toString();
+	}
+
+	@Tool(value = {
+		"Find ImageJ macro functions and menu commands by meaning, e.g. 'smooth the image' or 'count cells'",
+		"Args: query - what the function or command should do; k - number of results, 1 to " +
+			MacroSearchService.MAX_RESULTS,
+		"Returns: The k closest functions and commands, most similar first; commands are called with run(\"name\")" })
+	public String findMacroFunctions(@P("query") String query, @P("k") int k) {
+		if (query == null || query.trim().isEmpty()) {
+			return jsonError("Query cannot be empty", "listMacroCategories");
+		}
+		final int limit = Math.max(1, Math.min(k, MacroSearchService.MAX_RESULTS));
+
+		final List<MacroSearchService.Match> matches;
+		try {
+			matches = macroSearchService.find(query, limit);
+		}
+		catch (RuntimeException e) {
+			return jsonError("Semantic search is unavailable: " + e.getMessage(),
+				"searchMacroFunctions");
+		}
+
+		if (matches.isEmpty()) {
+			return "Nothing found for: " + query +
+				". Try other words, or searchMacroFunctions with keywords.";
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (MacroSearchService.Match match : matches) {
+			if (match.function() != null) {
+				sb.append("• **").append(match.function().toString()).append("**\n");
+			}
+			else {
+				ModuleInfo command = match.command();
+				sb.append("• **run(\"").append(command.getTitle()).append("\")** (")
+					.append(command.getMenuPath().getMenuString()).append(")");
+				if (command.getDescription() != null && !command.getDescription()
+					.isBlank())
+				{
+					sb.append(": ").append(command.getDescription());
+				}
+				sb.append("\n");
+			}
+		}
+		return sb.toString();
+	}
+
 	@Tool(value = { "Start the macro recorder", })
 	public String startRecorder() {
 		try {
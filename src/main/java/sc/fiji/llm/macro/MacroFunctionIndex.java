@@ -0,0 +1,381 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import sc.fiji.llm.macro.MacroFunctionRegistry.MacroFunction;
+
+/**
+ * Immutable lookup structures over a list of {@link MacroFunction}s: exact
+ * name and category maps plus a token inverted index ranked with Okapi BM25.
+ * <p>
+ * Function names are split on punctuation and camel case, so {@code getPixel}
+ * is found by "getpixel", "get pixel" or "pixel". Name tokens are weighted
+ * above category and description tokens. Query terms that are not in the
+ * index fall back to prefix matches (e.g. "thresh" finds "threshold") and then
+ * to terms one edit away (e.g. "histogrm"). This keyword ranking is fused
+ * with a {@link TrigramIndex} ranking, which also finds other forms of a word
+ * (e.g. "blurred" for "blur"), by reciprocal rank fusion: BM25 scores and
+ * cosine similarities are on different scales, so only the ranks are combined.
+ * </p>
+ */
+public class MacroFunctionIndex {
+
+	// Standard BM25 parameters
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+
+	/** Times a name token is counted, relative to description tokens */
+	private static final int NAME_WEIGHT = 3;
+
+	/** Shortest query term expanded to prefix or fuzzy matches */
+	private static final int MIN_EXPANSION_LENGTH = 3;
+
+	/** Score factor for expanded terms, relative to exact matches */
+	private static final double PREFIX_FACTOR = 0.7;
+	private static final double FUZZY_FACTOR = 0.5;
+
+	/** Reciprocal rank fusion constant; larger values flatten rank weights */
+	private static final int RRF_K = 60;
+
+	private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are",
+		"as", "at", "be", "by", "for", "from", "how", "i", "if", "in", "is", "it",
+		"of", "on", "or", "the", "this", "to", "with");
+
+	private final List<MacroFunction> functions;
+	private final Map<String, MacroFunction> byName;
+	private final Map<String, List<MacroFunction>> byCategory;
+	private final List<String> categories;
+
+	/** Term to postings: parallel arrays of function indices and frequencies */
+	private final TreeMap<String, int[][]> postings;
+	private final int[] lengths;
+	private final double averageLength;
+
+	/** Fallback for queries whose words only resemble the indexed ones */
+	private final TrigramIndex<MacroFunction> similar;
+
+	public MacroFunctionIndex(final List<MacroFunction> functions) {
+		this.functions = List.copyOf(functions);
+		lengths = new int[this.functions.size()];
+
+		final Map<String, MacroFunction> names = new HashMap<>();
+		final Map<String, List<MacroFunction>> byCat = new LinkedHashMap<>();
+		final Set<String> categoryNames = new LinkedHashSet<>();
+		final Map<String, Map<Integer, Integer>> terms = new HashMap<>();
+		long totalLength = 0;
+
+		for (int i = 0; i < this.functions.size(); i++) {
+			final MacroFunction function = this.functions.get(i);
+			final String name = function.getName().toLowerCase(Locale.ROOT);
+			names.putIfAbsent(name, function);
+			// Also allow lookups without the parameter list, e.g. "getPixel"
+			names.putIfAbsent(identifier(name), function);
+
+			byCat.computeIfAbsent(function.getCategory().toLowerCase(Locale.ROOT),
+				k -> new ArrayList<>()).add(function);
+			categoryNames.add(function.getCategory());
+
+			final Map<String, Integer> counts = new HashMap<>();
+			for (final String token : tokenize(identifier(function.getName()))) {
+				counts.merge(token, NAME_WEIGHT, Integer::sum);
+			}
+			for (final String token : tokenize(function.getCategory())) {
+				counts.merge(token, 1, Integer::sum);
+			}
+			for (final String token : tokenize(function.getDescription())) {
+				counts.merge(token, 1, Integer::sum);
+			}
+			int length = 0;
+			for (final Map.Entry<String, Integer> entry : counts.entrySet()) {
+				terms.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(i,
+					entry.getValue());
+				length += entry.getValue();
+			}
+			lengths[i] = length;
+			totalLength += length;
+		}
+
+		postings = new TreeMap<>();
+		for (final Map.Entry<String, Map<Integer, Integer>> entry : terms
+			.entrySet())
+		{
+			final int[][] list = new int[2][entry.getValue().size()];
+			int j = 0;
+			for (final Map.Entry<Integer, Integer> posting : entry.getValue()
+				.entrySet())
+			{
+				list[0][j] = posting.getKey();
+				list[1][j] = posting.getValue();
+				j++;
+			}
+			postings.put(entry.getKey(), list);
+		}
+
+		byName = Map.copyOf(names);
+		final Map<String, List<MacroFunction>> frozen = new HashMap<>();
+		byCat.forEach((k, v) -> frozen.put(k, List.copyOf(v)));
+		byCategory = Map.copyOf(frozen);
+		final List<String> sorted = new ArrayList<>(categoryNames);
+		Collections.sort(sorted);
+		categories = List.copyOf(sorted);
+		averageLength = this.functions.isEmpty() ? 0 : (double) totalLength /
+			this.functions.size();
+		similar = new TrigramIndex<>(this.functions, f -> identifier(f.getName()),
+			f -> f.getCategory() + " " + f.getDescription());
+	}
+
+	/**
+	 * @return All functions, in registration order
+	 */
+	public List<MacroFunction> getAllFunctions() {
+		return functions;
+	}
+
+	/**
+	 * @param name a full function name, e.g. {@code getPixel(x, y)}, or just
+	 *          its identifier, e.g. {@code getPixel}; case-insensitive
+	 * @return The function, or null if there is none
+	 */
+	public MacroFunction getByName(final String name) {
+		return name == null ? null : byName.get(name.trim().toLowerCase(
+			Locale.ROOT));
+	}
+
+	/**
+	 * @param category a category name; case-insensitive
+	 * @return The functions in the category, possibly empty
+	 */
+	public List<MacroFunction> getByCategory(final String category) {
+		return category == null ? List.of() : byCategory.getOrDefault(category
+			.trim().toLowerCase(Locale.ROOT), List.of());
+	}
+
+	/**
+	 * @return All category names, sorted alphabetically
+	 */
+	public List<String> getCategories() {
+		return categories;
+	}
+
+	/**
+	 * Rank functions against a free-text query. Each function scores
+	 * {@code 1 / (RRF_K + rank)} for its rank among the keyword matches plus the
+	 * same for its rank among the {@code limit} most similarly spelled
+	 * functions.
+	 *
+	 * @param query keywords, e.g. "pixel value at point"
+	 * @param limit maximum number of results
+	 * @return Matching functions, best first
+	 */
+	public List<Match> search(final String query, final int limit) {
+		final double[] scores = new double[functions.size()];
+		boolean matched = false;
+		for (final String term : new LinkedHashSet<>(tokenize(query))) {
+			final int[][] exact = postings.get(term);
+			if (exact != null) {
+				score(exact, 1, scores);
+				matched = true;
+				continue;
+			}
+			if (term.length() < MIN_EXPANSION_LENGTH) {
+				continue;
+			}
+			boolean expanded = false;
+			for (final int[][] list : postings.subMap(term, term + Character.MAX_VALUE)
+				.values())
+			{
+				score(list, PREFIX_FACTOR, scores);
+				expanded = true;
+			}
+			if (!expanded && term.length() > MIN_EXPANSION_LENGTH) {
+				for (final Map.Entry<String, int[][]> entry : postings.entrySet()) {
+					if (withinOneEdit(term, entry.getKey())) {
+						score(entry.getValue(), FUZZY_FACTOR, scores);
+						expanded = true;
+					}
+				}
+			}
+			matched |= expanded;
+		}
+
+		final List<Integer> keywordRanking = new ArrayList<>();
+		if (matched) {
+			for (int i = 0; i < scores.length; i++) {
+				if (scores[i] > 0) {
+					keywordRanking.add(i);
+				}
+			}
+			keywordRanking.sort((a, b) -> Double.compare(scores[b], scores[a]));
+		}
+
+		// Keyword matches first, so ties keep the keyword order
+		final Map<MacroFunction, Double> fused = new LinkedHashMap<>();
+		for (int rank = 0; rank < keywordRanking.size(); rank++) {
+			fused.merge(functions.get(keywordRanking.get(rank)), rrf(rank),
+				Double::sum);
+		}
+		final List<TrigramIndex.Match<MacroFunction>> similarRanking = similar
+			.search(query, limit);
+		for (int rank = 0; rank < similarRanking.size(); rank++) {
+			fused.merge(similarRanking.get(rank).item(), rrf(rank), Double::sum);
+		}
+
+		final List<Match> matches = new ArrayList<>(fused.size());
+		fused.forEach((function, score) -> matches.add(new Match(function,
+			score)));
+		matches.sort((a, b) -> Double.compare(b.score(), a.score()));
+		return matches.size() > limit ? List.copyOf(matches.subList(0, limit))
+			: matches;
+	}
+
+	/** The fused score of a 0-based rank */
+	private static double rrf(final int rank) {
+		return 1.0 / (RRF_K + rank + 1);
+	}
+
+	private void score(final int[][] list, final double factor,
+		final double[] scores)
+	{
+		final int n = functions.size();
+		final int df = list[0].length;
+		final double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+		for (int j = 0; j < df; j++) {
+			final int doc = list[0][j];
+			final double tf = list[1][j];
+			final double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+			scores[doc] += factor * idf * tf * (K1 + 1) / (tf + norm);
+		}
+	}
+
+	/**
+	 * Split text into lower-case terms. Words are split on non-alphanumeric
+	 * characters; camel-case words also yield their parts, e.g.
+	 * {@code setAutoThreshold} gives "setautothreshold", "set", "auto" and
+	 * "threshold".
+	 */
+	static List<String> tokenize(final String text) {
+		final List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		for (final String word : text.split("[^A-Za-z0-9]+")) {
+			if (word.isEmpty()) {
+				continue;
+			}
+			addToken(tokens, word.toLowerCase(Locale.ROOT));
+			final String[] parts = word.split(
+				"(?<=[a-z0-9])(?=[A-Z])|(?<=[A-Z])(?=[A-Z][a-z])");
+			if (parts.length > 1) {
+				for (final String part : parts) {
+					addToken(tokens, part.toLowerCase(Locale.ROOT));
+				}
+			}
+		}
+		return tokens;
+	}
+
+	private static void addToken(final List<String> tokens, final String token) {
+		if (!STOP_WORDS.contains(token)) {
+			tokens.add(token);
+		}
+	}
+
+	private static String identifier(final String name) {
+		final int paren = name.indexOf('(');
+		return (paren < 0 ? name : name.substring(0, paren)).trim();
+	}
+
+	/**
+	 * @return Whether the strings differ by at most one insertion, deletion or
+	 *         substitution
+	 */
+	static boolean withinOneEdit(final String a, final String b) {
+		final int la = a.length();
+		final int lb = b.length();
+		if (Math.abs(la - lb) > 1) {
+			return false;
+		}
+		int i = 0;
+		int j = 0;
+		boolean edited = false;
+		while (i < la && j < lb) {
+			if (a.charAt(i) == b.charAt(j)) {
+				i++;
+				j++;
+				continue;
+			}
+			if (edited) {
+				return false;
+			}
+			edited = true;
+			if (la > lb) {
+				i++;
+			}
+			else if (lb > la) {
+				j++;
+			}
+			else {
+				i++;
+				j++;
+			}
+		}
+		return !edited || (i == la && j == lb);
+	}
+
+	/**
+	 * A search result.
+	 */
+	public static class Match {
+
+		private final MacroFunction function;
+		private final double score;
+
+		Match(final MacroFunction function, final double score) {
+			this.function = function;
+			this.score = score;
+		}
+
+		public MacroFunction function() {
+			return function;
+		}
+
+		/**
+		 * @return The reciprocal rank fusion score, at most {@code 2 / 61}; only
+		 *         meaningful relative to other results of the same query
+		 */
+		public double score() {
+			return score;
+		}
+	}
+}
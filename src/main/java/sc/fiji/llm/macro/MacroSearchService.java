@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.util.List;
+
+import org.scijava.module.ModuleInfo;
+
+import net.imagej.ImageJService;
+import sc.fiji.llm.macro.MacroFunctionRegistry.MacroFunction;
+
+/**
+ * SciJava service for semantic search over the ImageJ macro functions and the
+ * installed commands that have a menu path. Both are embedded by a small local
+ * model into one {@link EmbeddingIndex}, so a query finds entries with the
+ * same meaning even when they share no words, e.g. "smooth the image" finds
+ * "Gaussian Blur...".
+ * <p>
+ * The index is built on first use and rebuilt after modules are added,
+ * removed or updated. Embeddings are cached on disk, so after the first build
+ * only new or changed entries are embedded.
+ * </p>
+ */
+public interface MacroSearchService extends ImageJService {
+
+	/** Largest number of results returned by {@link #find(String, int)} */
+	int MAX_RESULTS = 20;
+
+	/**
+	 * @param query what the function or command should do, e.g. "count
+	 *          particles"
+	 * @param limit maximum number of results; at most {@link #MAX_RESULTS} are
+	 *          returned
+	 * @return The closest functions and commands, most similar first
+	 */
+	List<Match> find(String query, int limit);
+
+	/**
+	 * A search result: either a macro function or a command.
+	 */
+	class Match {
+
+		private final MacroFunction function;
+		private final ModuleInfo command;
+		private final double score;
+
+		public Match(final MacroFunction function, final double score) {
+			this(function, null, score);
+		}
+
+		public Match(final ModuleInfo command, final double score) {
+			this(null, command, score);
+		}
+
+		private Match(final MacroFunction function, final ModuleInfo command,
+			final double score)
+		{
+			this.function = function;
+			this.command = command;
+			this.score = score;
+		}
+
+		/**
+		 * @return The macro function, or null if this is a command
+		 */
+		public MacroFunction function() {
+			return function;
+		}
+
+		/**
+		 * @return The command, or null if this is a macro function
+		 */
+		public ModuleInfo command() {
+			return command;
+		}
+
+		/**
+		 * @return The cosine similarity to the query, between -1 and 1; comparable
+		 *         between functions and commands
+		 */
+		public double score() {
+			return score;
+		}
+	}
+}
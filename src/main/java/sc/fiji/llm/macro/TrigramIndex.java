@@ -0,0 +1,230 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable lexical similarity index over short text documents, for finding
+ * items whose words are spelled like those of a query even when none match
+ * exactly.
+ * <p>
+ * The word tokens of each document and the character trigrams of those words
+ * are weighted by TF-IDF and hashed with random signs into a fixed number of
+ * dimensions, then normalized. Trigrams make related word forms ("blur",
+ * "blurring", "blurred") and typos land near each other; synonyms that share
+ * no spelling do not. Queries are hashed the same way and compared to every
+ * document by cosine similarity.
+ * </p>
+ *
+ * @param <T> the type of indexed item
+ */
+public class TrigramIndex<T> {
+
+	/** Number of hashed dimensions per vector */
+	static final int DIMENSIONS = 512;
+
+	/** Times a title feature is counted, relative to description features */
+	private static final float TITLE_WEIGHT = 2;
+
+	/** Weight of a character trigram, relative to a whole word */
+	private static final float TRIGRAM_WEIGHT = 0.5f;
+
+	/** Results below this cosine similarity are dropped */
+	private static final float MIN_SIMILARITY = 0.05f;
+
+	private final List<T> items;
+
+	/** Row-major vectors, {@link #DIMENSIONS} floats per item */
+	private final float[] vectors;
+
+	/** Inverse document frequency of each feature seen while indexing */
+	private final Map<String, Float> idf;
+
+	/**
+	 * @param items the items to index
+	 * @param title extracts the name of an item, weighted above its description
+	 * @param description extracts the text describing an item; may return null
+	 */
+	public TrigramIndex(final List<T> items, final Function<T, String> title,
+		final Function<T, String> description)
+	{
+		this.items = List.copyOf(items);
+
+		final List<Map<String, Float>> documents = new ArrayList<>(this.items
+			.size());
+		final Map<String, Integer> documentFrequency = new HashMap<>();
+		for (final T item : this.items) {
+			final Map<String, Float> counts = new HashMap<>();
+			addFeatures(title.apply(item), TITLE_WEIGHT, counts);
+			addFeatures(description.apply(item), 1, counts);
+			for (final String feature : counts.keySet()) {
+				documentFrequency.merge(feature, 1, Integer::sum);
+			}
+			documents.add(counts);
+		}
+
+		final Map<String, Float> weights = new HashMap<>();
+		final double n = this.items.size();
+		documentFrequency.forEach((feature, df) -> weights.put(feature,
+			(float) (Math.log((n + 1) / (df + 1)) + 1)));
+		idf = Map.copyOf(weights);
+
+		vectors = new float[this.items.size() * DIMENSIONS];
+		for (int i = 0; i < documents.size(); i++) {
+			vectorize(documents.get(i), vectors, i * DIMENSIONS);
+		}
+	}
+
+	/**
+	 * @return The number of indexed items
+	 */
+	public int size() {
+		return items.size();
+	}
+
+	/**
+	 * Find the items closest to a query.
+	 *
+	 * @param query free text, e.g. "smooth the image"
+	 * @param limit maximum number of results
+	 * @return Matching items, most similar first
+	 */
+	public List<Match<T>> search(final String query, final int limit) {
+		final Map<String, Float> counts = new HashMap<>();
+		addFeatures(query, 1, counts);
+		final float[] target = new float[DIMENSIONS];
+		if (limit <= 0 || !vectorize(counts, target, 0)) {
+			return List.of();
+		}
+
+		final List<Match<T>> matches = new ArrayList<>();
+		for (int i = 0; i < items.size(); i++) {
+			final int offset = i * DIMENSIONS;
+			float dot = 0;
+			for (int d = 0; d < DIMENSIONS; d++) {
+				dot += vectors[offset + d] * target[d];
+			}
+			if (dot >= MIN_SIMILARITY) {
+				matches.add(new Match<>(items.get(i), dot));
+			}
+		}
+		matches.sort((a, b) -> Double.compare(b.score(), a.score()));
+		return matches.size() > limit ? List.copyOf(matches.subList(0, limit))
+			: matches;
+	}
+
+	/**
+	 * Write the normalized, TF-IDF weighted, hashed vector of the given feature
+	 * counts. Features never seen while indexing are ignored, as they cannot
+	 * match any document.
+	 *
+	 * @return Whether the vector is non-zero
+	 */
+	private boolean vectorize(final Map<String, Float> counts, final float[] out,
+		final int offset)
+	{
+		for (final Map.Entry<String, Float> entry : counts.entrySet()) {
+			final Float weight = idf.get(entry.getKey());
+			if (weight == null) {
+				continue;
+			}
+			final int hash = mix(entry.getKey().hashCode());
+			final int bucket = Math.floorMod(hash, DIMENSIONS);
+			final float value = (float) (1 + Math.log(entry.getValue())) * weight;
+			// A hash-derived sign keeps collisions from adding up on average
+			out[offset + bucket] += (hash & 0x40000000) == 0 ? value : -value;
+		}
+
+		double norm = 0;
+		for (int d = 0; d < DIMENSIONS; d++) {
+			norm += out[offset + d] * out[offset + d];
+		}
+		if (norm == 0) {
+			return false;
+		}
+		final float scale = (float) (1 / Math.sqrt(norm));
+		for (int d = 0; d < DIMENSIONS; d++) {
+			out[offset + d] *= scale;
+		}
+		return true;
+	}
+
+	/**
+	 * Add the word and character trigram features of some text.
+	 */
+	static void addFeatures(final String text, final float weight,
+		final Map<String, Float> counts)
+	{
+		for (final String token : MacroFunctionIndex.tokenize(text)) {
+			counts.merge(token, weight, Float::sum);
+			final String padded = "<" + token + ">";
+			for (int i = 0; i + 3 <= padded.length(); i++) {
+				// "#" keeps trigrams apart from three-letter words
+				counts.merge("#" + padded.substring(i, i + 3), weight *
+					TRIGRAM_WEIGHT, Float::sum);
+			}
+		}
+	}
+
+	/** Spreads the bits of {@link String#hashCode()}, which are weak */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * A search result.
+	 *
+	 * @param <T> the type of indexed item
+	 */
+	public static class Match<T> {
+
+		private final T item;
+		private final double score;
+
+		Match(final T item, final double score) {
+			this.item = item;
+			this.score = score;
+		}
+
+		public T item() {
+			return item;
+		}
+
+		/**
+		 * @return The cosine similarity to the query, between 0 and 1
+		 */
+		public double score() {
+			return score;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import net.imagej.ImageJService;
+
+/**
+ * SciJava service collecting end-to-end metrics for chat turns: time to first
+ * token, tokens per second, total turn time, tool loop iterations and token
+ * usage, grouped by provider and model. Rolling percentiles are kept in
+ * memory; completed turns can additionally be exported as CSV or JSON Lines.
+ */
+public interface ChatMetricsService extends ImageJService {
+
+	/**
+	 * Begin timing a chat turn.
+	 *
+	 * @param provider the name of the LLM provider
+	 * @param model the model name
+	 * @return A recorder to be notified as the turn progresses
+	 */
+	TurnRecorder startTurn(String provider, String model);
+
+	/**
+	 * Record a finished turn. Normally called by {@link TurnRecorder}.
+	 */
+	void record(TurnMetrics turn);
+
+	/**
+	 * @return A snapshot of the metrics for the given provider and model, or
+	 *         {@code null} if no turns were recorded
+	 */
+	ChatModelStats getStats(String provider, String model);
+
+	/**
+	 * @return Snapshots for all provider/model combinations with recorded turns
+	 */
+	List<ChatModelStats> getAllStats();
+
+	/**
+	 * @return The most recently finished turns, oldest first
+	 */
+	List<TurnMetrics> getRecentTurns();
+
+	/**
+	 * Write the recent turns to a file. Files ending in {@code .csv} are written
+	 * as CSV, anything else as JSON Lines.
+	 *
+	 * @param file the destination, which is overwritten
+	 * @throws IOException if the file could not be written
+	 */
+	void exportTurns(File file) throws IOException;
+
+	/**
+	 * Append every subsequently finished turn to the given file, using the same
+	 * format rules as {@link #exportTurns(File)}.
+	 *
+	 * @param file the destination, or {@code null} to stop exporting
+	 */
+	void setExportFile(File file);
+
+	/**
+	 * Discard all recorded metrics.
+	 */
+	void reset();
+}
@@ -0,0 +1,168 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Immutable snapshot of the chat turn metrics recorded for a single provider
+ * and model. Percentiles cover the most recent turns only, so that changes in
+ * behaviour show up quickly.
+ */
+public class ChatModelStats {
+
+	private final String provider;
+	private final String model;
+	private final long turns;
+	private final long failures;
+	private final long cancellations;
+	private final double p50TimeToFirstTokenMillis;
+	private final double p95TimeToFirstTokenMillis;
+	private final double p50TotalMillis;
+	private final double p95TotalMillis;
+	private final double p99TotalMillis;
+	private final double p50TokensPerSecond;
+	private final double meanToolIterations;
+	private final int maxToolIterations;
+	private final long inputTokens;
+	private final long outputTokens;
+
+	ChatModelStats(final String provider, final String model, final long turns,
+		final long failures, final long cancellations,
+		final RollingPercentiles timeToFirstToken,
+		final RollingPercentiles total, final RollingPercentiles tokensPerSecond,
+		final RollingPercentiles toolIterations, final int maxToolIterations,
+		final long inputTokens, final long outputTokens)
+	{
+		this.provider = provider;
+		this.model = model;
+		this.turns = turns;
+		this.failures = failures;
+		this.cancellations = cancellations;
+		this.p50TimeToFirstTokenMillis = timeToFirstToken.percentile(50);
+		this.p95TimeToFirstTokenMillis = timeToFirstToken.percentile(95);
+		this.p50TotalMillis = total.percentile(50);
+		this.p95TotalMillis = total.percentile(95);
+		this.p99TotalMillis = total.percentile(99);
+		this.p50TokensPerSecond = tokensPerSecond.percentile(50);
+		this.meanToolIterations = toolIterations.mean();
+		this.maxToolIterations = maxToolIterations;
+		this.inputTokens = inputTokens;
+		this.outputTokens = outputTokens;
+	}
+
+	public String provider() {
+		return provider;
+	}
+
+	public String model() {
+		return model;
+	}
+
+	/**
+	 * @return Number of turns recorded, regardless of outcome
+	 */
+	public long turns() {
+		return turns;
+	}
+
+	public long failures() {
+		return failures;
+	}
+
+	public long cancellations() {
+		return cancellations;
+	}
+
+	public double p50TimeToFirstTokenMillis() {
+		return p50TimeToFirstTokenMillis;
+	}
+
+	public double p95TimeToFirstTokenMillis() {
+		return p95TimeToFirstTokenMillis;
+	}
+
+	public double p50TotalMillis() {
+		return p50TotalMillis;
+	}
+
+	public double p95TotalMillis() {
+		return p95TotalMillis;
+	}
+
+	public double p99TotalMillis() {
+		return p99TotalMillis;
+	}
+
+	public double p50TokensPerSecond() {
+		return p50TokensPerSecond;
+	}
+
+	public double meanToolIterations() {
+		return meanToolIterations;
+	}
+
+	public int maxToolIterations() {
+		return maxToolIterations;
+	}
+
+	/**
+	 * @return Sum of the input tokens reported for all turns
+	 */
+	public long inputTokens() {
+		return inputTokens;
+	}
+
+	/**
+	 * @return Sum of the output tokens reported for all turns
+	 */
+	public long outputTokens() {
+		return outputTokens;
+	}
+
+	public JsonElement toJson() {
+		final JsonObject obj = new JsonObject();
+		obj.addProperty("provider", provider);
+		obj.addProperty("model", model);
+		obj.addProperty("turns", turns);
+		obj.addProperty("failures", failures);
+		obj.addProperty("cancellations", cancellations);
+		obj.addProperty("ttft_p50_ms", p50TimeToFirstTokenMillis);
+		obj.addProperty("ttft_p95_ms", p95TimeToFirstTokenMillis);
+		obj.addProperty("total_p50_ms", p50TotalMillis);
+		obj.addProperty("total_p95_ms", p95TotalMillis);
+		obj.addProperty("total_p99_ms", p99TotalMillis);
+		obj.addProperty("tokens_per_second_p50", p50TokensPerSecond);
+		obj.addProperty("tool_iterations_mean", meanToolIterations);
+		obj.addProperty("tool_iterations_max", maxToolIterations);
+		obj.addProperty("input_tokens", inputTokens);
+		obj.addProperty("output_tokens", outputTokens);
+		return obj;
+	}
+
+	@Override
+	public String toString() {
+		return toJson().toString();
+	}
+}
@@ -0,0 +1,233 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.scijava.log.LogService;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Default in-memory implementation of {@link ChatMetricsService}. Percentiles
+ * are computed over the last {@value #WINDOW_SIZE} turns of each provider and
+ * model.
+ */
+@Plugin(type = Service.class)
+public class DefaultChatMetricsService extends AbstractService implements
+	ChatMetricsService
+{
+
+	static final int WINDOW_SIZE = 500;
+	private static final int MAX_RECENT_TURNS = 1000;
+
+	@Parameter
+	private LogService logService;
+
+	private final Map<String, ModelRecorder> recorders =
+		new ConcurrentHashMap<>();
+	private final Deque<TurnMetrics> recentTurns = new ArrayDeque<>();
+	private final Object exportLock = new Object();
+	private volatile File exportFile;
+
+	@Override
+	public TurnRecorder startTurn(final String provider, final String model) {
+		return new TurnRecorder(provider, model, this::record);
+	}
+
+	@Override
+	public void record(final TurnMetrics turn) {
+		recorders.computeIfAbsent(key(turn.provider(), turn.model()),
+			k -> new ModelRecorder(turn.provider(), turn.model())).record(turn);
+
+		synchronized (recentTurns) {
+			recentTurns.addLast(turn);
+			while (recentTurns.size() > MAX_RECENT_TURNS) {
+				recentTurns.removeFirst();
+			}
+		}
+
+		final File file = exportFile;
+		if (file != null) {
+			try {
+				synchronized (exportLock) {
+					write(file, List.of(turn), true);
+				}
+			}
+			catch (IOException e) {
+				logService.warn("Failed to export chat metrics to " + file, e);
+			}
+		}
+	}
+
+	@Override
+	public ChatModelStats getStats(final String provider, final String model) {
+		final ModelRecorder recorder = recorders.get(key(provider, model));
+		return recorder == null ? null : recorder.snapshot();
+	}
+
+	@Override
+	public List<ChatModelStats> getAllStats() {
+		return recorders.values().stream().map(ModelRecorder::snapshot).sorted(
+			Comparator.comparing(ChatModelStats::provider).thenComparing(
+				ChatModelStats::model)).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<TurnMetrics> getRecentTurns() {
+		synchronized (recentTurns) {
+			return new ArrayList<>(recentTurns);
+		}
+	}
+
+	@Override
+	public void exportTurns(final File file) throws IOException {
+		synchronized (exportLock) {
+			write(file, getRecentTurns(), false);
+		}
+	}
+
+	@Override
+	public void setExportFile(final File file) {
+		exportFile = file;
+	}
+
+	@Override
+	public void reset() {
+		recorders.clear();
+		synchronized (recentTurns) {
+			recentTurns.clear();
+		}
+	}
+
+	private static void write(final File file, final List<TurnMetrics> turns,
+		final boolean append) throws IOException
+	{
+		final boolean csv = file.getName().toLowerCase().endsWith(".csv");
+		final boolean needsHeader = csv && (!append || !file.exists() || file
+			.length() == 0);
+		final File parent = file.getParentFile();
+		if (parent != null) {
+			Files.createDirectories(parent.toPath());
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(),
+			StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			append ? StandardOpenOption.APPEND
+				: StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			if (needsHeader) {
+				writer.write(TurnMetrics.CSV_HEADER);
+				writer.newLine();
+			}
+			for (final TurnMetrics turn : turns) {
+				writer.write(csv ? turn.toCsvRow() : turn.toJson().toString());
+				writer.newLine();
+			}
+		}
+	}
+
+	private static String key(final String provider, final String model) {
+		return provider + "/" + model;
+	}
+
+	/**
+	 * Mutable, thread-safe accumulator for a single provider and model.
+	 */
+	private static class ModelRecorder {
+
+		private final String provider;
+		private final String model;
+		private final LongAdder turns = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder cancellations = new LongAdder();
+		private final RollingPercentiles timeToFirstToken = new RollingPercentiles(
+			WINDOW_SIZE);
+		private final RollingPercentiles total = new RollingPercentiles(
+			WINDOW_SIZE);
+		private final RollingPercentiles tokensPerSecond = new RollingPercentiles(
+			WINDOW_SIZE);
+		private final RollingPercentiles toolIterations = new RollingPercentiles(
+			WINDOW_SIZE);
+		private final AtomicInteger maxToolIterations = new AtomicInteger();
+		private final LongAdder inputTokens = new LongAdder();
+		private final LongAdder outputTokens = new LongAdder();
+
+		private ModelRecorder(final String provider, final String model) {
+			this.provider = provider;
+			this.model = model;
+		}
+
+		private void record(final TurnMetrics turn) {
+			turns.increment();
+			switch (turn.outcome()) {
+				case FAILED:
+					failures.increment();
+					break;
+				case CANCELLED:
+					cancellations.increment();
+					break;
+				default:
+					break;
+			}
+			if (turn.inputTokens() > 0) inputTokens.add(turn.inputTokens());
+			if (turn.outputTokens() > 0) outputTokens.add(turn.outputTokens());
+
+			// Only completed turns are representative of latency and throughput
+			if (turn.outcome() != TurnMetrics.Outcome.COMPLETED) return;
+
+			if (turn.timeToFirstTokenMillis() >= 0) {
+				timeToFirstToken.add(turn.timeToFirstTokenMillis());
+			}
+			total.add(turn.totalMillis());
+			if (turn.tokensPerSecond() >= 0) {
+				tokensPerSecond.add(turn.tokensPerSecond());
+			}
+			toolIterations.add(turn.toolIterations());
+			maxToolIterations.accumulateAndGet(turn.toolIterations(), Math::max);
+		}
+
+		private ChatModelStats snapshot() {
+			return new ChatModelStats(provider, model, turns.sum(), failures.sum(),
+				cancellations.sum(), timeToFirstToken, total, tokensPerSecond,
+				toolIterations, maxToolIterations.get(), inputTokens.sum(), outputTokens
+					.sum());
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+import sc.fiji.llm.tools.ToolErrorType;
+
+/**
+ * Default in-memory implementation of {@link ToolMetricsService}. All
+ * recording methods are lock-free and safe to call from tool execution
+ * threads.
+ */
+@Plugin(type = Service.class)
+public class DefaultToolMetricsService extends AbstractService implements
+	ToolMetricsService
+{
+
+	private final Map<String, ToolRecorder> recorders =
+		new ConcurrentHashMap<>();
+
+	@Override
+	public void recordExecution(final String toolName, final long queueNanos,
+		final long latencyNanos, final int argumentChars, final int resultChars)
+	{
+		recorder(toolName).recordExecution(queueNanos, latencyNanos,
+			argumentChars, resultChars);
+
+		final ToolExecutionEvent event = new ToolExecutionEvent();
+		if (event.isEnabled()) {
+			event.toolName = toolName;
+			event.queueTime = Math.max(0, queueNanos);
+			event.executionTime = latencyNanos;
+			event.argumentLength = argumentChars;
+			event.resultLength = resultChars;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void recordError(final String toolName, final ToolErrorType type) {
+		recorder(toolName).errors.incrementAndGet(type.ordinal());
+	}
+
+	@Override
+	public ToolStats getStats(final String toolName) {
+		final ToolRecorder recorder = recorders.get(toolName);
+		return recorder == null ? null : recorder.snapshot(toolName);
+	}
+
+	@Override
+	public List<ToolStats> getAllStats() {
+		return recorders.entrySet().stream().map(e -> e.getValue().snapshot(e
+			.getKey())).sorted(Comparator.comparingDouble(
+				ToolStats::totalLatencyMillis).reversed()).collect(Collectors
+					.toList());
+	}
+
+	@Override
+	public void reset() {
+		recorders.clear();
+	}
+
+	private ToolRecorder recorder(final String toolName) {
+		return recorders.computeIfAbsent(toolName == null ? "" : toolName,
+			k -> new ToolRecorder());
+	}
+
+	/**
+	 * Mutable, thread-safe accumulator for a single tool.
+	 */
+	private static class ToolRecorder {
+
+		private final LatencyHistogram latency = new LatencyHistogram();
+		private final LatencyHistogram queue = new LatencyHistogram();
+		private final LongAdder calls = new LongAdder();
+		private final AtomicLongArray errors = new AtomicLongArray(ToolErrorType
+			.values().length);
+		private final LongAdder argumentChars = new LongAdder();
+		private final AtomicLong maxArgumentChars = new AtomicLong();
+		private final LongAdder resultChars = new LongAdder();
+		private final AtomicLong maxResultChars = new AtomicLong();
+
+		private void recordExecution(final long queueNanos,
+			final long latencyNanos, final int argChars, final int resChars)
+		{
+			calls.increment();
+			latency.record(latencyNanos);
+			if (queueNanos >= 0) {
+				queue.record(queueNanos);
+			}
+			argumentChars.add(argChars);
+			maxArgumentChars.accumulateAndGet(argChars, Math::max);
+			resultChars.add(resChars);
+			maxResultChars.accumulateAndGet(resChars, Math::max);
+		}
+
+		private ToolStats snapshot(final String toolName) {
+			final Map<ToolErrorType, Long> errorCounts = new EnumMap<>(
+				ToolErrorType.class);
+			for (final ToolErrorType type : ToolErrorType.values()) {
+				errorCounts.put(type, errors.get(type.ordinal()));
+			}
+			return new ToolStats(toolName, calls.sum(), errorCounts, latency, queue,
+				argumentChars.sum(), maxArgumentChars.get(), resultChars.sum(),
+				maxResultChars.get());
+		}
+	}
+}
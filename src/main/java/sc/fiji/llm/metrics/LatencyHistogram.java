@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two microsecond buckets. Bucket
+ * {@code i} counts samples in {@code [2^i, 2^(i+1))} microseconds, so the
+ * histogram covers 1µs to roughly 35 minutes with a relative error of at most
+ * 2x. Percentiles are reported as the upper bound of the containing bucket.
+ */
+public class LatencyHistogram {
+
+	private static final int BUCKETS = 32;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Record a single sample.
+	 *
+	 * @param nanos the sample duration, in nanoseconds. Negative values are
+	 *          ignored.
+	 */
+	public void record(final long nanos) {
+		if (nanos < 0) return;
+		buckets.incrementAndGet(bucketFor(nanos));
+		count.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	public long count() {
+		return count.sum();
+	}
+
+	public long totalNanos() {
+		return totalNanos.sum();
+	}
+
+	public long maxNanos() {
+		return maxNanos.get();
+	}
+
+	public double meanMillis() {
+		final long n = count();
+		return n == 0 ? 0 : toMillis(totalNanos()) / n;
+	}
+
+	/**
+	 * @param percentile a value in {@code [0, 100]}
+	 * @return An upper-bound estimate of the given percentile, in milliseconds
+	 */
+	public double percentileMillis(final double percentile) {
+		final long n = count();
+		if (n == 0) return 0;
+		final long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				// Never report more than the largest value actually observed
+				return Math.min(toMillis(upperBoundNanos(i)), toMillis(maxNanos()));
+			}
+		}
+		return toMillis(maxNanos());
+	}
+
+	/**
+	 * @return A copy of the bucket counts, index {@code i} holding samples in
+	 *         {@code [2^i, 2^(i+1))} microseconds
+	 */
+	public long[] bucketCounts() {
+		final long[] copy = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			copy[i] = buckets.get(i);
+		}
+		return copy;
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		count.reset();
+		totalNanos.reset();
+		maxNanos.set(0);
+	}
+
+	private static int bucketFor(final long nanos) {
+		final long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+		return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+	}
+
+	private static long upperBoundNanos(final int bucket) {
+		return TimeUnit.MICROSECONDS.toNanos(1L << (bucket + 1));
+	}
+
+	static double toMillis(final long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
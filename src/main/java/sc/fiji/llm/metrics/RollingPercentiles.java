@@ -0,0 +1,82 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size window over the most recent samples of a metric, supporting exact
+ * percentiles over that window. Thread-safe.
+ */
+public class RollingPercentiles {
+
+	private final double[] samples;
+	private int next;
+	private int size;
+
+	/**
+	 * @param capacity the number of most recent samples to retain
+	 */
+	public RollingPercentiles(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " +
+				capacity);
+		}
+		samples = new double[capacity];
+	}
+
+	public synchronized void add(final double sample) {
+		samples[next] = sample;
+		next = (next + 1) % samples.length;
+		size = Math.min(size + 1, samples.length);
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public synchronized double mean() {
+		if (size == 0) return 0;
+		double sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += samples[i];
+		}
+		return sum / size;
+	}
+
+	/**
+	 * @param percentile a value in {@code [0, 100]}
+	 * @return The nearest-rank percentile of the retained samples, or 0 if there
+	 *         are none
+	 */
+	public double percentile(final double percentile) {
+		final double[] sorted;
+		synchronized (this) {
+			if (size == 0) return 0;
+			sorted = Arrays.copyOf(samples, size);
+		}
+		Arrays.sort(sorted);
+		final int rank = (int) Math.ceil(sorted.length * percentile / 100.0);
+		return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+	}
+}
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event describing one LLM tool execution. Events are
+ * only committed while a recording with this event enabled is running, e.g.
+ * {@code -XX:StartFlightRecording}.
+ */
+@Name("sc.fiji.llm.ToolExecution")
+@Label("LLM Tool Execution")
+@Description("Execution of a tool requested by an LLM assistant")
+@Category({ "Fiji", "LLM" })
+@StackTrace(false)
+public class ToolExecutionEvent extends Event {
+
+	@Label("Tool")
+	String toolName;
+
+	@Label("Queue Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long queueTime;
+
+	@Label("Execution Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long executionTime;
+
+	@Label("Argument Length")
+	@Description("Length of the tool arguments, in characters")
+	long argumentLength;
+
+	@Label("Result Length")
+	@Description("Length of the tool result, in characters")
+	long resultLength;
+}
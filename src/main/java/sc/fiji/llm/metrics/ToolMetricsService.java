@@ -0,0 +1,76 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import java.util.List;
+
+import net.imagej.ImageJService;
+import sc.fiji.llm.tools.ToolErrorType;
+
+/**
+ * SciJava service collecting per-tool execution metrics: latency and queue
+ * time histograms, argument and result sizes, and error counts by
+ * {@link ToolErrorType}. Each recorded execution is also emitted as a
+ * {@link ToolExecutionEvent} when Java Flight Recorder is running.
+ */
+public interface ToolMetricsService extends ImageJService {
+
+	/**
+	 * Record a completed tool execution.
+	 *
+	 * @param toolName the name of the executed tool
+	 * @param queueNanos time between the model requesting the tool and the
+	 *          execution starting, or a negative value if unknown
+	 * @param latencyNanos time spent executing the tool
+	 * @param argumentChars length of the tool arguments
+	 * @param resultChars length of the tool result
+	 */
+	void recordExecution(String toolName, long queueNanos, long latencyNanos,
+		int argumentChars, int resultChars);
+
+	/**
+	 * Record a failed tool invocation.
+	 *
+	 * @param toolName the name of the failed tool
+	 * @param type the kind of failure
+	 */
+	void recordError(String toolName, ToolErrorType type);
+
+	/**
+	 * @param toolName the tool of interest
+	 * @return A snapshot of the metrics for the given tool, or {@code null} if
+	 *         it has not been used
+	 */
+	ToolStats getStats(String toolName);
+
+	/**
+	 * @return Snapshots for all used tools, ordered by total latency (highest
+	 *         first)
+	 */
+	List<ToolStats> getAllStats();
+
+	/**
+	 * Discard all recorded metrics.
+	 */
+	void reset();
+}
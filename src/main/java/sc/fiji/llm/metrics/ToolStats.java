@@ -0,0 +1,186 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import sc.fiji.llm.tools.ToolErrorType;
+
+/**
+ * Immutable snapshot of the metrics recorded for a single tool.
+ */
+public class ToolStats {
+
+	private final String toolName;
+	private final long calls;
+	private final Map<ToolErrorType, Long> errors;
+	private final double meanLatencyMillis;
+	private final double p50LatencyMillis;
+	private final double p95LatencyMillis;
+	private final double p99LatencyMillis;
+	private final double maxLatencyMillis;
+	private final double totalLatencyMillis;
+	private final double meanQueueMillis;
+	private final double p95QueueMillis;
+	private final double meanArgumentChars;
+	private final long maxArgumentChars;
+	private final double meanResultChars;
+	private final long maxResultChars;
+
+	ToolStats(final String toolName, final long calls,
+		final Map<ToolErrorType, Long> errors, final LatencyHistogram latency,
+		final LatencyHistogram queue, final long totalArgumentChars,
+		final long maxArgumentChars, final long totalResultChars,
+		final long maxResultChars)
+	{
+		this.toolName = toolName;
+		this.calls = calls;
+		this.errors = Collections.unmodifiableMap(new EnumMap<>(errors));
+		this.meanLatencyMillis = latency.meanMillis();
+		this.p50LatencyMillis = latency.percentileMillis(50);
+		this.p95LatencyMillis = latency.percentileMillis(95);
+		this.p99LatencyMillis = latency.percentileMillis(99);
+		this.maxLatencyMillis = LatencyHistogram.toMillis(latency.maxNanos());
+		this.totalLatencyMillis = LatencyHistogram.toMillis(latency.totalNanos());
+		this.meanQueueMillis = queue.meanMillis();
+		this.p95QueueMillis = queue.percentileMillis(95);
+		this.meanArgumentChars = calls == 0 ? 0 : (double) totalArgumentChars /
+			calls;
+		this.maxArgumentChars = maxArgumentChars;
+		this.meanResultChars = calls == 0 ? 0 : (double) totalResultChars / calls;
+		this.maxResultChars = maxResultChars;
+	}
+
+	public String toolName() {
+		return toolName;
+	}
+
+	/**
+	 * @return Number of completed executions, including those that failed
+	 */
+	public long calls() {
+		return calls;
+	}
+
+	public long errors(final ToolErrorType type) {
+		return errors.getOrDefault(type, 0L);
+	}
+
+	public long totalErrors() {
+		return errors.values().stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * @return The fraction of invocations that failed with the given error type
+	 */
+	public double errorRate(final ToolErrorType type) {
+		final long invocations = Math.max(calls, totalErrors());
+		return invocations == 0 ? 0 : (double) errors(type) / invocations;
+	}
+
+	public double meanLatencyMillis() {
+		return meanLatencyMillis;
+	}
+
+	public double p50LatencyMillis() {
+		return p50LatencyMillis;
+	}
+
+	public double p95LatencyMillis() {
+		return p95LatencyMillis;
+	}
+
+	public double p99LatencyMillis() {
+		return p99LatencyMillis;
+	}
+
+	public double maxLatencyMillis() {
+		return maxLatencyMillis;
+	}
+
+	/**
+	 * @return The summed latency of all executions. Useful for ranking which
+	 *         tools dominate turn latency.
+	 */
+	public double totalLatencyMillis() {
+		return totalLatencyMillis;
+	}
+
+	public double meanQueueMillis() {
+		return meanQueueMillis;
+	}
+
+	public double p95QueueMillis() {
+		return p95QueueMillis;
+	}
+
+	public double meanArgumentChars() {
+		return meanArgumentChars;
+	}
+
+	public long maxArgumentChars() {
+		return maxArgumentChars;
+	}
+
+	public double meanResultChars() {
+		return meanResultChars;
+	}
+
+	public long maxResultChars() {
+		return maxResultChars;
+	}
+
+	public JsonElement toJson() {
+		final JsonObject obj = new JsonObject();
+		obj.addProperty("tool", toolName);
+		obj.addProperty("calls", calls);
+		final JsonObject errorJson = new JsonObject();
+		for (final ToolErrorType type : ToolErrorType.values()) {
+			errorJson.addProperty(type.name().toLowerCase(), errors(type));
+		}
+		obj.add("errors", errorJson);
+		obj.addProperty("latency_mean_ms", meanLatencyMillis);
+		obj.addProperty("latency_p50_ms", p50LatencyMillis);
+		obj.addProperty("latency_p95_ms", p95LatencyMillis);
+		obj.addProperty("latency_p99_ms", p99LatencyMillis);
+		obj.addProperty("latency_max_ms", maxLatencyMillis);
+		obj.addProperty("latency_total_ms", totalLatencyMillis);
+		obj.addProperty("queue_mean_ms", meanQueueMillis);
+		obj.addProperty("queue_p95_ms", p95QueueMillis);
+		obj.addProperty("argument_mean_chars", meanArgumentChars);
+		obj.addProperty("argument_max_chars", maxArgumentChars);
+		obj.addProperty("result_mean_chars", meanResultChars);
+		obj.addProperty("result_max_chars", maxResultChars);
+		return obj;
+	}
+
+	@Override
+	public String toString() {
+		return toJson().toString();
+	}
+}
@@ -0,0 +1,190 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Immutable record of the timing and token usage of one chat turn, i.e. one
+ * user message and the complete assistant response to it (including any tool
+ * loop iterations).
+ */
+public class TurnMetrics {
+
+	/**
+	 * How a chat turn ended.
+	 */
+	public enum Outcome {
+			COMPLETED, FAILED, CANCELLED
+	}
+
+	/** Column names for {@link #toCsvRow()} */
+	public static final String CSV_HEADER =
+		"timestamp,provider,model,outcome,time_to_first_token_ms,total_ms," +
+			"tokens_per_second,tool_iterations,partial_responses,input_tokens," +
+			"output_tokens,total_tokens";
+
+	private final long timestamp;
+	private final String provider;
+	private final String model;
+	private final Outcome outcome;
+	private final double timeToFirstTokenMillis;
+	private final double totalMillis;
+	private final double tokensPerSecond;
+	private final int toolIterations;
+	private final int partialResponses;
+	private final int inputTokens;
+	private final int outputTokens;
+	private final int totalTokens;
+
+	public TurnMetrics(final long timestamp, final String provider,
+		final String model, final Outcome outcome,
+		final double timeToFirstTokenMillis, final double totalMillis,
+		final double tokensPerSecond, final int toolIterations,
+		final int partialResponses, final int inputTokens, final int outputTokens,
+		final int totalTokens)
+	{
+		this.timestamp = timestamp;
+		this.provider = provider;
+		this.model = model;
+		this.outcome = outcome;
+		this.timeToFirstTokenMillis = timeToFirstTokenMillis;
+		this.totalMillis = totalMillis;
+		this.tokensPerSecond = tokensPerSecond;
+		this.toolIterations = toolIterations;
+		this.partialResponses = partialResponses;
+		this.inputTokens = inputTokens;
+		this.outputTokens = outputTokens;
+		this.totalTokens = totalTokens;
+	}
+
+	/**
+	 * @return Wall-clock time the turn started, in epoch milliseconds
+	 */
+	public long timestamp() {
+		return timestamp;
+	}
+
+	public String provider() {
+		return provider;
+	}
+
+	public String model() {
+		return model;
+	}
+
+	public Outcome outcome() {
+		return outcome;
+	}
+
+	/**
+	 * @return Milliseconds until the first streamed token, or -1 if no token was
+	 *         received
+	 */
+	public double timeToFirstTokenMillis() {
+		return timeToFirstTokenMillis;
+	}
+
+	public double totalMillis() {
+		return totalMillis;
+	}
+
+	/**
+	 * @return Output tokens per second of generation time, from each model
+	 *         call's first streamed token to its response, or -1 if unknown
+	 */
+	public double tokensPerSecond() {
+		return tokensPerSecond;
+	}
+
+	public int toolIterations() {
+		return toolIterations;
+	}
+
+	public int partialResponses() {
+		return partialResponses;
+	}
+
+	/**
+	 * @return Input tokens reported by the provider, or -1 if not reported
+	 */
+	public int inputTokens() {
+		return inputTokens;
+	}
+
+	/**
+	 * @return Output tokens reported by the provider, or -1 if not reported
+	 */
+	public int outputTokens() {
+		return outputTokens;
+	}
+
+	/**
+	 * @return Total tokens reported by the provider, or -1 if not reported
+	 */
+	public int totalTokens() {
+		return totalTokens;
+	}
+
+	public JsonObject toJson() {
+		final JsonObject obj = new JsonObject();
+		obj.addProperty("timestamp", timestamp);
+		obj.addProperty("provider", provider);
+		obj.addProperty("model", model);
+		obj.addProperty("outcome", outcome.name());
+		obj.addProperty("time_to_first_token_ms", timeToFirstTokenMillis);
+		obj.addProperty("total_ms", totalMillis);
+		obj.addProperty("tokens_per_second", tokensPerSecond);
+		obj.addProperty("tool_iterations", toolIterations);
+		obj.addProperty("partial_responses", partialResponses);
+		obj.addProperty("input_tokens", inputTokens);
+		obj.addProperty("output_tokens", outputTokens);
+		obj.addProperty("total_tokens", totalTokens);
+		return obj;
+	}
+
+	/**
+	 * @return This record as a CSV row matching {@link #CSV_HEADER}
+	 */
+	public String toCsvRow() {
+		return String.join(",", String.valueOf(timestamp), csvEscape(provider),
+			csvEscape(model), outcome.name(), String.valueOf(timeToFirstTokenMillis),
+			String.valueOf(totalMillis), String.valueOf(tokensPerSecond), String
+				.valueOf(toolIterations), String.valueOf(partialResponses), String
+					.valueOf(inputTokens), String.valueOf(outputTokens), String.valueOf(
+						totalTokens));
+	}
+
+	@Override
+	public String toString() {
+		return toJson().toString();
+	}
+
+	private static String csvEscape(final String value) {
+		if (value == null) return "";
+		if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		return value;
+	}
+}
@@ -0,0 +1,194 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * Tracks a single in-flight chat turn. Obtained from
+ * {@link ChatMetricsService#startTurn(String, String)}; the streaming callbacks
+ * report progress and exactly one of {@link #complete(ChatResponse)},
+ * {@link #fail()} or {@link #cancel()} finishes the turn. Further calls after
+ * the turn is finished are ignored. Safe to call from any thread.
+ * <p>
+ * A turn that uses tools makes several model calls, with tool executions in
+ * between. Throughput is therefore measured per call, from the call's first
+ * streamed token to its response, with the output tokens of that response,
+ * and summed over the calls that streamed any tokens.
+ * </p>
+ */
+public class TurnRecorder {
+
+	private static final long NOT_SET = -1;
+
+	private final String provider;
+	private final String model;
+	private final Consumer<TurnMetrics> sink;
+	private final LongSupplier nanoClock;
+	private final long timestamp = System.currentTimeMillis();
+	private final long startNanos;
+	private final AtomicLong firstTokenNanos = new AtomicLong(NOT_SET);
+	private final AtomicInteger partialResponses = new AtomicInteger();
+	private final AtomicInteger toolIterations = new AtomicInteger();
+	private final AtomicBoolean finished = new AtomicBoolean();
+
+	// The model call in progress; guarded by this
+	private long callFirstTokenNanos = NOT_SET;
+	private int callPartialResponses;
+
+	// Totals over the finished model calls that streamed tokens; guarded by this
+	private long generatedTokens;
+	private long generationNanos;
+
+	TurnRecorder(final String provider, final String model,
+		final Consumer<TurnMetrics> sink)
+	{
+		this(provider, model, sink, System::nanoTime);
+	}
+
+	TurnRecorder(final String provider, final String model,
+		final Consumer<TurnMetrics> sink, final LongSupplier nanoClock)
+	{
+		this.provider = provider;
+		this.model = model;
+		this.sink = sink;
+		this.nanoClock = nanoClock;
+		startNanos = nanoClock.getAsLong();
+	}
+
+	/**
+	 * Record a streamed partial response. The first call marks the time to
+	 * first token.
+	 */
+	public void partialResponse() {
+		final long now = nanoClock.getAsLong();
+		firstTokenNanos.compareAndSet(NOT_SET, now - startNanos);
+		partialResponses.incrementAndGet();
+		synchronized (this) {
+			if (callFirstTokenNanos == NOT_SET) {
+				callFirstTokenNanos = now;
+			}
+			callPartialResponses++;
+		}
+	}
+
+	/**
+	 * Record an intermediate response, i.e. one iteration of the tool loop.
+	 *
+	 * @param response the response that ended this model call, whose token
+	 *          usage counts towards throughput
+	 */
+	public void toolIteration(final ChatResponse response) {
+		toolIterations.incrementAndGet();
+		endCall(response == null ? null : response.tokenUsage());
+	}
+
+	/**
+	 * Finish the turn successfully.
+	 *
+	 * @param response the final response, whose token usage is recorded if
+	 *          reported by the provider
+	 */
+	public void complete(final ChatResponse response) {
+		final TokenUsage usage = response == null ? null : response.tokenUsage();
+		endCall(usage);
+		finish(TurnMetrics.Outcome.COMPLETED, usage);
+	}
+
+	/**
+	 * Finish the turn with an error.
+	 */
+	public void fail() {
+		finish(TurnMetrics.Outcome.FAILED, null);
+	}
+
+	/**
+	 * Finish the turn because the user stopped it.
+	 */
+	public void cancel() {
+		finish(TurnMetrics.Outcome.CANCELLED, null);
+	}
+
+	/**
+	 * Add the model call that just ended to the throughput, if it streamed any
+	 * tokens. Tool execution and the wait for the next call's first token are
+	 * thereby left out.
+	 */
+	private synchronized void endCall(final TokenUsage usage) {
+		if (finished.get() || callFirstTokenNanos == NOT_SET) {
+			return;
+		}
+		final long nanos = nanoClock.getAsLong() - callFirstTokenNanos;
+		final int outputTokens = count(usage == null ? null : usage
+			.outputTokenCount());
+		final int generated = outputTokens >= 0 ? outputTokens
+			: callPartialResponses;
+		if (nanos > 0 && generated > 0) {
+			generatedTokens += generated;
+			generationNanos += nanos;
+		}
+		callFirstTokenNanos = NOT_SET;
+		callPartialResponses = 0;
+	}
+
+	private void finish(final TurnMetrics.Outcome outcome,
+		final TokenUsage usage)
+	{
+		if (!finished.compareAndSet(false, true)) return;
+
+		final long totalNanos = nanoClock.getAsLong() - startNanos;
+		final long ttftNanos = firstTokenNanos.get();
+		final int inputTokens = count(usage == null ? null : usage
+			.inputTokenCount());
+		final int outputTokens = count(usage == null ? null : usage
+			.outputTokenCount());
+		final int totalTokens = count(usage == null ? null : usage
+			.totalTokenCount());
+
+		// Throughput is measured over generation time only, so that slow
+		// prompt processing and tool execution do not mask a regression in
+		// decoding speed
+		final double tokensPerSecond;
+		synchronized (this) {
+			tokensPerSecond = generationNanos > 0 ? generatedTokens /
+				(generationNanos / 1e9) : -1;
+		}
+
+		sink.accept(new TurnMetrics(timestamp, provider, model, outcome,
+			ttftNanos == NOT_SET ? -1 : LatencyHistogram.toMillis(ttftNanos),
+			LatencyHistogram.toMillis(totalNanos), tokensPerSecond, toolIterations
+				.get(), partialResponses.get(), inputTokens, outputTokens,
+			totalTokens));
+	}
+
+	private static int count(final Integer tokens) {
+		return tokens == null ? -1 : tokens;
+	}
+}
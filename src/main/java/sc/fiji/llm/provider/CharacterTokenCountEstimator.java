@@ -0,0 +1,155 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.provider;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.Content;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+
+/**
+ * Model-agnostic {@link TokenCountEstimator} assuming roughly four characters
+ * per token. Simplified copy/paste from OpenAiTokenCountEstimator, without
+ * consideration for model name, so it needs no tokenizer vocabulary and can be
+ * used with any provider.
+ */
+public class CharacterTokenCountEstimator implements TokenCountEstimator {
+
+	@Override
+	public int estimateTokenCountInText(String text) {
+		return text.length() / 4;
+	}
+
+	@Override
+	public int estimateTokenCountInMessage(ChatMessage message) {
+		int tokenCount = 1; // 1 token for role
+		tokenCount += 3; // extra tokens per each message
+
+		if (message instanceof SystemMessage) {
+			tokenCount += estimateTokenCountIn((SystemMessage) message);
+		}
+		else if (message instanceof UserMessage) {
+			tokenCount += estimateTokenCountIn((UserMessage) message);
+		}
+		else if (message instanceof AiMessage) {
+			tokenCount += estimateTokenCountIn((AiMessage) message);
+		}
+		else if (message instanceof ToolExecutionResultMessage) {
+			tokenCount += estimateTokenCountIn(
+				(ToolExecutionResultMessage) message);
+		}
+		else {
+			throw new IllegalArgumentException("Unknown message type: " + message);
+		}
+
+		return tokenCount;
+	}
+
+	private int estimateTokenCountIn(SystemMessage systemMessage) {
+		return estimateTokenCountInText(systemMessage.text());
+	}
+
+	private int estimateTokenCountIn(UserMessage userMessage) {
+		int tokenCount = 0;
+
+		for (Content content : userMessage.contents()) {
+			if (content instanceof TextContent) {
+				tokenCount += estimateTokenCountInText(((TextContent) content)
+					.text());
+			}
+			else {
+				throw new IllegalArgumentException("Unknown content type: " +
+					content);
+			}
+		}
+
+		if (userMessage.name() != null) {
+			tokenCount += 1; // extra tokens per name
+			tokenCount += estimateTokenCountInText(userMessage.name());
+		}
+
+		return tokenCount;
+	}
+
+	@Override
+	public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+		// see
+		// https://github.com/openai/openai-cookbook/blob/main/examples/How_to_count_tokens_with_tiktoken.ipynb
+
+		int tokenCount = 3; // every reply is primed with
+												// <|start|>assistant<|message|>
+		for (ChatMessage message : messages) {
+			tokenCount += estimateTokenCountInMessage(message);
+		}
+		return tokenCount;
+	}
+
+	private int estimateTokenCountIn(AiMessage aiMessage) {
+		int tokenCount = 0;
+
+		if (aiMessage.text() != null) {
+			tokenCount += estimateTokenCountInText(aiMessage.text());
+		}
+
+		if (aiMessage.hasToolExecutionRequests()) {
+			tokenCount += 6;
+			if (aiMessage.toolExecutionRequests().size() == 1) {
+				tokenCount -= 1;
+				ToolExecutionRequest toolExecutionRequest = aiMessage
+					.toolExecutionRequests().get(0);
+				tokenCount += estimateTokenCountInText(toolExecutionRequest.name()) *
+					2;
+				tokenCount += estimateTokenCountInText(toolExecutionRequest
+					.arguments());
+			}
+			else {
+				tokenCount += 15;
+				for (ToolExecutionRequest toolExecutionRequest : aiMessage
+					.toolExecutionRequests())
+				{
+					tokenCount += 7;
+					tokenCount += estimateTokenCountInText(toolExecutionRequest.name());
+
+					String arguments = toolExecutionRequest.arguments();
+					if (arguments == null || arguments.isEmpty()) {
+						continue;
+					}
+					tokenCount += estimateTokenCountInText(arguments);
+				}
+			}
+		}
+
+		return tokenCount;
+	}
+
+	private int estimateTokenCountIn(
+		ToolExecutionResultMessage toolExecutionResultMessage)
+	{
+		return estimateTokenCountInText(toolExecutionResultMessage.text());
+	}
+}
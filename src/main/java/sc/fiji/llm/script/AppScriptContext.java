@@ -21,9 +21,6 @@
  */
 package sc.fiji.llm.script;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.scijava.plugin.Plugin;
 import org.scijava.ui.swing.script.TextEditor;
 import org.scijava.ui.swing.script.TextEditorTab;
@@ -32,41 +29,39 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import sc.fiji.llm.context.AbstractCachedAppContextSupplier;
 import sc.fiji.llm.context.AppContextSupplier;
 
+/**
+ * Lists the open script editors and their tabs. The slice is rebuilt when an
+ * editor window opens, closes or changes visibility, or when its tabs change.
+ */
 @Plugin(type = AppContextSupplier.class)
-public class AppScriptContext implements AppContextSupplier {
+public class AppScriptContext extends AbstractCachedAppContextSupplier {
     public static final String EDITOR_KEY = "editors";
     public static final String TAB_KEY = "tabs";
     public static final String EDITOR_ID = "editor_id";
 
     @Override
-    public JsonElement appConext() {
+    protected void listen() {
+		invalidateOnWindowChanges(window -> window instanceof TextEditor);
+		ScriptRegistry.addChangeListener(this::invalidate);
+    }
+
+    @Override
+    protected JsonElement computeContext() {
 		JsonObject scriptContext = new JsonObject();
 		scriptContext.addProperty(TYPE_KEY, "script_editor_context");
 		JsonArray editors = new JsonArray();
-		for (int i=0; i<TextEditor.instances.size(); i++) {
-			TextEditor textEditor = TextEditor.instances.get(i);
+		for (TextEditor textEditor : TextEditor.instances) {
 			if (textEditor.isVisible()) {
 				JsonObject editorJson = new JsonObject();
-				editorJson.addProperty(EDITOR_ID, i);
-
-				List<TextEditorTab> editorTabs = new ArrayList<>();
-				// Find all the tabs
-				int tabIndex = 0;
-				try {
-					while (true) {
-						editorTabs.add(textEditor.getTab(tabIndex));
-						tabIndex++;
-					}
-				} catch (IndexOutOfBoundsException e) {
-					// "This is fine"
-				}
+				editorJson.addProperty(EDITOR_ID, ScriptRegistry.getEditorId(textEditor));
 
 				JsonArray tabJson = new JsonArray();
-				for (int j=0; j<editorTabs.size(); j++) {
-					JsonElement tab = ScriptContextUtilities.getTabJson(editorTabs.get(j), i, j);
-					tabJson.add(tab);
+				for (TextEditorTab editorTab : ScriptRegistry.getTabs(textEditor)) {
+					ScriptID scriptID = ScriptRegistry.getId(textEditor, editorTab);
+					tabJson.add(ScriptContextUtilities.getTabJson(editorTab, scriptID));
 				}
 				editorJson.add(TAB_KEY, tabJson);
 				editors.add(editorJson);
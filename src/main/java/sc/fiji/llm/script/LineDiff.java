@@ -0,0 +1,218 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line-level diff of two texts using Myers' O(ND) algorithm, so that a new
+ * version of a script can be applied as a few small document edits instead of
+ * replacing the whole text.
+ * <p>
+ * The common prefix and suffix are stripped first, so typical local changes
+ * cost time proportional to the changed region. If the texts differ in more
+ * than {@link #MAX_EDIT_DISTANCE} lines, the differing middle is reported as a
+ * single hunk rather than computing a minimal diff.
+ * </p>
+ */
+public final class LineDiff {
+
+	/** Largest edit distance searched before giving up on a minimal diff */
+	static final int MAX_EDIT_DISTANCE = 1000;
+
+	private LineDiff() {}
+
+	/**
+	 * @return The hunks turning {@code a} into {@code b}, in order
+	 */
+	public static List<Hunk> diff(final List<String> a, final List<String> b) {
+		int prefix = 0;
+		final int common = Math.min(a.size(), b.size());
+		while (prefix < common && a.get(prefix).equals(b.get(prefix))) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < common - prefix && a.get(a.size() - 1 - suffix).equals(b
+			.get(b.size() - 1 - suffix)))
+		{
+			suffix++;
+		}
+
+		final int aEnd = a.size() - suffix;
+		final int bEnd = b.size() - suffix;
+		final List<Hunk> hunks = new ArrayList<>();
+		if (prefix == aEnd && prefix == bEnd) {
+			return hunks;
+		}
+
+		// Compare lines as ints
+		final Map<String, Integer> ids = new HashMap<>();
+		final int[] x = new int[aEnd - prefix];
+		final int[] y = new int[bEnd - prefix];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = ids.computeIfAbsent(a.get(prefix + i), k -> ids.size());
+		}
+		for (int j = 0; j < y.length; j++) {
+			y[j] = ids.computeIfAbsent(b.get(prefix + j), k -> ids.size());
+		}
+
+		final boolean[][] changed = myers(x, y);
+		if (changed == null) {
+			hunks.add(new Hunk(prefix, aEnd, b.subList(prefix, bEnd)));
+			return hunks;
+		}
+
+		// Group runs of changed lines into hunks
+		int i = 0;
+		int j = 0;
+		while (i < x.length || j < y.length) {
+			if (i < x.length && j < y.length && !changed[0][i] && !changed[1][j]) {
+				i++;
+				j++;
+				continue;
+			}
+			final int i0 = i;
+			final int j0 = j;
+			while (i < x.length && changed[0][i]) {
+				i++;
+			}
+			while (j < y.length && changed[1][j]) {
+				j++;
+			}
+			hunks.add(new Hunk(prefix + i0, prefix + i, b.subList(prefix + j0,
+				prefix + j)));
+		}
+		return hunks;
+	}
+
+	/**
+	 * Find a shortest edit script between {@code x} and {@code y}.
+	 *
+	 * @return For each sequence, which elements are deleted or inserted; or
+	 *         null if the edit distance exceeds {@link #MAX_EDIT_DISTANCE}
+	 */
+	private static boolean[][] myers(final int[] x, final int[] y) {
+		final int n = x.length;
+		final int m = y.length;
+		final int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+		final int offset = max + 1;
+		final int[] v = new int[2 * max + 3];
+		// The diagonals -d-1..d+1 of v before each step d, for backtracking
+		final List<int[]> trace = new ArrayList<>();
+
+		int distance = -1;
+		search: for (int d = 0; d <= max; d++) {
+			trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+			for (int k = -d; k <= d; k += 2) {
+				int px;
+				if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+					px = v[offset + k + 1];
+				}
+				else {
+					px = v[offset + k - 1] + 1;
+				}
+				int py = px - k;
+				while (px < n && py < m && x[px] == y[py]) {
+					px++;
+					py++;
+				}
+				v[offset + k] = px;
+				if (px >= n && py >= m) {
+					distance = d;
+					break search;
+				}
+			}
+		}
+		if (distance < 0) {
+			return null;
+		}
+
+		// Walk the trace back from the end, marking the non-diagonal moves
+		final boolean[][] changed = { new boolean[n], new boolean[m] };
+		int px = n;
+		int py = m;
+		for (int d = distance; d > 0; d--) {
+			final int[] previous = trace.get(d);
+			final int k = px - py;
+			// previous[i] holds diagonal i - d - 1
+			final boolean down = k == -d || (k != d && previous[k + d] < previous[k +
+				d + 2]);
+			final int prevK = down ? k + 1 : k - 1;
+			final int prevX = previous[prevK + d + 1];
+			final int prevY = prevX - prevK;
+			while (px > prevX && py > prevY) {
+				px--;
+				py--;
+			}
+			if (down) {
+				changed[1][prevY] = true;
+			}
+			else {
+				changed[0][prevX] = true;
+			}
+			px = prevX;
+			py = prevY;
+		}
+		return changed;
+	}
+
+	/**
+	 * Lines {@code [oldStart, oldEnd)} of the old text, numbered from 0, are
+	 * replaced by {@code lines}.
+	 */
+	public static class Hunk {
+
+		private final int oldStart;
+		private final int oldEnd;
+		private final List<String> lines;
+
+		public Hunk(final int oldStart, final int oldEnd,
+			final List<String> lines)
+		{
+			this.oldStart = oldStart;
+			this.oldEnd = oldEnd;
+			this.lines = List.copyOf(lines);
+		}
+
+		public int getOldStart() {
+			return oldStart;
+		}
+
+		public int getOldEnd() {
+			return oldEnd;
+		}
+
+		public List<String> getLines() {
+			return lines;
+		}
+
+		@Override
+		public String toString() {
+			return "-" + oldStart + "," + (oldEnd - oldStart) + " +" + lines.size();
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import sc.fiji.llm.context.ContextBudget;
+import sc.fiji.llm.context.ContextItem;
+
+/**
+ * Remembers which version of each script the model last saw in a
+ * conversation, so that a script attached again is sent as a unified diff
+ * against that version instead of in full.
+ * <p>
+ * A diff is only useful while the message with the full content it builds on
+ * is still in chat memory. Memory drops the oldest messages first, so if that
+ * message remains, so do all later diffs. When it has been evicted, or the diff
+ * would be larger than the script, the full content is sent again and becomes
+ * the new base.
+ * </p>
+ * <p>
+ * Building the JSON does not change the history. Once a message has been
+ * handed to the model, {@link #record(ScriptContextItem, JsonElement)} notes
+ * the versions it carried, skipping any that were truncated or omitted on the
+ * way. As a message can still be lost after that, e.g. when the request is
+ * stopped, a diff is also only built on a version that is itself still in
+ * chat memory.
+ * </p>
+ */
+public class ScriptContextHistory {
+
+	private final Map<ScriptID, Seen> seen = new HashMap<>();
+
+	/**
+	 * @param item the script being attached
+	 * @param isRememberedInFull tests whether a message holding the full
+	 *          content with the given hash is still in chat memory
+	 * @param isRemembered tests whether a message holding the version with the
+	 *          given hash, in full or as a diff, is still in chat memory
+	 * @return The JSON to send for the item: a diff against the version the model
+	 *         last saw when possible, otherwise the full content
+	 */
+	public synchronized JsonElement toJson(final ScriptContextItem item,
+		final Predicate<String> isRememberedInFull,
+		final Predicate<String> isRemembered)
+	{
+		final Seen last = seen.get(item.getId());
+		if (last != null && isRememberedInFull.test(last.fullHash) && isRemembered
+			.test(last.item.getContentHash()))
+		{
+			final JsonElement delta = item.toJson(last.item);
+			final JsonElement diff = delta.getAsJsonObject().get(
+				ScriptContextItem.CONTENT_DIFF_KEY);
+			if (diff.getAsString().length() < item.getScriptBody().length()) {
+				return delta;
+			}
+		}
+		return item.toJson();
+	}
+
+	/**
+	 * Notes the version of a script the model was sent, so the next attachment
+	 * can be a diff against it.
+	 *
+	 * @param item the script that was attached
+	 * @param sent the JSON actually sent for it, after any budget reductions
+	 */
+	public synchronized void record(final ScriptContextItem item,
+		final JsonElement sent)
+	{
+		if (!sent.isJsonObject()) {
+			return;
+		}
+		final JsonObject json = sent.getAsJsonObject();
+		if (json.has(ContextBudget.TRUNCATED_KEY) || json.has(
+			ContextBudget.OMITTED_KEY))
+		{
+			// This version did not arrive intact; the one before it still stands
+			return;
+		}
+		if (json.has(ScriptContextItem.CONTENT_KEY)) {
+			seen.put(item.getId(), new Seen(item, item.getContentHash()));
+		}
+		else if (json.has(ScriptContextItem.CONTENT_DIFF_KEY)) {
+			final Seen last = seen.get(item.getId());
+			if (last != null && last.item.getContentHash().equals(json.get(
+				ScriptContextItem.BASE_HASH_KEY).getAsString()))
+			{
+				seen.put(item.getId(), new Seen(item, last.fullHash));
+			}
+		}
+	}
+
+	/**
+	 * @param json the JSON built for a script by
+	 *          {@link #toJson(ScriptContextItem, Predicate, Predicate)}
+	 * @return Whether it is a diff, which must be sent whole or not at all: a
+	 *         partial patch alongside its base hash would mislead the model
+	 */
+	public static boolean isDiff(final JsonElement json) {
+		return json.isJsonObject() && json.getAsJsonObject().has(
+			ScriptContextItem.CONTENT_DIFF_KEY);
+	}
+
+	/** Forget all versions, e.g. when chat memory is replaced */
+	public synchronized void clear() {
+		seen.clear();
+	}
+
+	/**
+	 * @param context the serialized context items attached to a message
+	 * @return The hashes of the scripts attached to the message in full and
+	 *         not truncated
+	 */
+	public static Set<String> getFullContentHashes(final JsonArray context) {
+		return getContentHashes(context, true);
+	}
+
+	/**
+	 * @param context the serialized context items attached to a message
+	 * @return The hashes of the script versions attached to the message, in
+	 *         full or as diffs, and not truncated
+	 */
+	public static Set<String> getContentHashes(final JsonArray context) {
+		return getContentHashes(context, false);
+	}
+
+	private static Set<String> getContentHashes(final JsonArray context,
+		final boolean fullOnly)
+	{
+		final Set<String> hashes = new HashSet<>();
+		for (final JsonElement element : context) {
+			if (!element.isJsonObject()) {
+				continue;
+			}
+			final JsonObject obj = element.getAsJsonObject();
+			if (obj.has(ContextItem.TYPE_KEY) && ScriptContextItem.CONTEXT_TYPE
+				.equals(obj.get(ContextItem.TYPE_KEY).getAsString()) && (!fullOnly ||
+					obj.has(ScriptContextItem.CONTENT_KEY)) && obj.has(
+						ScriptContextItem.CONTENT_HASH_KEY) && !obj.has(
+							ContextBudget.TRUNCATED_KEY))
+			{
+				hashes.add(obj.get(ScriptContextItem.CONTENT_HASH_KEY).getAsString());
+			}
+		}
+		return hashes;
+	}
+
+	/** The version of a script the model last saw */
+	private static class Seen {
+
+		private final ScriptContextItem item;
+
+		/** Hash of the last version sent in full, which later diffs build on */
+		private final String fullHash;
+
+		Seen(final ScriptContextItem item, final String fullHash) {
+			this.item = item;
+			this.fullHash = fullHash;
+		}
+	}
+}
@@ -23,6 +23,7 @@
 package sc.fiji.llm.script;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
@@ -43,6 +44,9 @@ public class ScriptContextItem extends AbstractContextItem {
     public static final String NAME_KEY = "file_name";
     public static final String LANGUAGE_KEY = "language";
     public static final String CONTENT_KEY = "content";
+    public static final String CONTENT_HASH_KEY = "content_hash";
+    public static final String BASE_HASH_KEY = "base_content_hash";
+    public static final String CONTENT_DIFF_KEY = "content_diff";
     public static final String ERROR_KEY = "error_output";
     public static final String SELECTED_LINES_KEY = "selected_lines";
 
@@ -52,6 +56,7 @@ public class ScriptContextItem extends AbstractContextItem {
 	private final String errorOutput;
 	private final List<LineRange> selectedRanges;
 	private final String language;
+	private String contentHash;
 
 	public ScriptContextItem(String scriptName, String content, int editorIndex, int tabIndex,
 		String language)
@@ -121,6 +126,16 @@ public class ScriptContextItem extends AbstractContextItem {
 		return language;
 	}
 
+	/**
+	 * @return A hash of the script body, computed on first use
+	 */
+	public synchronized String getContentHash() {
+		if (contentHash == null) {
+			contentHash = ScriptContextUtilities.contentHash(scriptBody);
+		}
+		return contentHash;
+	}
+
 
 	public String getErrorOutput() {
 		return errorOutput;
@@ -136,6 +151,19 @@ public class ScriptContextItem extends AbstractContextItem {
 
 	@Override
 	public JsonElement toJson() {
+		return toJson(null);
+	}
+
+	/**
+	 * Serializes this item relative to an earlier version of the same script.
+	 * Instead of the full content, the result holds a unified diff from the
+	 * base content and the hash of the base version.
+	 *
+	 * @param base the version the model last saw, or null to send the full
+	 *          content
+	 * @return The JSON form of this item
+	 */
+	public JsonElement toJson(final ScriptContextItem base) {
 		final JsonObject obj = new JsonObject();
 		obj.addProperty(ContextItem.TYPE_KEY, getType());
 		obj.addProperty(NAME_KEY, scriptName);
@@ -149,7 +177,15 @@ public class ScriptContextItem extends AbstractContextItem {
 			obj.add(SELECTED_LINES_KEY, rangesArray);
 		}
 
-		obj.addProperty(CONTENT_KEY, scriptBody);
+		if (base == null) {
+			obj.addProperty(CONTENT_KEY, scriptBody);
+		}
+		else {
+			obj.addProperty(BASE_HASH_KEY, base.getContentHash());
+			obj.addProperty(CONTENT_DIFF_KEY, UnifiedDiff.format(lines(base
+				.getScriptBody()), lines(scriptBody), 3));
+		}
+		obj.addProperty(CONTENT_HASH_KEY, getContentHash());
 		obj.addProperty(LANGUAGE_KEY, language);
 
 		if (!errorOutput.isEmpty()) {
@@ -200,6 +236,10 @@ public class ScriptContextItem extends AbstractContextItem {
 			mergedRanges, language, errorOutput);
 	}
 
+	private static List<String> lines(final String text) {
+		return Arrays.asList(text.split("\n", -1));
+	}
+
 	/**
 	 * Formats a list of line ranges as a string representation.
 	 */
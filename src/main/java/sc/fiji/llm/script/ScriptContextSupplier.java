@@ -34,7 +34,6 @@ import org.scijava.Priority;
 import org.scijava.command.CommandService;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
-import org.scijava.ui.swing.script.EditorPane;
 import org.scijava.ui.swing.script.ScriptEditor;
 import org.scijava.ui.swing.script.TextEditor;
 import org.scijava.ui.swing.script.TextEditorTab;
@@ -80,23 +79,13 @@ public class ScriptContextSupplier implements ContextItemSupplier {
 			}
 			// Add individual scripts from all open editors
 			for (final TextEditor textEditor : instances) {
-				final int editorIndex = TextEditor.instances.indexOf(textEditor);
-				int tabIndex = 0;
-
 				try {
-					while (true) {
-						final TextEditorTab tab = textEditor.getTab(tabIndex);
-						if (tab == null) {
-							break;
-						}
-
+					for (final TextEditorTab tab : ScriptRegistry.getTabs(textEditor)) {
 						final ScriptContextItem item = buildScriptContextItem(textEditor,
-							tab, editorIndex, tabIndex);
+							tab);
 						if (item != null) {
 							items.add(item);
 						}
-
-						tabIndex++;
 					}
 				}
 				catch (Exception e) {
@@ -164,13 +153,7 @@ public class ScriptContextSupplier implements ContextItemSupplier {
 				return null;
 			}
 
-			final int tabIndex = findTabIndex(textEditor, tab);
-			if (tabIndex < 0) {
-				return null;
-			}
-
-			final int editorIndex = TextEditor.instances.indexOf(textEditor);
-			return buildScriptContextItem(textEditor, tab, editorIndex, tabIndex);
+			return buildScriptContextItem(textEditor, tab);
 		}
 		catch (RuntimeException e) {
 			return null;
@@ -178,94 +161,13 @@ public class ScriptContextSupplier implements ContextItemSupplier {
 	}
 
 	/**
-	 * Builds a ScriptContextItem from a TextEditor and tab.
+	 * Gets the ScriptContextItem of a tab from its live snapshot, which only
+	 * re-reads the parts of the tab that changed since the last call.
 	 */
 	private ScriptContextItem buildScriptContextItem(final TextEditor textEditor,
-		final TextEditorTab tab, final int editorIndex, final int tabIndex)
-	{
-		final String scriptName = stripLeadingAsterisks(tab.getTitle());
-		final EditorPane editorPane = (EditorPane) tab.getEditorPane();
-		final String scriptContent = editorPane.getText();
-		final String errorOutput = getErrorOutput(textEditor);
-		final int[] selectionLines = getSelectionLineNumbers(editorPane);
-		final String scriptLanguage = editorPane.getCurrentLanguage().getNames().get(0);
-
-		return new ScriptContextItem(scriptName, scriptContent, editorIndex,
-			tabIndex, selectionLines[0], selectionLines[1], scriptLanguage, errorOutput);
-	}
-
-	/**
-	 * Strips leading asterisks from a script name (asterisks indicate unsaved
-	 * changes).
-	 */
-	private String stripLeadingAsterisks(final String scriptName) {
-		if (scriptName == null) {
-			return null;
-		}
-		return scriptName.replaceAll("^\\*+", "");
-	}
-
-	/**
-	 * Finds the tab index of a given tab within a TextEditor.
-	 */
-	private int findTabIndex(final TextEditor textEditor,
-		final TextEditorTab targetTab)
+		final TextEditorTab tab)
 	{
-		for (int i = 0;; i++) {
-			try {
-				final TextEditorTab currentTab = textEditor.getTab(i);
-				if (currentTab == null) {
-					break;
-				}
-				if (currentTab == targetTab) {
-					return i;
-				}
-			}
-			catch (Exception e) {
-				break;
-			}
-		}
-		return -1;
-	}
-
-	/**
-	 * Gets error output from a TextEditor.
-	 */
-	private String getErrorOutput(final TextEditor textEditor) {
-		try {
-			final javax.swing.JTextArea errorScreen = textEditor.getErrorScreen();
-			if (errorScreen != null) {
-				final String text = errorScreen.getText();
-				return text != null ? text.trim() : "";
-			}
-		}
-		catch (Exception e) {
-			// If we can't access error output, just return empty string
-		}
-		return "";
-	}
-
-	/**
-	 * Extracts selection start and end line numbers from an EditorPane.
-	 */
-	private int[] getSelectionLineNumbers(final EditorPane editorPane) {
-		int selectionStartLine = LineRange.UNSET;
-		int selectionEndLine = LineRange.UNSET;
-
-		try {
-			final String selectedText = editorPane.getSelectedText();
-
-			if (selectedText != null && !selectedText.isEmpty()) {
-				final int selectionStart = editorPane.getSelectionStart();
-				final int selectionEnd = editorPane.getSelectionEnd();
-				selectionStartLine = editorPane.getLineOfOffset(selectionStart) + 1;
-				selectionEndLine = editorPane.getLineOfOffset(selectionEnd) + 1;
-			}
-		}
-		catch (Exception e) {
-			// If we can't get selection info, just use UNSET
-		}
-
-		return new int[] { selectionStartLine, selectionEndLine };
+		return ScriptRegistry.getSnapshot(textEditor, tab).getContextItem(tab,
+			ScriptRegistry.getErrorOutput(textEditor));
 	}
 }
@@ -22,6 +22,11 @@
 
 package sc.fiji.llm.script;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
 import org.scijava.ui.swing.script.EditorPane;
 import org.scijava.ui.swing.script.TextEditorTab;
 
@@ -37,9 +42,19 @@ public final class ScriptContextUtilities {
 		return tabJson;
 	}
 
-	public static JsonElement getTabJson(TextEditorTab tab, int editorIndex, int tabIndex) {
-		return getTabJson(tab, new ScriptID(editorIndex, tabIndex));
+	/**
+	 * @param content the script content
+	 * @return A URL-safe SHA-256 hash of the content
+	 */
+	public static String contentHash(final String content) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest
+				.digest(content.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (final NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
 	}
-
-	
 }
@@ -0,0 +1,272 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+/**
+ * Line-based access to a script's {@link Document} through its element
+ * structure, so that reading or editing a few lines costs time proportional to
+ * those lines rather than to the whole script.
+ * <p>
+ * Lines are separated by {@code \n} and numbered from 1, matching
+ * {@code getText().split("\n", -1)}: a script ending in a newline has an empty
+ * last line. Callers must hold the document on the EDT.
+ * </p>
+ */
+public final class ScriptDocumentUtilities {
+
+	private ScriptDocumentUtilities() {}
+
+	/**
+	 * @return The number of lines in the document; at least 1
+	 */
+	public static int getLineCount(final Document document) {
+		return document.getDefaultRootElement().getElementCount();
+	}
+
+	/**
+	 * @param line a line number from 1 to {@link #getLineCount} + 1
+	 * @return The offset where the line starts; for the line after the last,
+	 *         the document length
+	 */
+	public static int getLineStartOffset(final Document document,
+		final int line)
+	{
+		if (line > getLineCount(document)) {
+			return document.getLength();
+		}
+		return document.getDefaultRootElement().getElement(line - 1)
+			.getStartOffset();
+	}
+
+	/**
+	 * @param startLine first line, from 1
+	 * @param endLine last line, inclusive; at most {@link #getLineCount}
+	 * @return The text of the lines, without the final line's newline
+	 */
+	public static String getLines(final Document document, final int startLine,
+		final int endLine) throws BadLocationException
+	{
+		final int start = getLineStartOffset(document, startLine);
+		final int end = endLine < getLineCount(document) ? getLineStartOffset(
+			document, endLine + 1) - 1 : document.getLength();
+		return document.getText(start, end - start);
+	}
+
+	/**
+	 * Find how many lines from {@code startLine} fit in a token budget, reading
+	 * one line at a time so that nothing past the page is copied.
+	 *
+	 * @param startLine first line of the page, from 1
+	 * @param maxTokens token budget for the page
+	 * @param tokenCounter estimates the tokens in a piece of text
+	 * @return The last line of the page; at least {@code startLine}, even if
+	 *         that line alone exceeds the budget
+	 */
+	public static int getPageEndLine(final Document document,
+		final int startLine, final int maxTokens,
+		final ToIntFunction<String> tokenCounter) throws BadLocationException
+	{
+		final Element root = document.getDefaultRootElement();
+		final int lineCount = root.getElementCount();
+		int tokens = 0;
+		int line = startLine;
+		for (; line <= lineCount; line++) {
+			final Element element = root.getElement(line - 1);
+			final int start = element.getStartOffset();
+			final int end = Math.min(element.getEndOffset(), document.getLength());
+			tokens += tokenCounter.applyAsInt(document.getText(start, end - start));
+			if (tokens > maxTokens && line > startLine) {
+				break;
+			}
+		}
+		return line - 1;
+	}
+
+	/**
+	 * Check that edits are in range and do not overlap.
+	 *
+	 * @param lineCount the number of lines in the script
+	 * @return An error message, or null if the edits are valid
+	 */
+	public static String validateEdits(final List<ScriptEdit> edits,
+		final int lineCount)
+	{
+		if (edits == null || edits.isEmpty()) {
+			return "No edits given";
+		}
+		for (final ScriptEdit edit : edits) {
+			if (edit == null) {
+				return "Edits cannot be null";
+			}
+			if (edit.getStartLine() < 1 || edit.getEndLine() < edit.getStartLine() -
+				1)
+			{
+				return "Invalid line range " + edit +
+					". Lines must be >= 1 and the end line >= the start line - 1";
+			}
+			if (edit.getStartLine() > lineCount + 1 || edit.getEndLine() > lineCount) {
+				return "Line range " + edit + " exceeds total number of lines (" +
+					lineCount + ")";
+			}
+		}
+		final List<ScriptEdit> sorted = sortByStart(edits);
+		for (int i = 1; i < sorted.size(); i++) {
+			final ScriptEdit previous = sorted.get(i - 1);
+			final ScriptEdit next = sorted.get(i);
+			if (previous.getStartLine() == next.getStartLine() || previous
+				.getEndLine() >= next.getStartLine())
+			{
+				return "Edits " + previous + " and " + next + " overlap";
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Apply {@link #validateEdits valid} edits from the bottom of the document
+	 * up, so that every edit's line numbers refer to the original text. Each
+	 * edit is a single remove and insert; callers wanting one undo step for the
+	 * whole batch should wrap this in an atomic edit.
+	 */
+	public static void applyEdits(final Document document,
+		final List<ScriptEdit> edits) throws BadLocationException
+	{
+		final List<ScriptEdit> sorted = sortByStart(edits);
+		for (int i = sorted.size() - 1; i >= 0; i--) {
+			applyEdit(document, sorted.get(i));
+		}
+	}
+
+	private static void applyEdit(final Document document,
+		final ScriptEdit edit) throws BadLocationException
+	{
+		final int lineCount = getLineCount(document);
+		final int startLine = edit.getStartLine();
+		String text = edit.getContent();
+
+		int start = getLineStartOffset(document, startLine);
+		final int end;
+		if (edit.isInsertion()) {
+			end = start;
+			if (text.isEmpty()) {
+				// Inserting nothing leaves the document unchanged, even at the end
+			}
+			else if (startLine > lineCount) {
+				// After the last line, which never ends in a newline
+				text = "\n" + text;
+			}
+			else if (!text.endsWith("\n")) {
+				text += "\n";
+			}
+		}
+		else if (edit.getEndLine() < lineCount) {
+			end = getLineStartOffset(document, edit.getEndLine() + 1);
+			if (!text.isEmpty() && !text.endsWith("\n")) {
+				text += "\n";
+			}
+		}
+		else {
+			// Up to the end of the document, which has no trailing newline to keep
+			end = document.getLength();
+			if (text.isEmpty() && startLine > 1) {
+				// Deleting the last lines also drops the newline before them
+				start--;
+			}
+		}
+
+		if (end > start) {
+			document.remove(start, end - start);
+		}
+		if (!text.isEmpty()) {
+			document.insertString(start, text, null);
+		}
+	}
+
+	/**
+	 * Apply ordered, non-overlapping hunks from the bottom of the document up.
+	 * Unlike {@link ScriptEdit}s, hunk lines are exact: an empty line list
+	 * deletes, and a list holding one empty string replaces with a blank line.
+	 */
+	public static void applyHunks(final Document document,
+		final List<LineDiff.Hunk> hunks) throws BadLocationException
+	{
+		for (int i = hunks.size() - 1; i >= 0; i--) {
+			applyHunk(document, hunks.get(i));
+		}
+	}
+
+	private static void applyHunk(final Document document,
+		final LineDiff.Hunk hunk) throws BadLocationException
+	{
+		if (hunk.getOldStart() == hunk.getOldEnd() && hunk.getLines().isEmpty()) {
+			return;
+		}
+		final int lineCount = getLineCount(document);
+		final StringBuilder sb = new StringBuilder();
+		for (final String line : hunk.getLines()) {
+			sb.append(line).append('\n');
+		}
+		String text = sb.toString();
+
+		int start = getLineStartOffset(document, hunk.getOldStart() + 1);
+		final int end;
+		if (hunk.getOldEnd() < lineCount) {
+			end = getLineStartOffset(document, hunk.getOldEnd() + 1);
+		}
+		else {
+			// The last line has no newline of its own
+			end = document.getLength();
+			if (text.isEmpty()) {
+				if (start > 0) start--;
+			}
+			else if (hunk.getOldStart() == lineCount) {
+				text = "\n" + text.substring(0, text.length() - 1);
+			}
+			else {
+				text = text.substring(0, text.length() - 1);
+			}
+		}
+
+		if (end > start) {
+			document.remove(start, end - start);
+		}
+		if (!text.isEmpty()) {
+			document.insertString(start, text, null);
+		}
+	}
+
+	private static List<ScriptEdit> sortByStart(final List<ScriptEdit> edits) {
+		final List<ScriptEdit> sorted = new ArrayList<>(edits);
+		sorted.sort(Comparator.comparingInt(ScriptEdit::getStartLine));
+		return sorted;
+	}
+}
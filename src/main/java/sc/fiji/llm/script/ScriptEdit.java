@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import dev.langchain4j.model.output.structured.Description;
+
+/**
+ * One line-range edit of a script: lines {@code startLine} to {@code endLine}
+ * (1-based, inclusive) are replaced by {@code content}. An empty content
+ * deletes the lines, and an {@code endLine} of {@code startLine - 1} inserts
+ * the content before {@code startLine} without replacing anything. Inserting
+ * empty content changes nothing.
+ */
+public class ScriptEdit {
+
+	@Description("First line to replace (1-based)")
+	private int startLine;
+
+	@Description("Last line to replace (inclusive); startLine - 1 to insert before startLine")
+	private int endLine;
+
+	@Description("New text for the lines; empty to delete them")
+	private String content;
+
+	public ScriptEdit() {}
+
+	public ScriptEdit(final int startLine, final int endLine,
+		final String content)
+	{
+		this.startLine = startLine;
+		this.endLine = endLine;
+		this.content = content;
+	}
+
+	public int getStartLine() {
+		return startLine;
+	}
+
+	public int getEndLine() {
+		return endLine;
+	}
+
+	public String getContent() {
+		return content == null ? "" : content;
+	}
+
+	/**
+	 * @return Whether this edit only inserts, replacing no lines
+	 */
+	public boolean isInsertion() {
+		return endLine == startLine - 1;
+	}
+
+	@Override
+	public String toString() {
+		return startLine + "-" + endLine;
+	}
+}
@@ -23,9 +23,13 @@
 package sc.fiji.llm.script;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 
 import org.scijava.command.CommandService;
 import org.scijava.plugin.Parameter;
@@ -40,6 +44,7 @@ import com.google.gson.JsonObject;
 
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
+import sc.fiji.llm.provider.CharacterTokenCountEstimator;
 import sc.fiji.llm.tools.AbstractAiToolPlugin;
 import sc.fiji.llm.tools.AiToolPlugin;
 import sc.fiji.llm.tools.ToolContext;
@@ -52,6 +57,13 @@ import sc.fiji.llm.ui.TextEditorUtils;
 @Plugin(type = AiToolPlugin.class)
 public class ScriptEditorTool extends AbstractAiToolPlugin {
 
+	/** Page size for read_page when no budget is given */
+	private static final int DEFAULT_PAGE_TOKENS = 2000;
+	private static final int MAX_PAGE_TOKENS = 8000;
+
+	private static final CharacterTokenCountEstimator TOKEN_ESTIMATOR =
+		new CharacterTokenCountEstimator();
+
 	@Parameter
 	private CommandService commandService;
 
@@ -78,6 +90,8 @@ Each editor can have multiple script files open at once.
 A script's file_name extension determines its programming language (e.g., .py, .ijm, .groovy).
 Tools to interact with scripts have a "fiji.script" prefix.
 Tools will either reference scripts by script_id, or operate on the active script.
+To read a long script, page through it with fiji.script.read_page instead of reading it whole.
+To make several changes to a script, prefer one fiji.script.apply_edits or fiji.script.apply_diff call over many single-line edits.
 """;
 	}
 
@@ -112,12 +126,9 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				}
 			}
 
-			// Get the editor and default tab indices
-			int editorIndex = TextEditor.instances.indexOf(textEditor);
-			int tabIndex = 0; // Default to the first tab 0
-
-			// Return indication of active tab
-			return activeTabJson(textEditor.getTab(tabIndex), editorIndex, tabIndex);
+			// Return indication of the first tab
+			final TextEditorTab tab = textEditor.getTab(0);
+			return activeTabJson(tab, ScriptRegistry.getId(textEditor, tab));
 		}
 		catch (Exception e) {
 			return jsonError("Failed to start script editor");
@@ -139,16 +150,12 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				return jsonError("Invalid script_id format. Expected e.g., 0:1");
 			}
 
-			// Validate instance index
-			if (scriptID.editorIndex < 0 ||
-				scriptID.editorIndex >= TextEditor.instances.size())
-			{
-				return jsonError("Invalid script_id. No text editor at index: " + scriptID.editorIndex);
+			// Look up the editor; the script ID stays valid while other tabs change
+			final TextEditor textEditor = ScriptRegistry.getEditor(scriptID);
+			if (textEditor == null) {
+				return jsonError("Invalid script_id. No open text editor with id: " + scriptID.editorIndex);
 			}
 
-			final TextEditor textEditor = TextEditor.instances.get(
-				scriptID.editorIndex);
-
 			// Perform UI operations on EDT
 			final String[] result = new String[1];
 			if (SwingUtilities.isEventDispatchThread()) {
@@ -175,10 +182,12 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				return jsonError("No active script found.", "fiji.script.start_editor");
 			}
 
-			final TextEditor textEditor = TextEditor.instances.get(scriptID.editorIndex);
-			final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
 
-			return activeTabJson(tab, scriptID.editorIndex, scriptID.tabIndex);
+			return activeTabJson(tab, scriptID);
 		}
 		catch (Exception e) {
 			return jsonError("Failed to get active script");
@@ -226,8 +235,10 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				return jsonError("No active script found", "fiji.script.create_script");
 			}
 
-			final TextEditor textEditor = TextEditor.instances.get(scriptID.editorIndex);
-			final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
 
 			final String[] result = new String[1];
 			if (SwingUtilities.isEventDispatchThread()) {
@@ -245,6 +256,44 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 		}
 	}
 
+	@Tool(value = {
+		"Apply a unified diff to the active script. Prefer this over replace_script for changes to part of a long script.",
+		"Args: diff - one or more hunks, each starting with a header like \"@@ -12,4 +12,5 @@\" followed by context (' '), removed ('-') and added ('+') lines" },
+		name = "fiji.script.apply_diff")
+	public String applyDiff(@P("diff") final String diff)
+	{
+		try {
+			if (diff == null || diff.isBlank()) {
+				return jsonError("diff cannot be empty");
+			}
+
+			final ScriptID scriptID = TextEditorUtils.getActiveScriptID();
+			if (scriptID == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
+
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
+
+			// Perform UI operations on EDT
+			final String[] result = new String[1];
+			if (SwingUtilities.isEventDispatchThread()) {
+				result[0] = performApplyDiff(tab, scriptID, diff);
+			}
+			else {
+				SwingUtilities.invokeAndWait(() -> {
+					result[0] = performApplyDiff(tab, scriptID, diff);
+				});
+			}
+			return result[0];
+		}
+		catch (Exception e) {
+			return jsonError("Failed to apply diff to active script");
+		}
+	}
+
 	@Tool(value = { "Rename the active script file. Changing its extension will change its script language." },
 		name = "fiji.script.rename_script")
 	public String renameScript(@P("file_name") final String filename)
@@ -286,8 +335,10 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				return jsonError("No active script found", "fiji.script.create_script");
 			}
 
-			final TextEditor textEditor = TextEditor.instances.get(scriptID.editorIndex);
-			final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
 
 			final EditorPane editorPane = (EditorPane) tab.getEditorPane();
 			final String content = editorPane.getText();
@@ -315,37 +366,64 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				return jsonError("No active script found", "fiji.script.create_script");
 			}
 
-			final TextEditor textEditor = TextEditor.instances.get(scriptID.editorIndex);
-			final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
 
 			// Perform UI operations on EDT
-			final EditorPane editorPane = (EditorPane) tab.getEditorPane();
-			final String content = editorPane.getText();
-			final String[] lines = content.split("\n", -1);
+			final String[] result = new String[1];
+			if (SwingUtilities.isEventDispatchThread()) {
+				result[0] = performReadLines(tab, scriptID, startLine, endLine);
+			}
+			else {
+				SwingUtilities.invokeAndWait(() -> {
+					result[0] = performReadLines(tab, scriptID, startLine, endLine);
+				});
+			}
+			return result[0];
+		}
+		catch (Exception e) {
+			return jsonError("Failed to read lines from active script");
+		}
+	}
 
-			// Validate that requested lines exist
-			if (startLine > lines.length) {
-				return jsonError("start_line exceeds total number of lines (" + lines.length + ")");
+	@Tool(value = {
+		"Read the active script one page at a time, starting at start_line and stopping before the page exceeds max_tokens.",
+		"Returns: the lines read and next_start_line for the following page, which is absent after the last page" },
+		name = "fiji.script.read_page")
+	public String readPage(@P("start_line") final int startLine, @P("max_tokens") final int maxTokens)
+	{
+		try {
+			if (startLine < 1) {
+				return jsonError("start_line must be >= 1");
 			}
 
-			// Extract the requested lines (1-indexed)
-			final int actualEndLine = Math.min(endLine, lines.length);
-			final StringBuilder extractedContent = new StringBuilder();
-			for (int i = startLine - 1; i < actualEndLine; i++) {
-				extractedContent.append(lines[i]);
-				if (i < actualEndLine - 1) {
-					extractedContent.append("\n");
-				}
+			final ScriptID scriptID = TextEditorUtils.getActiveScriptID();
+			if (scriptID == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
 			}
 
-			JsonObject readState = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
-			readState.addProperty("start_line", startLine);
-			readState.addProperty("end_line", actualEndLine);
-			readState.addProperty("content", extractedContent.toString());
-			return jsonProp("read_lines", readState);
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
+
+			// Perform UI operations on EDT
+			final int budget = maxTokens <= 0 ? DEFAULT_PAGE_TOKENS : Math.min(maxTokens, MAX_PAGE_TOKENS);
+			final String[] result = new String[1];
+			if (SwingUtilities.isEventDispatchThread()) {
+				result[0] = performReadPage(tab, scriptID, startLine, budget);
+			}
+			else {
+				SwingUtilities.invokeAndWait(() -> {
+					result[0] = performReadPage(tab, scriptID, startLine, budget);
+				});
+			}
+			return result[0];
 		}
 		catch (Exception e) {
-			return jsonError("Failed to read lines from active script");
+			return jsonError("Failed to read page from active script");
 		}
 	}
 
@@ -363,8 +441,10 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				return jsonError("No active script found", "fiji.script.create_script");
 			}
 
-			final TextEditor textEditor = TextEditor.instances.get(scriptID.editorIndex);
-			final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
 
 			// Perform UI operations on EDT
 			final String[] result = new String[1];
@@ -402,8 +482,10 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				return jsonError("No active script found", "fiji.script.create_script");
 			}
 
-			final TextEditor textEditor = TextEditor.instances.get(scriptID.editorIndex);
-			final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
 
 			// Perform UI operations on EDT
 			final String[] result = new String[1];
@@ -441,8 +523,10 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 				return jsonError("No active script found", "fiji.script.create_script");
 			}
 
-			final TextEditor textEditor = TextEditor.instances.get(scriptID.editorIndex);
-			final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
 
 			// Perform UI operations on EDT
 			final String[] result = new String[1];
@@ -461,6 +545,44 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 		}
 	}
 
+	@Tool(value = {
+		"Apply several line edits to the active script at once, as a single undoable change.",
+		"Line numbers in every edit refer to the script before any edit; edits must not overlap." },
+		name = "fiji.script.apply_edits")
+	public String applyEdits(@P("edits") final List<ScriptEdit> edits)
+	{
+		try {
+			if (edits == null || edits.isEmpty()) {
+				return jsonError("edits cannot be empty");
+			}
+
+			final ScriptID scriptID = TextEditorUtils.getActiveScriptID();
+			if (scriptID == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
+
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+			if (tab == null) {
+				return jsonError("No active script found", "fiji.script.create_script");
+			}
+
+			// Perform UI operations on EDT
+			final String[] result = new String[1];
+			if (SwingUtilities.isEventDispatchThread()) {
+				result[0] = performApplyEdits(tab, scriptID, edits);
+			}
+			else {
+				SwingUtilities.invokeAndWait(() -> {
+					result[0] = performApplyEdits(tab, scriptID, edits);
+				});
+			}
+			return result[0];
+		}
+		catch (Exception e) {
+			return jsonError("Failed to apply edits to active script");
+		}
+	}
+
 	private ScriptID parseID(final String idString) {
 		if (idString == null || idString.trim().isEmpty()) {
 			return null;
@@ -484,18 +606,18 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 	private String performSetActiveScript(final TextEditor textEditor, final ScriptID scriptID)
 	{
 		try {
-			// Validate tab index
-			final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+			// Validate tab id
+			final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
 
 			if (tab == null) {
-				return jsonError("Invalid script_id. No script tab found at index " + scriptID.tabIndex);
+				return jsonError("Invalid script_id. No open script tab with id " + scriptID);
 			}
 
 			// Switch to the specified tab
-			textEditor.switchTo(scriptID.tabIndex);
+			textEditor.switchTo(ScriptRegistry.getTabIndex(tab));
 
 			// Return indication of active tab
-			return activeTabJson(tab, scriptID.editorIndex, scriptID.tabIndex);
+			return activeTabJson(tab, scriptID);
 		}
 		catch (Exception e) {
 			return jsonError("Failed to activate script: " + scriptID.toString());
@@ -504,44 +626,124 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 
 	private String performReplaceScript( ScriptID scriptID, TextEditorTab tab, String content )
 	{
-		// Update the tab content
-		final EditorPane editorPane = (EditorPane) tab.getEditorPane();
-		editorPane.setText(content);
+		try {
+			// Update only the changed lines, keeping the caret, folds and undo history
+			final EditorPane editorPane = (EditorPane) tab.getEditorPane();
+			final List<LineDiff.Hunk> hunks = LineDiff.diff(lines(editorPane
+				.getText()), lines(content));
+			performHunks(editorPane, hunks);
 
-		JsonElement updateScript = ScriptContextUtilities.getTabJson(tab, scriptID);
-		return jsonProp("replaced_script_content", updateScript);
+			JsonObject updateScript = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
+			updateScript.addProperty("changed_hunks", hunks.size());
+			return jsonProp("replaced_script_content", updateScript);
+		}
+		catch (Exception e) {
+			return jsonError("Failed to replace script content");
+		}
 	}
 
-	private String performDeleteLines(final TextEditorTab tab, final ScriptID scriptID, final int startLine, final int endLine)
+	private String performApplyDiff(final TextEditorTab tab, final ScriptID scriptID, final String diff)
 	{
 		try {
 			final EditorPane editorPane = (EditorPane) tab.getEditorPane();
-			final String content = editorPane.getText();
-			final String[] lines = content.split("\n", -1);
+			final List<LineDiff.Hunk> hunks;
+			try {
+				hunks = UnifiedDiff.parse(diff, lines(editorPane.getText()));
+			}
+			catch (IllegalArgumentException e) {
+				return jsonError(e.getMessage() + ". No changes were applied.", "fiji.script.read_lines");
+			}
+
+			performHunks(editorPane, hunks);
+
+			JsonObject diffState = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
+			diffState.addProperty("applied_hunks", hunks.size());
+			diffState.addProperty("new_total_lines", ScriptDocumentUtilities.getLineCount(editorPane.getDocument()));
+			return jsonProp("applied_diff", diffState);
+		}
+		catch (Exception e) {
+			return jsonError("Failed to apply diff to script");
+		}
+	}
+
+	private static List<String> lines(final String text) {
+		return Arrays.asList(text.split("\n", -1));
+	}
+
+	private String performReadLines(final TextEditorTab tab, final ScriptID scriptID, final int startLine, final int endLine)
+	{
+		try {
+			final Document document = ((EditorPane) tab.getEditorPane()).getDocument();
+			final int lineCount = ScriptDocumentUtilities.getLineCount(document);
 
 			// Validate that requested lines exist
-			if (startLine > lines.length) {
-				return jsonError("start_line exceeds total number of lines (" + lines.length + ")");
+			if (startLine > lineCount) {
+				return jsonError("start_line exceeds total number of lines (" + lineCount + ")");
 			}
 
-			// Delete the specified lines (1-indexed)
-			final int actualEndLine = Math.min(endLine, lines.length);
-			final StringBuilder newContent = new StringBuilder();
-			for (int i = 0; i < lines.length; i++) {
-				if (i < startLine - 1 || i >= actualEndLine) {
-					newContent.append(lines[i]);
-					if (i < lines.length - 1) {
-						newContent.append("\n");
-					}
-				}
+			// Extract only the requested lines (1-indexed)
+			final int actualEndLine = Math.min(endLine, lineCount);
+			final String content = ScriptDocumentUtilities.getLines(document, startLine, actualEndLine);
+
+			JsonObject readState = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
+			readState.addProperty("start_line", startLine);
+			readState.addProperty("end_line", actualEndLine);
+			readState.addProperty("total_lines", lineCount);
+			readState.addProperty("content", content);
+			return jsonProp("read_lines", readState);
+		}
+		catch (Exception e) {
+			return jsonError("Failed to read lines from script");
+		}
+	}
+
+	private String performReadPage(final TextEditorTab tab, final ScriptID scriptID, final int startLine, final int maxTokens)
+	{
+		try {
+			final Document document = ((EditorPane) tab.getEditorPane()).getDocument();
+			final int lineCount = ScriptDocumentUtilities.getLineCount(document);
+
+			if (startLine > lineCount) {
+				return jsonError("start_line exceeds total number of lines (" + lineCount + ")");
+			}
+
+			final int endLine = ScriptDocumentUtilities.getPageEndLine(document, startLine, maxTokens,
+				TOKEN_ESTIMATOR::estimateTokenCountInText);
+
+			JsonObject pageState = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
+			pageState.addProperty("start_line", startLine);
+			pageState.addProperty("end_line", endLine);
+			pageState.addProperty("total_lines", lineCount);
+			if (endLine < lineCount) {
+				pageState.addProperty("next_start_line", endLine + 1);
 			}
+			pageState.addProperty("content", ScriptDocumentUtilities.getLines(document, startLine, endLine));
+			return jsonProp("read_page", pageState);
+		}
+		catch (Exception e) {
+			return jsonError("Failed to read page from script");
+		}
+	}
+
+	private String performDeleteLines(final TextEditorTab tab, final ScriptID scriptID, final int startLine, final int endLine)
+	{
+		try {
+			final EditorPane editorPane = (EditorPane) tab.getEditorPane();
+			final int lineCount = ScriptDocumentUtilities.getLineCount(editorPane.getDocument());
 
-			editorPane.setText(newContent.toString());
+			// Validate that requested lines exist
+			if (startLine > lineCount) {
+				return jsonError("start_line exceeds total number of lines (" + lineCount + ")");
+			}
+
+			// Delete the specified lines (1-indexed)
+			final int actualEndLine = Math.min(endLine, lineCount);
+			performEdits(editorPane, List.of(new ScriptEdit(startLine, actualEndLine, "")));
 
 			JsonObject deleteState = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
 			deleteState.addProperty("deleted_start_line", startLine);
 			deleteState.addProperty("deleted_end_line", actualEndLine);
-			deleteState.addProperty("total_lines_remaining", lines.length - (actualEndLine - startLine + 1));
+			deleteState.addProperty("total_lines_remaining", ScriptDocumentUtilities.getLineCount(editorPane.getDocument()));
 			return jsonProp("deleted_lines", deleteState);
 		}
 		catch (Exception e) {
@@ -553,42 +755,18 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 	{
 		try {
 			final EditorPane editorPane = (EditorPane) tab.getEditorPane();
-			final String currentContent = editorPane.getText();
-			final String[] lines = currentContent.split("\n", -1);
+			final int lineCount = ScriptDocumentUtilities.getLineCount(editorPane.getDocument());
 
 			// Validate that insertion line is valid (allow inserting at end)
-			if (startLine > lines.length + 1) {
-				return jsonError("start_line exceeds total number of lines + 1 (" + (lines.length + 1) + ")");
+			if (startLine > lineCount + 1) {
+				return jsonError("start_line exceeds total number of lines + 1 (" + (lineCount + 1) + ")");
 			}
 
-			// Build new content with insertion
-			final StringBuilder newContent = new StringBuilder();
-			for (int i = 0; i < lines.length; i++) {
-				if (i == startLine - 1) {
-					newContent.append(content);
-					if (!content.endsWith("\n")) {
-						newContent.append("\n");
-					}
-				}
-				newContent.append(lines[i]);
-				if (i < lines.length - 1) {
-					newContent.append("\n");
-				}
-			}
-
-			// Handle insertion at end of file
-			if (startLine > lines.length) {
-				if (newContent.length() > 0 && !currentContent.endsWith("\n")) {
-					newContent.append("\n");
-				}
-				newContent.append(content);
-			}
-
-			editorPane.setText(newContent.toString());
+			performEdits(editorPane, List.of(new ScriptEdit(startLine, startLine - 1, content)));
 
 			JsonObject insertState = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
 			insertState.addProperty("inserted_at_line", startLine);
-			insertState.addProperty("new_total_lines", newContent.toString().split("\n", -1).length);
+			insertState.addProperty("new_total_lines", ScriptDocumentUtilities.getLineCount(editorPane.getDocument()));
 			return jsonProp("inserted_content", insertState);
 		}
 		catch (Exception e) {
@@ -600,43 +778,23 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 	{
 		try {
 			final EditorPane editorPane = (EditorPane) tab.getEditorPane();
-			final String content = editorPane.getText();
-			final String[] lines = content.split("\n", -1);
+			final int lineCount = ScriptDocumentUtilities.getLineCount(editorPane.getDocument());
 
 			// Validate that requested lines exist
-			if (startLine > lines.length) {
-				return jsonError("start_line exceeds total number of lines (" + lines.length + ")");
-			}
-
-			// Replace the specified lines (1-indexed)
-			final int actualEndLine = Math.min(endLine, lines.length);
-			final StringBuilder updatedContent = new StringBuilder();
-			for (int i = 0; i < lines.length; i++) {
-				if (i == startLine - 1) {
-					updatedContent.append(newContent);
-					if (!newContent.endsWith("\n")) {
-						updatedContent.append("\n");
-					}
-					i = actualEndLine - 1; // Skip to after the replaced lines
-				}
-				else if (i > startLine - 1 && i <= actualEndLine - 1) {
-					// Skip lines being replaced
-					continue;
-				}
-				else {
-					updatedContent.append(lines[i]);
-					if (i < lines.length - 1) {
-						updatedContent.append("\n");
-					}
-				}
+			if (startLine > lineCount) {
+				return jsonError("start_line exceeds total number of lines (" + lineCount + ")");
 			}
 
-			editorPane.setText(updatedContent.toString());
+			// Replace the specified lines (1-indexed). Empty content leaves one
+			// blank line, as delete_lines is the tool for removing lines
+			final int actualEndLine = Math.min(endLine, lineCount);
+			final String replacement = newContent.isEmpty() ? "\n" : newContent;
+			performEdits(editorPane, List.of(new ScriptEdit(startLine, actualEndLine, replacement)));
 
 			JsonObject replaceState = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
 			replaceState.addProperty("replaced_start_line", startLine);
 			replaceState.addProperty("replaced_end_line", actualEndLine);
-			replaceState.addProperty("new_total_lines", updatedContent.toString().split("\n", -1).length);
+			replaceState.addProperty("new_total_lines", ScriptDocumentUtilities.getLineCount(editorPane.getDocument()));
 			return jsonProp("replaced_lines", replaceState);
 		}
 		catch (Exception e) {
@@ -644,16 +802,68 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 		}
 	}
 
+	private String performApplyEdits(final TextEditorTab tab, final ScriptID scriptID, final List<ScriptEdit> edits)
+	{
+		try {
+			final EditorPane editorPane = (EditorPane) tab.getEditorPane();
+			final String error = ScriptDocumentUtilities.validateEdits(edits,
+				ScriptDocumentUtilities.getLineCount(editorPane.getDocument()));
+			if (error != null) {
+				return jsonError(error + ". No edits were applied.");
+			}
+
+			performEdits(editorPane, edits);
+
+			JsonObject editState = ScriptContextUtilities.getTabJson(tab, scriptID).getAsJsonObject();
+			editState.addProperty("edits_applied", edits.size());
+			editState.addProperty("new_total_lines", ScriptDocumentUtilities.getLineCount(editorPane.getDocument()));
+			return jsonProp("applied_edits", editState);
+		}
+		catch (Exception e) {
+			return jsonError("Failed to apply edits to script");
+		}
+	}
+
+	/**
+	 * Apply diff hunks in place as a single undo step, like
+	 * {@link #performEdits}.
+	 */
+	private void performHunks(final EditorPane editorPane, final List<LineDiff.Hunk> hunks) throws BadLocationException
+	{
+		if (hunks.isEmpty()) {
+			return;
+		}
+		editorPane.beginAtomicEdit();
+		try {
+			ScriptDocumentUtilities.applyHunks(editorPane.getDocument(), hunks);
+		}
+		finally {
+			editorPane.endAtomicEdit();
+		}
+	}
+
+	/**
+	 * Apply edits in place as document changes, which only re-highlights the
+	 * affected lines and keeps the caret and folds elsewhere. The edits form a
+	 * single undo step.
+	 */
+	private void performEdits(final EditorPane editorPane, final List<ScriptEdit> edits) throws BadLocationException
+	{
+		editorPane.beginAtomicEdit();
+		try {
+			ScriptDocumentUtilities.applyEdits(editorPane.getDocument(), edits);
+		}
+		finally {
+			editorPane.endAtomicEdit();
+		}
+	}
+
 	private String performCreateNewTab(final TextEditor textEditor) {
 		try {
 			// Create new tab with default empty content and no extension
 			final TextEditorTab tab = textEditor.newTab("", "");
 
-			// Get the editor and tab indices
-			int editorIndex = TextEditor.instances.indexOf(textEditor);
-			int tabIndex = TextEditorUtils.getTabIndex(textEditor, tab);
-
-			return activeTabJson(tab, editorIndex, tabIndex);
+			return activeTabJson(tab, ScriptRegistry.getId(textEditor, tab));
 		}
 		catch (Exception e) {
 			return jsonError("Failed to create new tab");
@@ -662,8 +872,11 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 
 	private String performRenameScript(final ScriptID scriptID, final String name)
 	{
-		final TextEditor textEditor = TextEditor.instances.get(scriptID.editorIndex);
-		final TextEditorTab tab = textEditor.getTab(scriptID.tabIndex);
+		final TextEditor textEditor = ScriptRegistry.getEditor(scriptID);
+		final TextEditorTab tab = ScriptRegistry.getTab(scriptID);
+		if (textEditor == null || tab == null) {
+			return jsonError("No active script found", "fiji.script.create_script");
+		}
 
 		String oldName = tab.getEditorPane().getName();
 		textEditor.setEditorPaneFileName(new File(name));
@@ -676,8 +889,8 @@ Tools will either reference scripts by script_id, or operate on the active scrip
 		return jsonProp("renamed_script", renameState);
 	}
 
-    private String activeTabJson(TextEditorTab tab, int editorIndex, int tabIndex) {
-		JsonElement tabJson = ScriptContextUtilities.getTabJson(tab, editorIndex, tabIndex);
+    private String activeTabJson(TextEditorTab tab, ScriptID scriptID) {
+		JsonElement tabJson = ScriptContextUtilities.getTabJson(tab, scriptID);
 		return jsonProp("active_script", tabJson);
     }
 
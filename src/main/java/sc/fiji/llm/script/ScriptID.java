@@ -25,8 +25,10 @@ package sc.fiji.llm.script;
 import java.util.Objects;
 
 /**
- * Represents a script within the editor. Combines editor instance index and tab
- * index into a single ID.
+ * Represents a script within the editor. Combines an editor number and a tab
+ * number into a single ID. For open scripts these are the stable numbers
+ * assigned by {@link ScriptRegistry}, not positions, so an ID keeps referring
+ * to the same tab while others are opened or closed.
  */
 public class ScriptID {
 
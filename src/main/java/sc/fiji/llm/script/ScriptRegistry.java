@@ -0,0 +1,328 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import java.awt.Container;
+import java.awt.event.ContainerAdapter;
+import java.awt.event.ContainerEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.swing.JTabbedPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.scijava.ui.swing.script.EditorPane;
+import org.scijava.ui.swing.script.TextEditor;
+import org.scijava.ui.swing.script.TextEditorTab;
+
+/**
+ * Gives every script editor and tab a stable {@link ScriptID}, so IDs handed to
+ * the model stay valid while other tabs are opened, closed or reordered.
+ * <p>
+ * Editors are numbered in the order they are first seen, and tabs in the order
+ * they are first seen within their editor; numbers are never reused. Both
+ * directions of the mapping are weak, so closed editors and tabs can be
+ * collected, and entries are dropped as soon as their tab is removed or their
+ * editor window is closed.
+ * </p>
+ * <p>
+ * The registry also keeps a {@link ScriptSnapshot} per tab and the error
+ * output per editor, both updated by listeners, so capturing script context
+ * only re-reads what changed. Change listeners are told when the tabs of a
+ * known editor change.
+ * </p>
+ */
+public final class ScriptRegistry {
+
+	private static final Map<TextEditor, Editor> editors = new WeakHashMap<>();
+	private static final Map<Integer, WeakReference<TextEditor>> editorsById =
+		new HashMap<>();
+	private static int nextEditorId;
+	private static final List<Runnable> changeListeners =
+		new CopyOnWriteArrayList<>();
+
+	private ScriptRegistry() {}
+
+	/**
+	 * @return The stable ID of the tab, assigning one if needed
+	 */
+	public static synchronized ScriptID getId(final TextEditor textEditor,
+		final TextEditorTab tab)
+	{
+		final Editor editor = editor(textEditor);
+		Integer tabId = editor.ids.get(tab);
+		if (tabId == null) {
+			tabId = editor.nextTabId++;
+			editor.ids.put(tab, tabId);
+			editor.tabs.put(tabId, new WeakReference<>(tab));
+			listen(editor, tab);
+		}
+		return new ScriptID(editor.id, tabId);
+	}
+
+	/**
+	 * @return The live snapshot of the tab, creating one if needed
+	 */
+	public static synchronized ScriptSnapshot getSnapshot(
+		final TextEditor textEditor, final TextEditorTab tab)
+	{
+		final ScriptID id = getId(textEditor, tab);
+		final Editor editor = editors.get(textEditor);
+		ScriptSnapshot snapshot = editor.snapshots.get(tab);
+		if (snapshot == null) {
+			snapshot = new ScriptSnapshot(id, (EditorPane) tab.getEditorPane());
+			editor.snapshots.put(tab, snapshot);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @return The trimmed error output of the editor, re-read only after it
+	 *         changed
+	 */
+	public static String getErrorOutput(final TextEditor textEditor) {
+		final Editor editor;
+		synchronized (ScriptRegistry.class) {
+			editor = editor(textEditor);
+		}
+		synchronized (editor) {
+			if (editor.errorChanged) {
+				editor.errorChanged = false;
+				final JTextArea errorScreen = textEditor.getErrorScreen();
+				final String text = errorScreen == null ? null : errorScreen.getText();
+				editor.errorOutput = text == null ? "" : text.trim();
+			}
+			return editor.errorOutput;
+		}
+	}
+
+	/**
+	 * @param listener called when a tab is added to, removed from or retitled
+	 *          in a known editor, or a known editor is closed
+	 */
+	public static void addChangeListener(final Runnable listener) {
+		changeListeners.add(listener);
+	}
+
+	/**
+	 * @return The stable ID of the editor, assigning one if needed
+	 */
+	public static synchronized int getEditorId(final TextEditor textEditor) {
+		return editor(textEditor).id;
+	}
+
+	/**
+	 * @return The editor holding the script, or null if it has been closed
+	 */
+	public static synchronized TextEditor getEditor(final ScriptID id) {
+		final WeakReference<TextEditor> ref = editorsById.get(id.editorIndex);
+		return ref == null ? null : ref.get();
+	}
+
+	/**
+	 * @return The script's tab, or null if it has been closed
+	 */
+	public static synchronized TextEditorTab getTab(final ScriptID id) {
+		final TextEditor textEditor = getEditor(id);
+		if (textEditor == null) {
+			return null;
+		}
+		final WeakReference<TextEditorTab> ref = editors.get(textEditor).tabs.get(
+			id.tabIndex);
+		final TextEditorTab tab = ref == null ? null : ref.get();
+		// Guard against a removal we were not notified of
+		return tab != null && SwingUtilities.getAncestorOfClass(TextEditor.class,
+			tab) == textEditor ? tab : null;
+	}
+
+	/**
+	 * @return The tabs of the editor, in display order
+	 */
+	public static List<TextEditorTab> getTabs(final TextEditor textEditor) {
+		final List<TextEditorTab> tabs = new ArrayList<>();
+		final JTabbedPane pane = getTabbedPane(textEditor);
+		if (pane != null) {
+			for (int i = 0; i < pane.getTabCount(); i++) {
+				if (pane.getComponentAt(i) instanceof TextEditorTab tab) {
+					tabs.add(tab);
+				}
+			}
+		}
+		return tabs;
+	}
+
+	/**
+	 * @return The display position of the tab in its editor, or -1 if it is not
+	 *         in one
+	 */
+	public static int getTabIndex(final TextEditorTab tab) {
+		return tab.getParent() instanceof JTabbedPane pane ? pane
+			.indexOfComponent(tab) : -1;
+	}
+
+	private static JTabbedPane getTabbedPane(final TextEditor textEditor) {
+		// The selected tab always exists and lives in the editor's tabbed pane
+		final TextEditorTab selected = textEditor.getTab();
+		return selected != null && selected.getParent() instanceof JTabbedPane pane
+			? pane : null;
+	}
+
+	private static Editor editor(final TextEditor textEditor) {
+		Editor editor = editors.get(textEditor);
+		if (editor == null) {
+			editor = new Editor(nextEditorId++);
+			editors.put(textEditor, editor);
+			editorsById.put(editor.id, new WeakReference<>(textEditor));
+			textEditor.addWindowListener(new WindowAdapter() {
+
+				@Override
+				public void windowClosed(final WindowEvent e) {
+					forget(textEditor);
+					fireChanged();
+				}
+			});
+			final Editor listening = editor;
+			final JTextArea errorScreen = textEditor.getErrorScreen();
+			if (errorScreen != null) {
+				errorScreen.getDocument().addDocumentListener(new DocumentListener() {
+
+					@Override
+					public void insertUpdate(final DocumentEvent e) {
+						listening.errorChanged = true;
+					}
+
+					@Override
+					public void removeUpdate(final DocumentEvent e) {
+						listening.errorChanged = true;
+					}
+
+					@Override
+					public void changedUpdate(final DocumentEvent e) {
+						// Attribute changes do not affect the text
+					}
+				});
+			}
+		}
+		return editor;
+	}
+
+	/**
+	 * Drop tabs as soon as they are removed from their tabbed pane, and flag
+	 * snapshots whose title changed
+	 */
+	private static void listen(final Editor editor, final TextEditorTab tab) {
+		final Container parent = tab.getParent();
+		if (!(parent instanceof JTabbedPane) || editor.panes.containsKey(parent)) {
+			return;
+		}
+		editor.panes.put(parent, Boolean.TRUE);
+		final JTabbedPane pane = (JTabbedPane) parent;
+		pane.addPropertyChangeListener("indexForTitle", e -> {
+			if (e.getNewValue() instanceof Integer index && index >= 0 &&
+				index < pane.getTabCount() && pane.getComponentAt(
+					index) instanceof TextEditorTab titled)
+			{
+				titleChanged(editor, titled);
+				fireChanged();
+			}
+		});
+		parent.addContainerListener(new ContainerAdapter() {
+
+			@Override
+			public void componentAdded(final ContainerEvent e) {
+				if (e.getChild() instanceof TextEditorTab) {
+					fireChanged();
+				}
+			}
+
+			@Override
+			public void componentRemoved(final ContainerEvent e) {
+				if (e.getChild() instanceof TextEditorTab removed) {
+					forget(editor, removed);
+					fireChanged();
+				}
+			}
+		});
+	}
+
+	private static void fireChanged() {
+		for (final Runnable listener : changeListeners) {
+			listener.run();
+		}
+	}
+
+	private static synchronized void titleChanged(final Editor editor,
+		final TextEditorTab tab)
+	{
+		final ScriptSnapshot snapshot = editor.snapshots.get(tab);
+		if (snapshot != null) {
+			snapshot.titleChanged();
+		}
+	}
+
+	private static synchronized void forget(final Editor editor,
+		final TextEditorTab tab)
+	{
+		editor.snapshots.remove(tab);
+		final Integer tabId = editor.ids.remove(tab);
+		if (tabId != null) {
+			editor.tabs.remove(tabId);
+		}
+	}
+
+	private static synchronized void forget(final TextEditor textEditor) {
+		final Editor editor = editors.remove(textEditor);
+		if (editor != null) {
+			editorsById.remove(editor.id);
+		}
+	}
+
+	/** IDs of one editor's tabs */
+	private static class Editor {
+
+		private final int id;
+		private final Map<TextEditorTab, Integer> ids = new WeakHashMap<>();
+		private final Map<Integer, WeakReference<TextEditorTab>> tabs =
+			new HashMap<>();
+		private final Map<TextEditorTab, ScriptSnapshot> snapshots =
+			new WeakHashMap<>();
+		private final Map<Container, Boolean> panes = new WeakHashMap<>();
+		private int nextTabId;
+		private volatile boolean errorChanged = true;
+		private String errorOutput = "";
+
+		Editor(final int id) {
+			this.id = id;
+		}
+	}
+}
@@ -0,0 +1,256 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import java.beans.PropertyChangeEvent;
+import java.util.List;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.scijava.script.ScriptLanguage;
+import org.scijava.ui.swing.script.EditorPane;
+import org.scijava.ui.swing.script.TextEditorTab;
+
+/**
+ * A live summary of one script tab: its name, language, content, content hash
+ * and selection. Listeners on the tab's editor pane only flag what changed;
+ * the flagged parts are re-read on the next request, and when nothing changed
+ * the previous {@link ScriptContextItem} is returned as is.
+ * <p>
+ * Snapshots are created and kept by {@link ScriptRegistry}.
+ * </p>
+ */
+public class ScriptSnapshot {
+
+	private final ScriptID id;
+
+	// Set on the EDT by the listeners, cleared by refresh
+	private volatile boolean titleChanged = true;
+	private volatile boolean languageChanged = true;
+	private volatile boolean contentChanged = true;
+	private volatile boolean selectionChanged = true;
+
+	private String name = "";
+	private String language = "";
+	private String content = "";
+	private String contentHash;
+	private int selectionStartLine = LineRange.UNSET;
+	private int selectionEndLine = LineRange.UNSET;
+	private String errorOutput = "";
+	private ScriptContextItem item;
+
+	ScriptSnapshot(final ScriptID id, final EditorPane editorPane) {
+		this.id = id;
+
+		final DocumentListener documentListener = new DocumentListener() {
+
+			@Override
+			public void insertUpdate(final DocumentEvent e) {
+				textChanged();
+			}
+
+			@Override
+			public void removeUpdate(final DocumentEvent e) {
+				textChanged();
+			}
+
+			@Override
+			public void changedUpdate(final DocumentEvent e) {
+				// Attribute changes do not affect the text
+			}
+		};
+		editorPane.getDocument().addDocumentListener(documentListener);
+		editorPane.addPropertyChangeListener((final PropertyChangeEvent e) -> {
+			if ("document".equals(e.getPropertyName())) {
+				if (e.getOldValue() instanceof Document old) {
+					old.removeDocumentListener(documentListener);
+				}
+				if (e.getNewValue() instanceof Document document) {
+					document.addDocumentListener(documentListener);
+				}
+				textChanged();
+			}
+			else if (RSyntaxTextArea.SYNTAX_STYLE_PROPERTY.equals(e
+				.getPropertyName()))
+			{
+				languageChanged = true;
+			}
+		});
+		editorPane.addCaretListener(e -> selectionChanged = true);
+	}
+
+	/** Called when the tab's title may have changed */
+	void titleChanged() {
+		titleChanged = true;
+	}
+
+	private void textChanged() {
+		contentChanged = true;
+		// Selected line numbers shift, and the unsaved marker may toggle
+		selectionChanged = true;
+		titleChanged = true;
+	}
+
+	public ScriptID getId() {
+		return id;
+	}
+
+	/**
+	 * @param tab the tab this snapshot belongs to
+	 * @param errorOutput the editor's current error output
+	 * @return A context item for the tab; the same instance as last time if
+	 *         nothing changed since
+	 */
+	public synchronized ScriptContextItem getContextItem(
+		final TextEditorTab tab, final String errorOutput)
+	{
+		boolean changed = refresh(tab);
+		if (!errorOutput.equals(this.errorOutput)) {
+			this.errorOutput = errorOutput;
+			changed = true;
+		}
+		if (changed || item == null) {
+			final List<LineRange> ranges = selectionStartLine != LineRange.UNSET &&
+				selectionEndLine != LineRange.UNSET ? List.of(new LineRange(
+					selectionStartLine, selectionEndLine)) : List.of();
+			item = new ScriptContextItem(name, content, id, ranges, language,
+				errorOutput);
+		}
+		return item;
+	}
+
+	/**
+	 * @return The script name, without unsaved-change markers
+	 */
+	public synchronized String getName(final TextEditorTab tab) {
+		refresh(tab);
+		return name;
+	}
+
+	public synchronized String getLanguage(final TextEditorTab tab) {
+		refresh(tab);
+		return language;
+	}
+
+	public synchronized int getLength(final TextEditorTab tab) {
+		refresh(tab);
+		return content.length();
+	}
+
+	/**
+	 * @return A hash of the script content, computed once per change
+	 */
+	public synchronized String getContentHash(final TextEditorTab tab) {
+		refresh(tab);
+		if (contentHash == null) {
+			contentHash = ScriptContextUtilities.contentHash(content);
+		}
+		return contentHash;
+	}
+
+	/**
+	 * Re-reads the parts of the tab flagged as changed.
+	 *
+	 * @return Whether any part actually changed
+	 */
+	private boolean refresh(final TextEditorTab tab) {
+		final EditorPane editorPane = (EditorPane) tab.getEditorPane();
+		boolean changed = false;
+
+		// Clear each flag before reading so a concurrent change is not lost
+		if (titleChanged) {
+			titleChanged = false;
+			final String title = stripLeadingAsterisks(tab.getTitle());
+			if (!title.equals(name)) {
+				name = title;
+				changed = true;
+			}
+		}
+		if (languageChanged) {
+			languageChanged = false;
+			final ScriptLanguage current = editorPane.getCurrentLanguage();
+			final String newLanguage = current == null ? "" : current.getNames()
+				.get(0);
+			if (!newLanguage.equals(language)) {
+				language = newLanguage;
+				changed = true;
+			}
+		}
+		if (contentChanged) {
+			contentChanged = false;
+			final String text = editorPane.getText();
+			if (!text.equals(content)) {
+				content = text;
+				contentHash = null;
+				changed = true;
+			}
+		}
+		if (selectionChanged) {
+			selectionChanged = false;
+			final int[] lines = getSelectionLineNumbers(editorPane);
+			if (lines[0] != selectionStartLine || lines[1] != selectionEndLine) {
+				selectionStartLine = lines[0];
+				selectionEndLine = lines[1];
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Strips leading asterisks from a script name (asterisks indicate unsaved
+	 * changes).
+	 */
+	private static String stripLeadingAsterisks(final String scriptName) {
+		if (scriptName == null) {
+			return "";
+		}
+		return scriptName.replaceAll("^\\*+", "");
+	}
+
+	/**
+	 * Extracts selection start and end line numbers from an EditorPane.
+	 */
+	private static int[] getSelectionLineNumbers(final EditorPane editorPane) {
+		int selectionStartLine = LineRange.UNSET;
+		int selectionEndLine = LineRange.UNSET;
+
+		try {
+			final int selectionStart = editorPane.getSelectionStart();
+			final int selectionEnd = editorPane.getSelectionEnd();
+
+			if (selectionStart != selectionEnd) {
+				selectionStartLine = editorPane.getLineOfOffset(selectionStart) + 1;
+				selectionEndLine = editorPane.getLineOfOffset(selectionEnd) + 1;
+			}
+		}
+		catch (Exception e) {
+			// If we can't get selection info, just use UNSET
+		}
+
+		return new int[] { selectionStartLine, selectionEndLine };
+	}
+}
@@ -0,0 +1,241 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parser for unified diffs against a script, producing {@link LineDiff.Hunk}s
+ * that can be applied as document edits, and writer of unified diffs between
+ * two versions of a script.
+ * <p>
+ * Parsing is lenient about what models commonly get wrong: file headers are
+ * optional, the line counts in hunk headers are ignored, blank context lines
+ * may lose their leading space, and a hunk whose context is not at the stated
+ * line is matched at the nearest place where it fits. Hunks whose context
+ * and removed lines are not found in the script are rejected.
+ * </p>
+ */
+public final class UnifiedDiff {
+
+	private static final Pattern HUNK_HEADER = Pattern.compile(
+		"^@@ -(\\d+)(?:,\\d+)? \\+\\d+(?:,\\d+)? @@.*");
+
+	private UnifiedDiff() {}
+
+	/**
+	 * @param diff a unified diff with one or more hunks
+	 * @param current the current lines of the script
+	 * @return The hunks, in order and without context lines
+	 * @throws IllegalArgumentException if the diff is malformed or does not
+	 *           apply to {@code current}
+	 */
+	public static List<LineDiff.Hunk> parse(final String diff,
+		final List<String> current)
+	{
+		final List<LineDiff.Hunk> hunks = new ArrayList<>();
+		int oldStart = -1;
+		List<String> oldLines = null;
+		List<String> newLines = null;
+
+		for (final String line : diff.split("\n", -1)) {
+			final Matcher header = HUNK_HEADER.matcher(line);
+			if (header.matches()) {
+				if (oldLines != null) {
+					hunks.add(locate(hunks.size() + 1, oldStart, oldLines, newLines,
+						current));
+				}
+				oldStart = Integer.parseInt(header.group(1));
+				oldLines = new ArrayList<>();
+				newLines = new ArrayList<>();
+				continue;
+			}
+			if (oldLines == null || line.startsWith("\\")) {
+				// File headers before the first hunk; "\ No newline at end of file"
+				continue;
+			}
+			if (line.isEmpty() || line.charAt(0) == ' ') {
+				final String text = line.isEmpty() ? "" : line.substring(1);
+				oldLines.add(text);
+				newLines.add(text);
+			}
+			else if (line.charAt(0) == '-') {
+				oldLines.add(line.substring(1));
+			}
+			else if (line.charAt(0) == '+') {
+				newLines.add(line.substring(1));
+			}
+			else {
+				throw new IllegalArgumentException("Unexpected line in hunk " + (hunks
+					.size() + 1) + ": " + line);
+			}
+		}
+		if (oldLines == null) {
+			throw new IllegalArgumentException(
+				"No hunks found; expected a header like @@ -1,3 +1,4 @@");
+		}
+		// The diff's own final newline leaves an empty context line behind
+		if (diff.endsWith("\n") && !oldLines.isEmpty() && oldLines.get(oldLines
+			.size() - 1).isEmpty() && !newLines.isEmpty() && newLines.get(newLines
+				.size() - 1).isEmpty())
+		{
+			oldLines.remove(oldLines.size() - 1);
+			newLines.remove(newLines.size() - 1);
+		}
+		hunks.add(locate(hunks.size() + 1, oldStart, oldLines, newLines,
+			current));
+
+		for (int i = 1; i < hunks.size(); i++) {
+			if (hunks.get(i).getOldStart() < hunks.get(i - 1).getOldEnd()) {
+				throw new IllegalArgumentException("Hunks " + i + " and " + (i + 1) +
+					" overlap or are out of order");
+			}
+		}
+		return hunks;
+	}
+
+	/**
+	 * @param a the old lines
+	 * @param b the new lines
+	 * @param context the number of unchanged lines shown around each change
+	 * @return A unified diff turning {@code a} into {@code b}, without file
+	 *         headers; empty if they are equal
+	 */
+	public static String format(final List<String> a, final List<String> b,
+		final int context)
+	{
+		final List<LineDiff.Hunk> hunks = LineDiff.diff(a, b);
+		final StringBuilder diff = new StringBuilder();
+		// Lines added minus lines removed by the hunks before the current one
+		int shift = 0;
+		int first = 0;
+		while (first < hunks.size()) {
+			// Group hunks whose context would touch or overlap
+			int last = first;
+			while (last + 1 < hunks.size() && hunks.get(last + 1).getOldStart() -
+				hunks.get(last).getOldEnd() <= 2 * context)
+			{
+				last++;
+			}
+			final int oldStart = Math.max(0, hunks.get(first).getOldStart() -
+				context);
+			final int oldEnd = Math.min(a.size(), hunks.get(last).getOldEnd() +
+				context);
+			final StringBuilder body = new StringBuilder();
+			int newCount = 0;
+			int line = oldStart;
+			for (int i = first; i <= last; i++) {
+				final LineDiff.Hunk hunk = hunks.get(i);
+				for (; line < hunk.getOldStart(); line++, newCount++) {
+					body.append(' ').append(a.get(line)).append('\n');
+				}
+				for (; line < hunk.getOldEnd(); line++) {
+					body.append('-').append(a.get(line)).append('\n');
+				}
+				for (final String added : hunk.getLines()) {
+					body.append('+').append(added).append('\n');
+					newCount++;
+				}
+			}
+			for (; line < oldEnd; line++, newCount++) {
+				body.append(' ').append(a.get(line)).append('\n');
+			}
+			final int newStart = oldStart + shift;
+			diff.append("@@ -").append(range(oldStart, oldEnd - oldStart)).append(
+				" +").append(range(newStart, newCount)).append(" @@\n").append(body);
+
+			for (int i = first; i <= last; i++) {
+				final LineDiff.Hunk hunk = hunks.get(i);
+				shift += hunk.getLines().size() - (hunk.getOldEnd() - hunk
+					.getOldStart());
+			}
+			first = last + 1;
+		}
+		return diff.toString();
+	}
+
+	/**
+	 * @return A hunk header range; an empty range names the line before it
+	 */
+	private static String range(final int start, final int count) {
+		return (count == 0 ? start : start + 1) + "," + count;
+	}
+
+	/**
+	 * Find where a hunk's old lines are in the script and strip its context.
+	 */
+	private static LineDiff.Hunk locate(final int number, final int oldStart,
+		final List<String> oldLines, final List<String> newLines,
+		final List<String> current)
+	{
+		// An empty old side inserts after line oldStart; otherwise it starts there
+		final int expected = oldLines.isEmpty() ? oldStart : oldStart - 1;
+		int position = -1;
+		for (int distance = 0; position < 0 && distance <= current.size(); distance++) {
+			if (matches(current, expected - distance, oldLines)) {
+				position = expected - distance;
+			}
+			else if (matches(current, expected + distance, oldLines)) {
+				position = expected + distance;
+			}
+		}
+		if (position < 0) {
+			throw new IllegalArgumentException("Hunk " + number +
+				" does not match the script near line " + oldStart +
+				"; re-read the lines and try again");
+		}
+
+		int lead = 0;
+		while (lead < oldLines.size() && lead < newLines.size() && oldLines.get(
+			lead).equals(newLines.get(lead)))
+		{
+			lead++;
+		}
+		int trail = 0;
+		while (trail < oldLines.size() - lead && trail < newLines.size() - lead &&
+			oldLines.get(oldLines.size() - 1 - trail).equals(newLines.get(newLines
+				.size() - 1 - trail)))
+		{
+			trail++;
+		}
+		return new LineDiff.Hunk(position + lead, position + oldLines.size() -
+			trail, newLines.subList(lead, newLines.size() - trail));
+	}
+
+	private static boolean matches(final List<String> current, final int start,
+		final List<String> lines)
+	{
+		if (start < 0 || start + lines.size() > current.size()) {
+			return false;
+		}
+		for (int i = 0; i < lines.size(); i++) {
+			if (!current.get(start + i).equals(lines.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -22,13 +22,16 @@
 
 package sc.fiji.llm.tools;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 import org.scijava.plugin.SingletonService;
 
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.agent.tool.ToolSpecification;
 import dev.langchain4j.agent.tool.ToolSpecifications;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.service.tool.BeforeToolExecution;
 import dev.langchain4j.service.tool.ToolErrorContext;
 import dev.langchain4j.service.tool.ToolErrorHandlerResult;
@@ -75,6 +78,12 @@ Remember: Tool methods are ONLY available to you, not to the user.
 	 */
 	List<ToolSpecification> getToolsForContext(String toolContext);
 
+	/**
+	 * Handler for intermediate responses, i.e. model responses containing tool
+	 * execution requests. Marks when each requested tool was queued.
+	 */
+	void processIntermediateResponse(ChatResponse intermediateResponse);
+
 	/**
 	 * Handler for {@link BeforeToolExecution} events
 	 */
@@ -85,6 +94,15 @@ Remember: Tool methods are ONLY available to you, not to the user.
 	 */
 	void processToolExecution(ToolExecution toolExecutionEvent);
 
+	/**
+	 * Stop tracking tool requests that will not complete, e.g. because the turn
+	 * that made them failed or was stopped. Requests that already completed are
+	 * ignored.
+	 *
+	 * @param toolRequests the tool requests made during the turn
+	 */
+	void discardToolRequests(Collection<ToolExecutionRequest> toolRequests);
+
 	/**
 	 * Handler for tool execution errors
 	 */
@@ -23,9 +23,11 @@
 package sc.fiji.llm.tools;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -38,28 +40,45 @@ import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 import org.scijava.service.Service;
 
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.service.tool.BeforeToolExecution;
 import dev.langchain4j.service.tool.ToolErrorContext;
 import dev.langchain4j.service.tool.ToolErrorHandlerResult;
 import dev.langchain4j.service.tool.ToolExecution;
 import dev.langchain4j.service.tool.ToolExecutor;
+import sc.fiji.llm.metrics.ToolMetricsService;
 
 /**
- * Default implementation of AiToolService.
+ * Default implementation of AiToolService. Tool lifecycle events are used to
+ * time each tool execution, which is reported to the
+ * {@link ToolMetricsService}.
  */
 @Plugin(type = Service.class, priority = Priority.LAST)
 public class DefaultAiToolService extends AbstractSingletonService<AiToolPlugin>
 	implements AiToolService
 {
 
+	// Upper bound on tracked in-flight requests, in case of abandoned turns
+	private static final int MAX_PENDING_REQUESTS = 256;
+
 	private Map<String, List<ToolSpecification>> toolsByContext;
 	private Map<ToolSpecification, ToolExecutor> toolsWithExecutors;
 	private Map<String, AiToolPlugin> pluginsByToolName;
 
+	// Timestamps (System.nanoTime) of in-flight tool requests
+	private final Map<ToolExecutionRequest, Long> requestReceivedTimes =
+		pendingMap();
+	private final Map<ToolExecutionRequest, Long> executionStartTimes =
+		pendingMap();
+
 	@Parameter
 	private LogService logService;
 
+	@Parameter
+	private ToolMetricsService toolMetricsService;
+
 	@Override
 	public Class<AiToolPlugin> getPluginType() {
 		return AiToolPlugin.class;
@@ -81,14 +100,53 @@ public class DefaultAiToolService extends AbstractSingletonService<AiToolPlugin>
 		return toolsByContext.get(toolContext);
 	}
 
+	@Override
+	public void processIntermediateResponse(ChatResponse intermediateResponse) {
+		if (intermediateResponse == null || intermediateResponse
+			.aiMessage() == null || !intermediateResponse.aiMessage()
+				.hasToolExecutionRequests())
+		{
+			return;
+		}
+		final long now = System.nanoTime();
+		for (ToolExecutionRequest request : intermediateResponse.aiMessage()
+			.toolExecutionRequests())
+		{
+			requestReceivedTimes.put(request, now);
+		}
+	}
+
 	@Override
 	public void processToolRequest(BeforeToolExecution beforeToolExecutionEvent) {
-		// No-op
+		executionStartTimes.put(beforeToolExecutionEvent.request(), System
+			.nanoTime());
 	}
 
 	@Override
 	public void processToolExecution(ToolExecution toolExecutionEvent) {
-		// No-op
+		final long end = System.nanoTime();
+		final ToolExecutionRequest request = toolExecutionEvent.request();
+		final Long start = executionStartTimes.remove(request);
+		final Long received = requestReceivedTimes.remove(request);
+		if (start == null) {
+			// We never saw this request begin, so can not time it
+			return;
+		}
+		final long queueNanos = received == null ? -1 : start - received;
+		final String arguments = request.arguments();
+		final String result = toolExecutionEvent.result();
+		toolMetricsService.recordExecution(request.name(), queueNanos, end - start,
+			arguments == null ? 0 : arguments.length(), result == null ? 0 : result
+				.length());
+	}
+
+	@Override
+	public void discardToolRequests(
+		Collection<ToolExecutionRequest> toolRequests)
+	{
+		for (ToolExecutionRequest request : toolRequests) {
+			forget(request);
+		}
 	}
 
 	@Override
@@ -109,6 +167,9 @@ public class DefaultAiToolService extends AbstractSingletonService<AiToolPlugin>
 		ToolErrorContext context, ToolErrorType errorType)
 	{
 		final String name = context.toolExecutionRequest().name();
+		// A failed call is counted as an error, not timed as an execution
+		forget(context.toolExecutionRequest());
+		toolMetricsService.recordError(name, errorType);
 		final AiToolPlugin plugin = pluginsByToolName.get(name);
 		if (plugin != null) {
 			ToolErrorHandlerResult result = plugin.handleToolError(error, context, errorType);
@@ -127,6 +188,30 @@ public class DefaultAiToolService extends AbstractSingletonService<AiToolPlugin>
 			"Error with tool: " + name + ".  Please contact the Fiji developers.");
 	}
 
+	private void forget(ToolExecutionRequest request) {
+		requestReceivedTimes.remove(request);
+		executionStartTimes.remove(request);
+	}
+
+	/**
+	 * @return A thread-safe map that drops its oldest entry once it holds more
+	 *         than {@link #MAX_PENDING_REQUESTS}, so requests that never finish
+	 *         can not accumulate
+	 */
+	private static Map<ToolExecutionRequest, Long> pendingMap() {
+		return Collections.synchronizedMap(
+			new LinkedHashMap<ToolExecutionRequest, Long>()
+			{
+
+				@Override
+				protected boolean removeEldestEntry(
+					Map.Entry<ToolExecutionRequest, Long> eldest)
+				{
+					return size() > MAX_PENDING_REQUESTS;
+				}
+			});
+	}
+
 	private synchronized void initMaps() {
 		if (toolsWithExecutors == null || toolsByContext == null) {
 			// Use interim maps to collect tool specifications
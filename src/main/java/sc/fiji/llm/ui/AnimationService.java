@@ -0,0 +1,53 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import net.imagej.ImageJService;
+
+/**
+ * SciJava service that runs UI animations, such as the "Thinking..."
+ * indicator of every open chat window, from a single shared timer. Frames run
+ * on the EDT; the timer only runs while at least one animation is registered,
+ * and is stopped when the context is disposed.
+ * <p>
+ * {@link #add(Runnable)} and {@link #remove(Runnable)} must be called on the
+ * EDT.
+ * </p>
+ */
+public interface AnimationService extends ImageJService {
+
+	/**
+	 * Run the first frame of an animation now, then once per frame until it is
+	 * removed.
+	 *
+	 * @param frame draws the next frame
+	 */
+	void add(Runnable frame);
+
+	/**
+	 * Stop an animation. Does nothing if it is not running.
+	 *
+	 * @param frame the runnable passed to {@link #add(Runnable)}
+	 */
+	void remove(Runnable frame);
+}
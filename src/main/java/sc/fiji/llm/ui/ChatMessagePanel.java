@@ -35,7 +35,6 @@ import java.awt.datatransfer.StringSelection;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.Arrays;
 
 import javax.swing.ImageIcon;
 import javax.swing.JEditorPane;
@@ -48,24 +47,14 @@ import javax.swing.border.AbstractBorder;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.StyledDocument;
+import javax.swing.text.html.HTMLDocument;
 import javax.swing.text.html.HTMLEditorKit;
 import javax.swing.text.html.StyleSheet;
 
-import org.jsoup.Jsoup;
-import org.jsoup.safety.Safelist;
-
-import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
-import com.vladsch.flexmark.ext.emoji.EmojiExtension;
-import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
-import com.vladsch.flexmark.ext.gfm.tasklist.TaskListExtension;
-import com.vladsch.flexmark.ext.tables.TablesExtension;
-import com.vladsch.flexmark.html.HtmlRenderer;
-import com.vladsch.flexmark.parser.Parser;
-import com.vladsch.flexmark.util.data.MutableDataSet;
-
 import net.miginfocom.swing.MigLayout;
 
 /**
@@ -86,23 +75,13 @@ public class ChatMessagePanel extends JPanel {
 	private static final int MIN_AVAILABLE_WIDTH = 200;
 	private static final int DEFAULT_AVAILABLE_WIDTH = 600;
 	private static final int THINKING_STAGES = 4;
+	private static final String STABLE_BLOCKS_ID = "stable";
+	private static final String TAIL_BLOCK_ID = "tail";
 	private final float textFontSize;
 	private JTextPane textPane;
 	private int thinkingStage = -1;
 	private final StringBuilder rawMarkdown;
-
-	// Flexmark parser/renderer configured for common GFM extensions used by LLMs
-	private static final Parser MARKDOWN_PARSER;
-	private static final HtmlRenderer MARKDOWN_RENDERER;
-
-	static {
-		final MutableDataSet options = new MutableDataSet();
-		options.set(Parser.EXTENSIONS, Arrays.asList(EmojiExtension.create(),
-			TablesExtension.create(), StrikethroughExtension.create(),
-			TaskListExtension.create(), AutolinkExtension.create()));
-		MARKDOWN_PARSER = Parser.builder(options).build();
-		MARKDOWN_RENDERER = HtmlRenderer.builder(options).build();
-	}
+	private IncrementalMarkdownRenderer streamingRenderer;
 
 	public enum MessageType {
 			USER, ASSISTANT, SYSTEM, ERROR
@@ -326,7 +305,8 @@ public class ChatMessagePanel extends JPanel {
 		textPane.setContentType("text/html");
 
 		// Convert Markdown => HTML and sanitize from the tracked raw markdown
-		String safeHtml = renderMarkdownToSafeHtml(rawMarkdown.toString());
+		String safeHtml = MarkdownRenderer.renderToSafeHtmlCached(rawMarkdown
+			.toString());
 
 		// align system/error messages to center by wrapping in a div when needed
 		if (type == MessageType.SYSTEM || type == MessageType.ERROR) {
@@ -406,7 +386,7 @@ public class ChatMessagePanel extends JPanel {
 			sb.append(".");
 		}
 		sb.append("*");
-		textPane.setText(renderMarkdownToSafeHtml(sb.toString()));
+		textPane.setText(MarkdownRenderer.renderToSafeHtmlCached(sb.toString()));
 	}
 
 	/**
@@ -432,13 +412,11 @@ public class ChatMessagePanel extends JPanel {
 			}
 
 			// Append incoming streaming tokens to the tracked raw markdown,
-			// then re-render the sanitized HTML and replace the pane contents.
+			// then re-render only the unfinished trailing block.
 			rawMarkdown.append(text);
 
 			try {
-				final String safeHtml = renderMarkdownToSafeHtml(rawMarkdown
-					.toString());
-				textPane.setText(safeHtml);
+				applyStreamingUpdate(text);
 				// Try to move caret to end so view scrolls with content
 				try {
 					textPane.setCaretPosition(textPane.getDocument().getLength());
@@ -458,6 +436,52 @@ public class ChatMessagePanel extends JPanel {
 		}
 	}
 
+	/**
+	 * Update the pane for newly streamed text. Finished blocks are appended to
+	 * the document once; only the trailing block is replaced on each call.
+	 */
+	private void applyStreamingUpdate(final String text)
+		throws BadLocationException, IOException
+	{
+		final IncrementalMarkdownRenderer.Update update;
+		if (streamingRenderer == null) {
+			// Seed with any text this panel was created with
+			streamingRenderer = new IncrementalMarkdownRenderer();
+			update = streamingRenderer.append(rawMarkdown.toString());
+		}
+		else {
+			update = streamingRenderer.append(text);
+		}
+
+		final HTMLDocument doc = (HTMLDocument) textPane.getDocument();
+		final Element stable = doc.getElement(STABLE_BLOCKS_ID);
+		final Element tail = doc.getElement(TAIL_BLOCK_ID);
+		if (tail == null || (stable == null && !update.finishedHtml()
+			.isEmpty()))
+		{
+			// First update, or the thinking indicator replaced the document
+			textPane.setText(streamingHtml(update.tailHtml()));
+			return;
+		}
+		if (!update.finishedHtml().isEmpty()) {
+			doc.insertBeforeEnd(stable, update.finishedHtml());
+		}
+		doc.setInnerHTML(tail, update.tailHtml());
+	}
+
+	private String streamingHtml(final String tailHtml) {
+		final StringBuilder html = new StringBuilder("<html><body>");
+		final String stableHtml = streamingRenderer.stableHtml();
+		// An empty div would render as a blank line, so only add it when needed
+		if (!stableHtml.isEmpty()) {
+			html.append("<div id=\"").append(STABLE_BLOCKS_ID).append("\">")
+				.append(stableHtml).append("</div>");
+		}
+		html.append("<div id=\"").append(TAIL_BLOCK_ID).append("\">").append(
+			tailHtml).append("</div></body></html>");
+		return html.toString();
+	}
+
 	/**
 	 * Gets the raw text content of this message.
 	 *
@@ -467,24 +491,6 @@ public class ChatMessagePanel extends JPanel {
 		return rawMarkdown.toString();
 	}
 
-	/**
-	 * Render markdown to HTML and sanitize the output with jsoup.
-	 */
-	private static String renderMarkdownToSafeHtml(final String markdown) {
-		String md = markdown == null ? "" : markdown;
-		// Guard against code fences that are on line ends instead of their own
-		// lines
-		md = md.replaceAll("([^\n])```", "$1\n```");
-
-		final String html = MARKDOWN_RENDERER.render(MARKDOWN_PARSER.parse(md));
-
-		final Safelist safelist = Safelist.relaxed().addTags("pre", "code")
-			.addAttributes("img", "src", "alt", "width", "height");
-
-		final String clean = Jsoup.clean(html, safelist);
-		return "<html><body>" + clean + "</body></html>";
-	}
-
 	/**
 	 * Custom border for rounded corners on message bubbles.
 	 */
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lifecycle of one chat request, shared between the EDT and the threads
+ * running and streaming the request. The request finishes exactly once: it is
+ * completed, fails, or is cancelled by the user; later attempts to finish it
+ * return false, so callbacks racing with a stop can simply bail out.
+ */
+public class ChatRequestState {
+
+	private final AtomicBoolean started = new AtomicBoolean();
+	private final AtomicReference<Runnable> canceller = new AtomicReference<>();
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+	/**
+	 * Record that the response started arriving.
+	 *
+	 * @return true for the first call only
+	 */
+	public boolean markStarted() {
+		return started.compareAndSet(false, true);
+	}
+
+	/**
+	 * @return Whether the response started arriving
+	 */
+	public boolean isStarted() {
+		return started.get();
+	}
+
+	/**
+	 * Set the action that aborts the work currently done for this request,
+	 * replacing any previous one. If the request was already cancelled, the
+	 * action runs immediately.
+	 *
+	 * @param action aborts the request, e.g. cancels the streaming handle
+	 */
+	public void setCanceller(final Runnable action) {
+		canceller.set(action);
+		if (completion.isCancelled()) {
+			action.run();
+		}
+	}
+
+	/**
+	 * Stop the request, running the current canceller.
+	 *
+	 * @return true if this call stopped the request
+	 */
+	public boolean cancel() {
+		// Unlike cancel(), this reports whether this call finished the future
+		if (!completion.completeExceptionally(new CancellationException())) {
+			return false;
+		}
+		final Runnable action = canceller.get();
+		if (action != null) {
+			action.run();
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if this call finished the request
+	 */
+	public boolean complete() {
+		return completion.complete(null);
+	}
+
+	/**
+	 * @param error the cause of the failure
+	 * @return true if this call finished the request
+	 */
+	public boolean fail(final Throwable error) {
+		return completion.completeExceptionally(error);
+	}
+
+	/**
+	 * @return Whether the request was stopped by the user
+	 */
+	public boolean isCancelled() {
+		return completion.isCancelled();
+	}
+
+	/**
+	 * @return Whether the request finished in any way
+	 */
+	public boolean isDone() {
+		return completion.isDone();
+	}
+
+	/**
+	 * @return A future finishing with the request
+	 */
+	public CompletableFuture<Void> completion() {
+		return completion;
+	}
+}
@@ -40,10 +40,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Future;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
@@ -71,6 +73,8 @@ import org.scijava.thread.ThreadService;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.TextContent;
 import dev.langchain4j.data.message.UserMessage;
@@ -87,11 +91,19 @@ import sc.fiji.llm.chat.ConversationService;
 import sc.fiji.llm.commands.Fiji_Chat;
 import sc.fiji.llm.commands.Manage_Keys;
 import sc.fiji.llm.context.AppContextService;
+import sc.fiji.llm.context.AppContextSupplier;
+import sc.fiji.llm.context.ContextBudget;
 import sc.fiji.llm.context.ContextItem;
 import sc.fiji.llm.context.ContextItemService;
 import sc.fiji.llm.context.ContextItemSupplier;
+import sc.fiji.llm.context.ContextItemUtilities;
+import sc.fiji.llm.metrics.ChatMetricsService;
+import sc.fiji.llm.metrics.TurnRecorder;
+import sc.fiji.llm.provider.CharacterTokenCountEstimator;
 import sc.fiji.llm.provider.LLMProvider;
 import sc.fiji.llm.provider.ProviderService;
+import sc.fiji.llm.script.ScriptContextHistory;
+import sc.fiji.llm.script.ScriptContextItem;
 import sc.fiji.llm.tools.AiToolPlugin;
 import sc.fiji.llm.tools.AiToolService;
 import sc.fiji.llm.tools.ToolContext;
@@ -104,6 +116,14 @@ public class FijiAssistantChat {
 	public static final float CHAT_FONT_SIZE = 16f;
 	private static final int INPUT_PANEL_PADDING = 8;
 	private static final String PLACEHOLDER_TEXT = "Type your message here...";
+	/** Number of saved messages materialized at a time when loading history */
+	private static final int HISTORY_PAGE_SIZE = 30;
+	/** Message attribute holding the context items attached by the user */
+	private static final String USER_CONTEXT_KEY = "context:from_user";
+	/** Tokens of context attached to a message, unless set in the preferences */
+	private static final int DEFAULT_CONTEXT_TOKEN_BUDGET = 4000;
+	private static final CharacterTokenCountEstimator TOKEN_ESTIMATOR =
+		new CharacterTokenCountEstimator();
 
 	private static enum Sender {
 			USER, ASSISTANT, SYSTEM, ERROR
@@ -145,8 +165,19 @@ public class FijiAssistantChat {
 	@Parameter
 	private ConversationService conversationService;
 
+	@Parameter
+	private ChatMetricsService chatMetricsService;
+
+	@Parameter
+	private AnimationService animationService;
+
 	// -- Non-Contextual fields --
 	private FijiAssistant assistant;
+	/** Memory of {@link #assistant}, or null before the first message */
+	private volatile ChatMemory chatMemory;
+	/** Script versions sent in the current conversation */
+	private final ScriptContextHistory scriptContextHistory =
+		new ScriptContextHistory();
 	private final JFrame frame;
 	private final JPanel chatPanel;
 	private final JScrollPane chatScrollPane;
@@ -160,7 +191,8 @@ public class FijiAssistantChat {
 	private JComboBox<String> conversationComboBox;
 	private JButton newConversationButton;
 	private JButton deleteConversationButton;
-	private boolean stopRequested = false;
+	/** The request being answered, or null */
+	private volatile ChatRequestState activeRequest;
 	private boolean isSendMode = true;
 	private ImageIcon sendIcon;
 	private ImageIcon stopIcon;
@@ -169,6 +201,18 @@ public class FijiAssistantChat {
 	private final String modelName;
 	private Conversation currentConversation;
 	private final ChatRequestParameters requestParameters;
+	/** Saved messages of the current conversation, oldest first */
+	private List<Conversation.Message> historyMessages = List.of();
+	/** Number of leading {@link #historyMessages} without a panel yet */
+	private int unloadedHistoryCount;
+	private boolean loadingHistory;
+	/**
+	 * Identifies the current conversation load, or null. A background load stops
+	 * once this no longer refers to its own token.
+	 */
+	private volatile Object conversationLoadToken;
+	/** Whether the assistant for a loaded conversation is still being built */
+	private boolean loadingAssistant;
 
 	public FijiAssistantChat(Context c, final String title, String providerName,
 		String modelName)
@@ -332,6 +376,14 @@ public class FijiAssistantChat {
 		chatScrollPane = new JScrollPane(chatPanel);
 		chatScrollPane.setPreferredSize(new Dimension(600, 400));
 		chatScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+		// Materialize older saved messages when scrolled to the top
+		chatScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+			if (unloadedHistoryCount > 0 && !loadingHistory && e
+				.getValue() == chatScrollPane.getVerticalScrollBar().getMinimum())
+			{
+				SwingUtilities.invokeLater(this::loadEarlierHistory);
+			}
+		});
 
 		// Button bar with context buttons - wrapped in outer panel with space
 		// reserved on right (matching contextTagsPanel structure)
@@ -786,14 +838,23 @@ public class FijiAssistantChat {
 	 */
 	private void sendMessage() {
 		final String userText = inputArea.getText().trim();
-		if (userText.isEmpty()) {
+		if (userText.isEmpty() || loadingAssistant) {
+			// Nothing to send, or the assistant is still being rebuilt
 			return;
 		}
 
 		inputArea.setText(""); // Clear input immediately
 
+		if (currentConversation == null) {
+			// A new conversation starts from a new memory, so scripts are sent in
+			// full again
+			chatMemory = null;
+			scriptContextHistory.clear();
+		}
+
 		StringBuilder displayMessage = new StringBuilder(userText);
-		List<ContextItem> mergedContextItems = mergeContextItems(contextItems);
+		List<ContextItem> mergedContextItems = ContextItemUtilities
+			.mergeContextItems(contextItems);
 		final JsonArray userContextArray = new JsonArray();
 
 		// Add context item notes to the user message
@@ -801,9 +862,16 @@ public class FijiAssistantChat {
 		if (!mergedContextItems.isEmpty()) {
 			displayMessage.append("\n").append("```").append("\n");
 
+			// Scripts seen before are sent as diffs against the remembered version
+			final Set<String> fullScripts = getRememberedScriptHashes(
+				ScriptContextHistory::getFullContentHashes);
+			final Set<String> rememberedScripts = getRememberedScriptHashes(
+				ScriptContextHistory::getContentHashes);
 			for (final ContextItem item : mergedContextItems) {
 				displayMessage.append(item.getLabel()).append("\n");
-				userContextArray.add(item.toJson());
+				userContextArray.add(item instanceof ScriptContextItem script
+					? scriptContextHistory.toJson(script, fullScripts::contains,
+						rememberedScripts::contains) : item.toJson());
 			}
 			displayMessage.append("```");
 		}
@@ -817,22 +885,53 @@ public class FijiAssistantChat {
 
 		// Switch to stop mode
 		setStopMode();
-		final boolean[] aiMessageStarted = {false};
-		final boolean[] cancelConversation = {false};
-		final int updateDelay = 200;
+		final ChatRequestState request = new ChatRequestState();
+		activeRequest = request;
+		final TurnRecorder turnRecorder = chatMetricsService.startTurn(llmProvider
+			.getName(), modelName);
+		// Tools requested during this turn, whose timings must not outlive it
+		final List<ToolExecutionRequest> toolRequests =
+			new CopyOnWriteArrayList<>();
+
+		// Animate the thinking indicator until the first text is shown
+		final Runnable thinking = currentStreamingPanel::updateThinking;
+		animationService.add(thinking);
+
+		// Coalesce streamed tokens into one UI update (and scroll) per frame
+		final StreamingTextBuffer streamBuffer = new StreamingTextBuffer(text -> {
+			animationService.remove(thinking);
+			currentStreamingPanel.appendText(text);
+		}, this::scrollChatToBottom);
+
+		// Clean up the UI and tool timings however the request ends
+		request.completion().whenComplete((result, error) -> {
+			aiToolService.discardToolRequests(toolRequests);
+			SwingUtilities.invokeLater(() -> {
+				animationService.remove(thinking);
+				if (activeRequest == request) {
+					activeRequest = null;
+				}
+				if (request.isCancelled()) {
+					turnRecorder.cancel();
+					streamBuffer.close();
+					if (streamBuffer.getText().isEmpty()) {
+						removeChatBubble(currentStreamingPanel);
+					}
+				}
+			});
+		});
 
 		// Process chat in background thread (LLM calls happen OFF the EDT)
-		Future<?> msgThread = threadService.run(() -> {
+		threadService.run(() -> {
 			// If this is the first message in a new conversation, auto-name it
 			if (currentConversation == null) {
-				createNewConversation(userText, cancelConversation);
+				createNewConversation(userText, request);
 			}
-			if (currentConversation == null) {
+			if (currentConversation == null || request.isCancelled()) {
 				// Message was canceled
 				return;
 			}
 
-			final long[] lastScrollTime = {System.currentTimeMillis()};
 			try {
 				// Build user message with context items as attributes
 				final UserMessage.Builder msgBuilder = UserMessage.builder()
@@ -840,13 +939,38 @@ public class FijiAssistantChat {
 
 				Map<String, Object> attributes = new HashMap<>();
 
+				// Fit the user's context, then the environment, into the budget
+				final List<JsonElement> appSlices = appContextService
+					.getCurrentSlices();
+				final List<ContextBudget.Entry> entries = new ArrayList<>();
+				for (int i = 0; i < mergedContextItems.size(); i++) {
+					final JsonElement json = userContextArray.get(i);
+					entries.add(new ContextBudget.Entry(mergedContextItems.get(i)
+						.getLabel(), json, !ScriptContextHistory.isDiff(json)));
+				}
+				for (final JsonElement slice : appSlices) {
+					entries.add(new ContextBudget.Entry(sliceLabel(slice), slice));
+				}
+				final int budget = prefService.getInt(Fiji_Chat.class,
+					Fiji_Chat.CONTEXT_TOKEN_BUDGET, DEFAULT_CONTEXT_TOKEN_BUDGET);
+				final ContextBudget.Result fitted = new ContextBudget(budget,
+					TOKEN_ESTIMATOR::estimateTokenCountInText).fit(entries);
+				if (fitted.isReduced()) {
+					appendToChat(Sender.SYSTEM, fitted.describe());
+				}
+				final List<JsonElement> fittedJson = fitted.getJson();
+
 				// Attach user context from user
 				if (!mergedContextItems.isEmpty()) {
-					attributes.put("context:from_user", userContextArray);
+					final JsonArray userContext = new JsonArray();
+					fittedJson.subList(0, mergedContextItems.size()).forEach(
+						userContext::add);
+					attributes.put(USER_CONTEXT_KEY, userContext);
 				}
 
 				// Attach environment context
-				JsonElement appContext = appContextService.getCurrentEnvironment();
+				JsonElement appContext = AppContextService.toEnvironment(fittedJson
+					.subList(mergedContextItems.size(), fittedJson.size()));
 				attributes.put("context:from_app", appContext);
 
 				if (!attributes.isEmpty()) {
@@ -864,60 +988,63 @@ public class FijiAssistantChat {
 						.toolSpecifications(aiToolService.getToolsForContext(ToolContext.ANY))
 						.build();
 
+				if (request.isCancelled()) {
+					return;
+				}
+
 				// Send user message to the LLM to initiate chat
 				assistant.chatStreaming(chatRequest)
+					.onIntermediateResponse(response -> {
+						turnRecorder.toolIteration(response);
+						if (response.aiMessage() != null) {
+							toolRequests.addAll(response.aiMessage()
+								.toolExecutionRequests());
+						}
+						aiToolService.processIntermediateResponse(response);
+					})
 					.beforeToolExecution(aiToolService::processToolRequest)
 					.onToolExecuted(aiToolService::processToolExecution)
-					.onPartialThinkingWithContext((thinking, context) -> {
-						if (stopRequested) {
-							stopRequested = false;
-							context.streamingHandle().cancel();
-							removeChatBubble(currentStreamingPanel);
-						}
+					.onPartialThinkingWithContext((partialThinking, context) -> {
+						// Stopping from now on cancels the stream itself
+						request.setCanceller(context.streamingHandle()::cancel);
 					})
 					.onPartialResponseWithContext((partialResponse, context) -> {
-						if (!aiMessageStarted[0]) {
-							aiMessageStarted[0] = true;
+						if (request.markStarted()) {
+							request.setCanceller(context.streamingHandle()::cancel);
 						}
-						if (stopRequested) {
-							stopRequested = false;
-							context.streamingHandle().cancel();
-							if (currentStreamingPanel.getText().isEmpty()) {
-								removeChatBubble(currentStreamingPanel);
-							}
-						} else {
-							SwingUtilities.invokeLater(() -> currentStreamingPanel.appendText(partialResponse.text()));
-							// Scroll to bottom periodically (every 200ms) to avoid excessive updates
-							final long now = System.currentTimeMillis();
-							if (now - lastScrollTime[0] > updateDelay) {
-								lastScrollTime[0] = now;
-								SwingUtilities.invokeLater(() -> {
-									final JScrollBar vertical = chatScrollPane.getVerticalScrollBar();
-									vertical.setValue(vertical.getMaximum());
-								});
-							}
+						if (request.isDone()) {
+							return;
 						}
+						turnRecorder.partialResponse();
+						streamBuffer.append(partialResponse.text());
 					})
 					.onCompleteResponse(response -> {
-						if (!aiMessageStarted[0]) {
-							aiMessageStarted[0] = true;
+						if (!request.complete()) {
+							// Stopped by the user
+							return;
 						}
+						turnRecorder.complete(response);
 						// Save assistant response to conversation
 						if (currentConversation != null) {
 							currentConversation.addMessage(
-									currentStreamingPanel.getText(),
+									streamBuffer.getText(),
 									response.aiMessage()
 							);
 						}
 
-						// Scroll to bottom one final time after streaming completes
+						// Flush the last frame and scroll to bottom after streaming completes
 						SwingUtilities.invokeLater(() -> {
-							final JScrollBar vertical = chatScrollPane.getVerticalScrollBar();
-							vertical.setValue(vertical.getMaximum());
+							streamBuffer.close();
+							scrollChatToBottom();
 							setSendMode();
 						});
 					})
 					.onError(error -> {
+						if (!request.fail(error)) {
+							// Errors caused by stopping are not reported
+							return;
+						}
+						turnRecorder.fail();
 						// Handle errors
 						if (error instanceof RateLimitException) {
 							appendToChat(Sender.SYSTEM, "Rate limit reached. Please wait before retrying, or select a different model.");
@@ -932,12 +1059,25 @@ public class FijiAssistantChat {
 
 						// Re-enable inputs and switch back to send mode
 						SwingUtilities.invokeLater(() -> {
+							streamBuffer.close();
 							setSendMode();
 						});
 					})
 					.start();
+
+				// The message is on its way, so the script versions that survived
+				// the budget intact are what later diffs build on
+				for (int i = 0; i < mergedContextItems.size(); i++) {
+					if (mergedContextItems.get(i) instanceof ScriptContextItem script) {
+						scriptContextHistory.record(script, fittedJson.get(i));
+					}
+				}
 			} catch (Exception e) {
 				// Handle immediate errors (before streaming starts)
+				if (!request.fail(e)) {
+					return;
+				}
+				turnRecorder.fail();
 				final String msg = e.getMessage() != null ? e.getMessage().replaceAll("\n", " ").replaceAll("\s+", " ") : "(no message)";
 				if (msg.length() > 300) {
 					appendToChat(Sender.SYSTEM, "Error: " + msg.substring(0, 300) + "…");
@@ -950,32 +1090,11 @@ public class FijiAssistantChat {
 				});
 			}
 		});
+	}
 
-		// Start an immediate thinking thread.
-		threadService.run(() -> {
-			boolean stopped = false;
-			while (!aiMessageStarted[0]) {
-				if (stopRequested && !stopped) {
-					stopped = true;
-					cancelConversation[0] = true;
-					msgThread.cancel(false);
-					stopRequested = false;
-					SwingUtilities.invokeLater(() -> {
-						aiMessageStarted[0] = true;
-						removeChatBubble(currentStreamingPanel);
-					});
-				} else {
-					SwingUtilities.invokeLater(() -> {
-						currentStreamingPanel.updateThinking();
-					});
-					try {
-						Thread.sleep(updateDelay);
-					} catch (InterruptedException e) {
-						// no-op
-					}
-				}
-			}
-		});
+	private void scrollChatToBottom() {
+		final JScrollBar vertical = chatScrollPane.getVerticalScrollBar();
+		vertical.setValue(vertical.getMaximum());
 	}
 
 	private void removeChatBubble(ChatMessagePanel chatMessagePanel) {
@@ -987,41 +1106,14 @@ public class FijiAssistantChat {
 		});
 	}
 
-	private List<ContextItem> mergeContextItems(List<ContextItem> contextItems) {
-		final List<ContextItem> result = new ArrayList<>();
-		final Map<String, List<ContextItem>> bins = new HashMap<>();
-
-		// Bin items by their merge key
-		for (final ContextItem item : contextItems) {
-			final String mergeKey = item.getMergeKey();
-			if (mergeKey != null) {
-				bins.computeIfAbsent(mergeKey, k -> new ArrayList<>()).add(item);
-			}
-			else {
-				// Items without a merge key are added as-is
-				result.add(item);
-			}
-		}
-
-		// Merge items in each bin and add to result
-		for (final List<ContextItem> bin : bins.values()) {
-			if (bin.size() > 1) {
-				final ContextItem merged = bin.get(0).mergeWith(bin.subList(1, bin
-					.size()));
-				result.add(merged);
-			}
-			else {
-				result.add(bin.get(0));
-			}
-		}
-		return result;
-	}
-
 	/**
 	 * Requests the current generation to stop.
 	 */
 	private void requestStop() {
-		stopRequested = true;
+		final ChatRequestState request = activeRequest;
+		if (request != null) {
+			request.cancel();
+		}
 		setSendMode();
 	}
 
@@ -1329,7 +1421,8 @@ public class FijiAssistantChat {
 		sb.append("\n\n## Context\n");
 		sb.append(
 			"Contextual information (scripts, images, runtime environment information, etc) is attached as JSON in user messages.\n" +
-			"This includes application state, and items focused by the user.\n");
+			"This includes application state, and items focused by the user.\n" +
+			"A script attached again may have a \"content_diff\" instead of \"content\": a unified diff against the earlier version whose \"content_hash\" equals its \"base_content_hash\".\n");
 
 		sb.append("\n\n## Tool Usage\n");
 		sb.append(aiToolService.toolEnvironmentMessage());
@@ -1419,7 +1512,11 @@ public class FijiAssistantChat {
 	}
 
 	/**
-	 * Load a previously saved conversation.
+	 * Load a previously saved conversation. Chat memory and the assistant are
+	 * rebuilt in the background while the most recent messages are shown; the
+	 * HTML of older messages is then rendered newest first so scrolling up
+	 * through the history does not need to render markdown. Selecting another
+	 * conversation cancels a load in progress. Must be called on the EDT.
 	 */
 	private void loadConversation(String conversationName) {
 		Conversation conversation = conversationService.getConversation(
@@ -1431,21 +1528,189 @@ public class FijiAssistantChat {
 		currentConversation = conversation;
 		clearChatPanel();
 
-		// Reload chat memory with conversation messages
-		ChatMemory chatMemory = buildAssistant(conversation.systemMessage());
+		final Object loadToken = new Object();
+		conversationLoadToken = loadToken;
+		loadingAssistant = true;
+		sendStopButton.setEnabled(false);
 
-		for (Conversation.Message msg : conversation.messages()) {
-			chatMemory.add(msg.memory());
-			addMessagePanelToChat(msg
-				.memory() instanceof dev.langchain4j.data.message.UserMessage
-					? ChatMessagePanel.MessageType.USER
-					: ChatMessagePanel.MessageType.ASSISTANT, msg.display());
-		}
+		final List<Conversation.Message> messages = new ArrayList<>(conversation
+			.messages());
+		threadService.run(() -> {
+			// Newest page first, so it can be shown before the assistant is ready
+			int end = messages.size();
+			int start = Math.max(0, end - HISTORY_PAGE_SIZE);
+			if (!prerenderMessages(messages.subList(start, end), loadToken)) {
+				return;
+			}
+			SwingUtilities.invokeLater(() -> {
+				if (conversationLoadToken != loadToken) {
+					return;
+				}
+				// Only create panels for the most recent messages; older ones are
+				// materialized a page at a time as the user scrolls up
+				historyMessages = messages;
+				unloadedHistoryCount = messages.size();
+				loadEarlierHistory();
+
+				// Scroll to bottom, ignoring scroll events from the initial layout
+				loadingHistory = true;
+				SwingUtilities.invokeLater(() -> {
+					scrollChatToBottom();
+					loadingHistory = false;
+				});
+			});
+
+			// Reload chat memory with conversation messages
+			FijiAssistant loadedAssistant = null;
+			ChatMemory loadedMemory = null;
+			try {
+				loadedMemory = createChatMemory(conversation.systemMessage());
+				for (Conversation.Message msg : messages) {
+					loadedMemory.add(msg.memory());
+				}
+				loadedAssistant = createAssistant(loadedMemory);
+			}
+			catch (final Exception e) {
+				if (conversationLoadToken == loadToken) {
+					appendToChat(Sender.ERROR, "Failed to load conversation: " + e
+						.getMessage());
+				}
+			}
+			final FijiAssistant result = loadedAssistant;
+			final ChatMemory resultMemory = loadedMemory;
+			SwingUtilities.invokeLater(() -> {
+				if (conversationLoadToken == loadToken) {
+					if (result != null) {
+						assistant = result;
+						chatMemory = resultMemory;
+						scriptContextHistory.clear();
+					}
+					loadingAssistant = false;
+					sendStopButton.setEnabled(true);
+				}
+			});
+
+			// Fill in the rendered HTML of older messages, newest first
+			while (start > 0) {
+				end = start;
+				start = Math.max(0, end - HISTORY_PAGE_SIZE);
+				if (!prerenderMessages(messages.subList(start, end), loadToken)) {
+					return;
+				}
+			}
+		});
 
 		inputArea.requestFocus();
 	}
 
+	/**
+	 * Render the markdown of saved messages into the shared HTML cache, newest
+	 * first.
+	 *
+	 * @return false if the load identified by the token was cancelled
+	 */
+	private boolean prerenderMessages(final List<Conversation.Message> messages,
+		final Object loadToken)
+	{
+		for (int i = messages.size() - 1; i >= 0; i--) {
+			if (conversationLoadToken != loadToken) {
+				return false;
+			}
+			MarkdownRenderer.renderToSafeHtmlCached(messages.get(i).display());
+		}
+		return conversationLoadToken == loadToken;
+	}
+
+	/**
+	 * Create panels for the next page of saved messages above those already
+	 * shown, keeping the currently visible messages in place. Must be called on
+	 * the EDT.
+	 */
+	private void loadEarlierHistory() {
+		if (unloadedHistoryCount == 0 || loadingHistory) {
+			return;
+		}
+		loadingHistory = true;
+		try {
+			final int end = unloadedHistoryCount;
+			final int start = Math.max(0, end - HISTORY_PAGE_SIZE);
+			final int oldHeight = chatPanel.getHeight();
+
+			// Insert after the glue panel, oldest first
+			int index = 1;
+			for (final Conversation.Message msg : historyMessages.subList(start,
+				end))
+			{
+				final ChatMessagePanel messagePanel = new ChatMessagePanel(msg
+					.memory() instanceof dev.langchain4j.data.message.UserMessage
+						? ChatMessagePanel.MessageType.USER
+						: ChatMessagePanel.MessageType.ASSISTANT, msg.display(),
+					CHAT_FONT_SIZE);
+				chatPanel.add(messagePanel, "growx", index++);
+			}
+			unloadedHistoryCount = start;
+			if (start == 0) {
+				historyMessages = List.of();
+			}
+
+			// Lay out now so the scroll position can be shifted by the added height
+			chatScrollPane.validate();
+			final JScrollBar vertical = chatScrollPane.getVerticalScrollBar();
+			vertical.setValue(vertical.getValue() + chatPanel.getHeight() -
+				oldHeight);
+			chatPanel.repaint();
+		}
+		finally {
+			loadingHistory = false;
+		}
+	}
+
 	private ChatMemory buildAssistant(SystemMessage systemMessage) {
+		final ChatMemory memory = createChatMemory(systemMessage);
+
+		// Recreate the assistant with the chat memory for proper tool tracking
+		assistant = createAssistant(memory);
+		chatMemory = memory;
+		return memory;
+	}
+
+	/**
+	 * @return A label for a slice of application context, for reports
+	 */
+	private static String sliceLabel(final JsonElement slice) {
+		if (slice.isJsonObject() && slice.getAsJsonObject().has(
+			AppContextSupplier.TYPE_KEY))
+		{
+			return slice.getAsJsonObject().get(AppContextSupplier.TYPE_KEY)
+				.getAsString();
+		}
+		return "application context";
+	}
+
+	/**
+	 * @param hashesOf extracts script hashes from the context of one message
+	 * @return The script hashes of all messages that are still in chat memory,
+	 *         which later diffs can refer to
+	 */
+	private Set<String> getRememberedScriptHashes(
+		final Function<JsonArray, Set<String>> hashesOf)
+	{
+		final Set<String> hashes = new HashSet<>();
+		final ChatMemory memory = chatMemory;
+		if (memory == null) {
+			return hashes;
+		}
+		for (final ChatMessage message : memory.messages()) {
+			if (message instanceof UserMessage userMessage && userMessage
+				.attributes().get(USER_CONTEXT_KEY) instanceof JsonArray context)
+			{
+				hashes.addAll(hashesOf.apply(context));
+			}
+		}
+		return hashes;
+	}
+
+	private ChatMemory createChatMemory(SystemMessage systemMessage) {
 		ChatMemory chatMemory = null;
 		try {
 			chatMemory = llmProvider.createTokenChatMemory(modelName);
@@ -1456,13 +1721,14 @@ public class FijiAssistantChat {
 			chatMemory = MessageWindowChatMemory.builder().maxMessages(20).build();
 		}
 		chatMemory.add(systemMessage);
-
-		// Recreate the assistant with the chat memory for proper tool tracking
-		assistant = assistantService.createAssistant(FijiAssistant.class,
-			llmProvider.getName(), modelName, chatMemory, requestParameters);
 		return chatMemory;
 	}
 
+	private FijiAssistant createAssistant(ChatMemory chatMemory) {
+		return assistantService.createAssistant(FijiAssistant.class, llmProvider
+			.getName(), modelName, chatMemory, requestParameters);
+	}
+
 	private FijiAssistant buildTemporaryAssistant() {
 		ChatMemory chatMemory = MessageWindowChatMemory.withMaxMessages(2);
 		chatMemory.add(new SystemMessage(
@@ -1475,6 +1741,15 @@ public class FijiAssistantChat {
 	 * Clear the chat panel (removes all message panels).
 	 */
 	private void clearChatPanel() {
+		// Cancel any conversation load in progress
+		conversationLoadToken = null;
+		if (loadingAssistant) {
+			loadingAssistant = false;
+			sendStopButton.setEnabled(true);
+		}
+		historyMessages = List.of();
+		unloadedHistoryCount = 0;
+
 		// Get the chat panel and remove all message components (keep glue panel)
 		synchronized (chatPanel.getTreeLock()) {
 			java.awt.Component[] components = chatPanel.getComponents();
@@ -1492,7 +1767,7 @@ public class FijiAssistantChat {
 	 * Create a new the conversation based on the user's first message. Sends a
 	 * separate request to the LLM to summarize the message.
 	 */
-	private void createNewConversation(String userMessage, boolean[] cancelConversation) {
+	private void createNewConversation(String userMessage, ChatRequestState request) {
 		SystemMessage systemMessage = new SystemMessage(buildSystemMessage());
 		buildAssistant(systemMessage);
 		String textToTruncate = userMessage;
@@ -1515,7 +1790,7 @@ public class FijiAssistantChat {
 		}
 
 		// Check if the message was interrupted while we were waiting for the LLM.
-		if (cancelConversation[0]) {
+		if (request.isCancelled()) {
 			return;
 		}
 
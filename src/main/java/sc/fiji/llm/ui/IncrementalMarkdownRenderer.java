@@ -0,0 +1,180 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Renders streamed markdown block by block. Text is split into finished
+ * blocks, which are rendered once, and the trailing unfinished block, which is
+ * re-rendered on every {@link #append(String)}. This keeps the cost of each
+ * streamed token proportional to the size of the current block instead of the
+ * whole message.
+ * <p>
+ * A block is considered finished once a blank line outside a code fence is
+ * followed by a complete, unindented line that does not start a list item.
+ * Indented lines and list items are kept with the preceding block so that list
+ * continuations and loose lists render as in a full re-render.
+ * </p>
+ * <p>
+ * Not thread-safe; intended for use on the EDT.
+ * </p>
+ */
+public class IncrementalMarkdownRenderer {
+
+	private static final String FENCE = "```";
+	private static final Pattern LIST_ITEM = Pattern.compile(
+		"^([-+*]|\\d{1,9}[.)])(\\s.*)?$");
+
+	private final Function<String, String> fragmentRenderer;
+
+	/** Rendered HTML of all finished blocks */
+	private final StringBuilder stableHtml = new StringBuilder();
+
+	/** Markdown of the unfinished block(s) */
+	private final StringBuilder pending = new StringBuilder();
+
+	/** Start of the first line in {@link #pending} not yet scanned */
+	private int lineStart;
+
+	/** Whether {@link #lineStart} is inside a fenced code block */
+	private boolean inFence;
+
+	/** Whether a non-blank line was seen since the last committed block */
+	private boolean hasContent;
+
+	/** Whether a blank line followed the last content line */
+	private boolean afterBlank;
+
+	public IncrementalMarkdownRenderer() {
+		this(MarkdownRenderer::renderToSafeFragment);
+	}
+
+	/**
+	 * @param fragmentRenderer converts a markdown block to an HTML fragment
+	 */
+	public IncrementalMarkdownRenderer(
+		final Function<String, String> fragmentRenderer)
+	{
+		this.fragmentRenderer = fragmentRenderer;
+	}
+
+	/**
+	 * Append streamed markdown.
+	 *
+	 * @param markdown the new text
+	 * @return The HTML of any blocks finished by this text, which should be
+	 *         appended to the document, and the re-rendered trailing block
+	 */
+	public Update append(final String markdown) {
+		pending.append(markdown);
+
+		final StringBuilder finished = new StringBuilder();
+		int newline;
+		while ((newline = pending.indexOf("\n", lineStart)) >= 0) {
+			final String line = pending.substring(lineStart, newline);
+			final int nextLineStart = newline + 1;
+
+			if (!inFence && !line.isBlank() && afterBlank && startsBlock(line)) {
+				// The previous block is complete: render it once and drop it
+				final String block = pending.substring(0, lineStart);
+				final String html = fragmentRenderer.apply(block);
+				finished.append(html);
+				stableHtml.append(html);
+				pending.delete(0, lineStart);
+				lineStart = 0;
+				hasContent = false;
+				afterBlank = false;
+				// Re-scan the current line as the start of the next block
+				continue;
+			}
+
+			if (inFence) {
+				inFence = (countFences(line) % 2) == 0;
+			}
+			else if (line.isBlank()) {
+				afterBlank = hasContent;
+			}
+			else {
+				hasContent = true;
+				afterBlank = false;
+				inFence = (countFences(line) % 2) == 1;
+			}
+			lineStart = nextLineStart;
+		}
+
+		return new Update(finished.toString(), fragmentRenderer.apply(pending
+			.toString()));
+	}
+
+	/**
+	 * @return The rendered HTML of all finished blocks so far
+	 */
+	public String stableHtml() {
+		return stableHtml.toString();
+	}
+
+	private static boolean startsBlock(final String line) {
+		return !Character.isWhitespace(line.charAt(0)) && !LIST_ITEM.matcher(line)
+			.matches();
+	}
+
+	private static int countFences(final String line) {
+		int count = 0;
+		int index = line.indexOf(FENCE);
+		while (index >= 0) {
+			count++;
+			index = line.indexOf(FENCE, index + FENCE.length());
+		}
+		return count;
+	}
+
+	/**
+	 * The result of {@link IncrementalMarkdownRenderer#append(String)}.
+	 */
+	public static class Update {
+
+		private final String finishedHtml;
+		private final String tailHtml;
+
+		Update(final String finishedHtml, final String tailHtml) {
+			this.finishedHtml = finishedHtml;
+			this.tailHtml = tailHtml;
+		}
+
+		/**
+		 * @return HTML of blocks finished by the last append; possibly empty
+		 */
+		public String finishedHtml() {
+			return finishedHtml;
+		}
+
+		/**
+		 * @return HTML of the current unfinished block
+		 */
+		public String tailHtml() {
+			return tailHtml;
+		}
+	}
+}
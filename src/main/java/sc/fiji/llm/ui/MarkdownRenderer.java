@@ -0,0 +1,219 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+
+import com.vladsch.flexmark.ast.AutoLink;
+import com.vladsch.flexmark.ast.BlockQuote;
+import com.vladsch.flexmark.ast.BulletList;
+import com.vladsch.flexmark.ast.BulletListItem;
+import com.vladsch.flexmark.ast.Code;
+import com.vladsch.flexmark.ast.Emphasis;
+import com.vladsch.flexmark.ast.FencedCodeBlock;
+import com.vladsch.flexmark.ast.HardLineBreak;
+import com.vladsch.flexmark.ast.Heading;
+import com.vladsch.flexmark.ast.HtmlEntity;
+import com.vladsch.flexmark.ast.Image;
+import com.vladsch.flexmark.ast.IndentedCodeBlock;
+import com.vladsch.flexmark.ast.Link;
+import com.vladsch.flexmark.ast.OrderedList;
+import com.vladsch.flexmark.ast.OrderedListItem;
+import com.vladsch.flexmark.ast.Paragraph;
+import com.vladsch.flexmark.ast.SoftLineBreak;
+import com.vladsch.flexmark.ast.StrongEmphasis;
+import com.vladsch.flexmark.ast.Text;
+import com.vladsch.flexmark.ast.TextBase;
+import com.vladsch.flexmark.ast.ThematicBreak;
+import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
+import com.vladsch.flexmark.ext.emoji.EmojiExtension;
+import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
+import com.vladsch.flexmark.ext.gfm.tasklist.TaskListExtension;
+import com.vladsch.flexmark.ext.tables.TableBlock;
+import com.vladsch.flexmark.ext.tables.TableBody;
+import com.vladsch.flexmark.ext.tables.TableCell;
+import com.vladsch.flexmark.ext.tables.TableHead;
+import com.vladsch.flexmark.ext.tables.TableRow;
+import com.vladsch.flexmark.ext.tables.TableSeparator;
+import com.vladsch.flexmark.ext.tables.TablesExtension;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+
+/**
+ * Converts chat message markdown into sanitized HTML suitable for display in a
+ * Swing text component.
+ * <p>
+ * Most LLM output only uses markdown constructs whose flexmark HTML is already
+ * safe, so documents made only of those nodes (see {@link #SAFE_NODES}) are
+ * rendered straight from the AST. Documents containing anything else, such as
+ * raw HTML, task lists, emoji images or links with other URL schemes, are
+ * cleaned with jsoup using {@link #SAFELIST}.
+ * </p>
+ */
+public final class MarkdownRenderer {
+
+	// Flexmark parser/renderer configured for common GFM extensions used by LLMs
+	private static final Parser MARKDOWN_PARSER;
+	private static final HtmlRenderer MARKDOWN_RENDERER;
+
+	// Rendered complete messages, shared by all chat windows
+	private static final RenderedHtmlCache CACHE = new RenderedHtmlCache();
+
+	// Never modified after initialization, so safe to share between threads
+	private static final Safelist SAFELIST = Safelist.relaxed().addTags("pre",
+		"code").addAttributes("img", "src", "alt", "width", "height");
+
+	private static final String FENCE = "```";
+	private static final Pattern FENCE_AT_LINE_END = Pattern.compile(
+		"([^\n])```");
+
+	/**
+	 * Node types rendered without jsoup. Their HTML contains only tags and
+	 * attributes {@link #SAFELIST} keeps (plus harmless {@code class} and
+	 * {@code align} attributes), with all text escaped by flexmark.
+	 */
+	private static final Set<Class<? extends Node>> SAFE_NODES = Set.of(
+		Document.class, Paragraph.class, Text.class, TextBase.class,
+		SoftLineBreak.class, HardLineBreak.class, Emphasis.class,
+		StrongEmphasis.class, Code.class, FencedCodeBlock.class,
+		IndentedCodeBlock.class, Heading.class, BulletList.class,
+		OrderedList.class, BulletListItem.class, OrderedListItem.class,
+		BlockQuote.class, ThematicBreak.class, HtmlEntity.class, TableBlock.class,
+		TableHead.class, TableBody.class, TableRow.class, TableCell.class,
+		TableSeparator.class);
+
+	/** URL schemes {@link #SAFELIST} keeps on links */
+	private static final Set<String> LINK_SCHEMES = Set.of("http", "https",
+		"ftp", "mailto");
+
+	/** URL schemes {@link #SAFELIST} keeps on images */
+	private static final Set<String> IMAGE_SCHEMES = Set.of("http", "https");
+
+	static {
+		final MutableDataSet options = new MutableDataSet();
+		options.set(Parser.EXTENSIONS, Arrays.asList(EmojiExtension.create(),
+			TablesExtension.create(), StrikethroughExtension.create(),
+			TaskListExtension.create(), AutolinkExtension.create()));
+		MARKDOWN_PARSER = Parser.builder(options).build();
+		MARKDOWN_RENDERER = HtmlRenderer.builder(options).build();
+	}
+
+	private MarkdownRenderer() {}
+
+	/**
+	 * Render markdown to HTML and sanitize the output with jsoup.
+	 *
+	 * @param markdown the markdown source, may be {@code null}
+	 * @return A complete {@code <html>} document
+	 */
+	public static String renderToSafeHtml(final String markdown) {
+		return "<html><body>" + renderToSafeFragment(markdown) + "</body></html>";
+	}
+
+	/**
+	 * Like {@link #renderToSafeHtml(String)}, but returns a cached result when
+	 * the same markdown was rendered before. Use for complete messages; streamed
+	 * partial text rarely repeats and would only evict useful entries.
+	 *
+	 * @param markdown the markdown source, may be {@code null}
+	 * @return A complete {@code <html>} document
+	 */
+	public static String renderToSafeHtmlCached(final String markdown) {
+		return CACHE.get(markdown, MarkdownRenderer::renderToSafeHtml);
+	}
+
+	/**
+	 * @return The cache used by {@link #renderToSafeHtmlCached(String)}
+	 */
+	public static RenderedHtmlCache cache() {
+		return CACHE;
+	}
+
+	/**
+	 * Render markdown to sanitized HTML body content, without the enclosing
+	 * {@code <html>} and {@code <body>} tags.
+	 *
+	 * @param markdown the markdown source, may be {@code null}
+	 * @return The sanitized HTML fragment
+	 */
+	public static String renderToSafeFragment(final String markdown) {
+		String md = markdown == null ? "" : markdown;
+		// Guard against code fences that are on line ends instead of their own
+		// lines
+		if (md.contains(FENCE)) {
+			md = FENCE_AT_LINE_END.matcher(md).replaceAll("$1\n```");
+		}
+
+		final Document document = MARKDOWN_PARSER.parse(md);
+		final String html = MARKDOWN_RENDERER.render(document);
+		return isSafe(document) ? html : Jsoup.clean(html, SAFELIST);
+	}
+
+	/**
+	 * @return true if the rendered HTML of the document needs no cleaning
+	 */
+	static boolean isSafe(final Document document) {
+		for (final Node node : document.getDescendants()) {
+			final Class<? extends Node> type = node.getClass();
+			if (type == Link.class) {
+				if (!hasScheme(((Link) node).getUrl().toString(), LINK_SCHEMES)) {
+					return false;
+				}
+			}
+			else if (type == Image.class) {
+				if (!hasScheme(((Image) node).getUrl().toString(), IMAGE_SCHEMES)) {
+					return false;
+				}
+			}
+			else if (type == AutoLink.class) {
+				// Either <url> or, from the autolink extension, a bare url
+				String url = node.getChars().toString();
+				if (url.startsWith("<") && url.endsWith(">")) {
+					url = url.substring(1, url.length() - 1);
+				}
+				if (!hasScheme(url, LINK_SCHEMES)) {
+					return false;
+				}
+			}
+			else if (!SAFE_NODES.contains(type)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasScheme(final String url, final Set<String> schemes) {
+		final int colon = url.indexOf(':');
+		return colon > 0 && schemes.contains(url.substring(0, colon).trim()
+			.toLowerCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,207 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+/**
+ * Bounded, least-recently-used cache of rendered HTML keyed by a SHA-256 hash
+ * of the markdown source. Thread-safe.
+ * <p>
+ * The cache can be saved to and loaded from a file so rendered messages
+ * survive restarts. Entries from a file with a different
+ * {@link #FORMAT_VERSION} are ignored, so bump it whenever the rendering
+ * pipeline changes its output.
+ * </p>
+ */
+public class RenderedHtmlCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	/**
+	 * Version of the rendered output stored in saved caches. 2: safe documents
+	 * skip jsoup, keeping code block {@code class} and table cell
+	 * {@code align} attributes.
+	 */
+	public static final int FORMAT_VERSION = 2;
+
+	private final int maxEntries;
+	private final Map<String, String> entries;
+
+	public RenderedHtmlCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries maximum number of cached documents
+	 */
+	public RenderedHtmlCache(final int maxEntries) {
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(
+				final Map.Entry<String, String> eldest)
+			{
+				return size() > RenderedHtmlCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Get the HTML for some markdown, rendering and caching it if needed.
+	 *
+	 * @param markdown the markdown source
+	 * @param renderer renders markdown on a cache miss
+	 * @return The cached or newly rendered HTML
+	 */
+	public String get(final String markdown,
+		final Function<String, String> renderer)
+	{
+		final String key = key(markdown);
+		synchronized (entries) {
+			final String html = entries.get(key);
+			if (html != null) {
+				return html;
+			}
+		}
+		// Render outside the lock; a concurrent miss just renders twice
+		final String html = renderer.apply(markdown);
+		synchronized (entries) {
+			entries.put(key, html);
+		}
+		return html;
+	}
+
+	/**
+	 * @return The number of cached documents
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Add the entries saved in a file. Missing or malformed files and files
+	 * from another {@link #FORMAT_VERSION} are ignored.
+	 *
+	 * @param file a file written by {@link #save(File)}
+	 * @throws IOException if the file exists but cannot be read
+	 */
+	public void load(final File file) throws IOException {
+		if (!file.isFile()) {
+			return;
+		}
+		final Map<String, String> saved = new LinkedHashMap<>();
+		try (Reader reader = Files.newBufferedReader(file.toPath(),
+			StandardCharsets.UTF_8))
+		{
+			final JsonObject json = new Gson().fromJson(reader, JsonObject.class);
+			if (json == null || !json.has("entries") || !json.has("version") ||
+				json.get("version").getAsInt() != FORMAT_VERSION)
+			{
+				return;
+			}
+			for (final Map.Entry<String, JsonElement> entry : json.getAsJsonObject(
+				"entries").entrySet())
+			{
+				saved.put(entry.getKey(), entry.getValue().getAsString());
+			}
+		}
+		catch (final JsonParseException | IllegalStateException
+				| UnsupportedOperationException | NumberFormatException e)
+		{
+			// Malformed cache: start over
+			return;
+		}
+		synchronized (entries) {
+			// Saved oldest first, so re-inserting keeps the LRU order
+			for (final Map.Entry<String, String> entry : saved.entrySet()) {
+				entries.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Write all entries to a file, least recently used first.
+	 *
+	 * @param file the destination
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(final File file) throws IOException {
+		final JsonObject saved = new JsonObject();
+		synchronized (entries) {
+			for (final Map.Entry<String, String> entry : entries.entrySet()) {
+				saved.addProperty(entry.getKey(), entry.getValue());
+			}
+		}
+		final JsonObject json = new JsonObject();
+		json.addProperty("version", FORMAT_VERSION);
+		json.add("entries", saved);
+		try (Writer writer = Files.newBufferedWriter(file.toPath(),
+			StandardCharsets.UTF_8))
+		{
+			new Gson().toJson(json, writer);
+		}
+	}
+
+	/**
+	 * @param markdown the markdown source
+	 * @return The cache key for the markdown
+	 */
+	static String key(final String markdown) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest
+				.digest((markdown == null ? "" : markdown).getBytes(
+					StandardCharsets.UTF_8)));
+		}
+		catch (final NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Collects streamed text off the EDT and delivers it to the UI at a fixed
+ * frame rate. Each flush hands all text received since the previous flush to
+ * the sink in a single call, followed by an optional after-flush action such
+ * as scrolling, so the EDT sees at most one event per frame no matter how
+ * fast tokens arrive.
+ * <p>
+ * The first text after an idle period is flushed immediately; text arriving
+ * while a flush is pending is coalesced into the next frame. The frame timer
+ * stops itself once a frame passes with nothing to flush.
+ * </p>
+ */
+public class StreamingTextBuffer {
+
+	/** Default frame interval, in milliseconds (40 Hz) */
+	public static final int DEFAULT_FRAME_MILLIS = 25;
+
+	private final Consumer<String> sink;
+	private final Runnable afterFlush;
+	private final Timer frameTimer;
+	private final AtomicBoolean active = new AtomicBoolean();
+
+	/** Text received but not yet flushed; guarded by itself */
+	private final StringBuilder pending = new StringBuilder();
+
+	/** All text received so far; guarded by {@link #pending} */
+	private final StringBuilder received = new StringBuilder();
+
+	private volatile boolean closed;
+
+	/**
+	 * @param sink receives coalesced text on the EDT
+	 * @param afterFlush run on the EDT after each flush; may be null
+	 */
+	public StreamingTextBuffer(final Consumer<String> sink,
+		final Runnable afterFlush)
+	{
+		this(sink, afterFlush, DEFAULT_FRAME_MILLIS);
+	}
+
+	/**
+	 * @param sink receives coalesced text on the EDT
+	 * @param afterFlush run on the EDT after each flush; may be null
+	 * @param frameMillis minimum interval between flushes
+	 */
+	public StreamingTextBuffer(final Consumer<String> sink,
+		final Runnable afterFlush, final int frameMillis)
+	{
+		this.sink = sink;
+		this.afterFlush = afterFlush;
+		frameTimer = new Timer(frameMillis, e -> onFrame());
+		frameTimer.setCoalesce(true);
+	}
+
+	/**
+	 * Add streamed text. Safe to call from any thread.
+	 *
+	 * @param text the new text
+	 */
+	public void append(final String text) {
+		if (text == null || text.isEmpty() || closed) {
+			return;
+		}
+		synchronized (pending) {
+			pending.append(text);
+			received.append(text);
+		}
+		if (active.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this::startFrames);
+		}
+	}
+
+	/**
+	 * @return All text appended so far, including text not yet flushed
+	 */
+	public String getText() {
+		synchronized (pending) {
+			return received.toString();
+		}
+	}
+
+	/**
+	 * Flush any remaining text and stop the frame timer. Text appended after
+	 * closing is ignored. Must be called on the EDT.
+	 */
+	public void close() {
+		closed = true;
+		frameTimer.stop();
+		flush();
+	}
+
+	private void startFrames() {
+		if (closed) {
+			return;
+		}
+		flush();
+		frameTimer.start();
+	}
+
+	private void onFrame() {
+		if (flush() || closed) {
+			return;
+		}
+		// Nothing arrived during the last frame: go idle until the next append
+		frameTimer.stop();
+		active.set(false);
+		if (hasPending() && active.compareAndSet(false, true)) {
+			// Text arrived while stopping, and its append saw us still active
+			frameTimer.start();
+		}
+	}
+
+	private boolean flush() {
+		final String text;
+		synchronized (pending) {
+			if (pending.length() == 0) {
+				return false;
+			}
+			text = pending.toString();
+			pending.setLength(0);
+		}
+		sink.accept(text);
+		if (afterFlush != null) {
+			afterFlush.run();
+		}
+		return true;
+	}
+
+	private boolean hasPending() {
+		synchronized (pending) {
+			return pending.length() > 0;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Swing implementation of {@link AnimationService}, driven by one Swing
+ * {@link Timer}.
+ */
+@Plugin(type = Service.class)
+public class SwingAnimationService extends AbstractService implements
+	AnimationService
+{
+
+	/** Interval between animation frames, in milliseconds */
+	public static final int FRAME_MILLIS = 200;
+
+	private final Set<Runnable> animations = new LinkedHashSet<>();
+	private final Timer timer = new Timer(FRAME_MILLIS, e -> tick());
+
+	@Override
+	public void initialize() {
+		timer.setCoalesce(true);
+	}
+
+	@Override
+	public void add(final Runnable frame) {
+		if (animations.add(frame)) {
+			frame.run();
+			if (!timer.isRunning()) {
+				timer.start();
+			}
+		}
+	}
+
+	@Override
+	public void remove(final Runnable frame) {
+		if (animations.remove(frame) && animations.isEmpty()) {
+			timer.stop();
+		}
+	}
+
+	@Override
+	public void dispose() {
+		timer.stop();
+		// The animation set is only touched on the EDT
+		if (SwingUtilities.isEventDispatchThread()) {
+			animations.clear();
+		}
+		else {
+			SwingUtilities.invokeLater(animations::clear);
+		}
+	}
+
+	private void tick() {
+		// Copy, since a frame may remove its own animation
+		for (final Runnable frame : new ArrayList<>(animations)) {
+			frame.run();
+		}
+	}
+}
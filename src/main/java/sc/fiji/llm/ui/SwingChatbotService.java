@@ -22,25 +22,86 @@
 
 package sc.fiji.llm.ui;
 
+import java.io.File;
+import java.io.IOException;
+
 import javax.swing.SwingUtilities;
 
+import org.scijava.log.LogService;
+import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 import org.scijava.service.AbstractService;
 import org.scijava.service.Service;
 
+import sc.fiji.llm.chat.ConversationService;
+
 /**
  * Swing implementation of ChatbotService that launches a SimpleChatWindow.
+ * Also persists the rendered message HTML cache next to the saved
+ * conversations, so reopening them after a restart skips markdown rendering.
  */
 @Plugin(type = Service.class)
 public class SwingChatbotService extends AbstractService implements
 	ChatbotService
 {
+
+	private static final String RENDER_CACHE_FILE = "rendered-html.cache";
+
+	@Parameter
+	private ConversationService conversationService;
+
+	@Parameter(required = false)
+	private LogService logService;
+
+	private volatile boolean renderCacheLoaded;
+
+	@Override
+	public void dispose() {
+		if (!renderCacheLoaded) {
+			// Nothing was shown; keep the saved cache as it is
+			return;
+		}
+		try {
+			MarkdownRenderer.cache().save(renderCacheFile());
+		}
+		catch (final IOException e) {
+			if (logService != null) {
+				logService.debug("Could not save rendered HTML cache", e);
+			}
+		}
+	}
+
 	@Override
 	public void launchChat(String title, String providerName, String modelName) {
+		loadRenderCache();
 		SwingUtilities.invokeLater(() -> {
 			FijiAssistantChat chatWindow = new FijiAssistantChat(getContext(), title,
 				providerName, modelName);
 			chatWindow.show();
 		});
 	}
+
+	/**
+	 * Load the saved rendered HTML cache, once. Done on first launch rather
+	 * than at service initialization to keep it off the startup path.
+	 */
+	private synchronized void loadRenderCache() {
+		if (renderCacheLoaded) {
+			return;
+		}
+		renderCacheLoaded = true;
+		try {
+			MarkdownRenderer.cache().load(renderCacheFile());
+		}
+		catch (final IOException e) {
+			if (logService != null) {
+				logService.debug("Could not load rendered HTML cache", e);
+			}
+		}
+	}
+
+	private File renderCacheFile() {
+		return new File(conversationService.getConversationDirectory(),
+			RENDER_CACHE_FILE);
+	}
 }
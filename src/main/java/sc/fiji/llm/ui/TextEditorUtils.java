@@ -28,6 +28,7 @@ import org.scijava.ui.swing.script.TextEditor;
 import org.scijava.ui.swing.script.TextEditorTab;
 
 import sc.fiji.llm.script.ScriptID;
+import sc.fiji.llm.script.ScriptRegistry;
 
 /**
  * Small helper utilities for working with the SciJava TextEditor instances.
@@ -75,51 +76,12 @@ public final class TextEditorUtils {
 			return null;
 		}
 
-		final int editorIndex = getMostRecentVisibleEditorIndex();
-		if (editorIndex == -1) {
-			return null;
-		}
-
 		final TextEditorTab activeTab = textEditor.getTab();
 		if (activeTab == null) {
 			return null;
 		}
 
-		final int tabIndex = getTabIndex(textEditor, activeTab);
-		if (tabIndex == -1) {
-			return null;
-		}
-
-		return new ScriptID(editorIndex, tabIndex);
-	}
-
-	/**
-	 * Find the index of a specific tab within a TextEditor.
-	 *
-	 * @param textEditor the TextEditor to search
-	 * @param targetTab the tab to find
-	 * @return the index of the tab, or -1 if not found
-	 */
-	public static int getTabIndex(final TextEditor textEditor, final TextEditorTab targetTab) {
-		if (textEditor == null || targetTab == null) {
-			return -1;
-		}
-
-		for (int i = 0;; i++) {
-			try {
-				final TextEditorTab currentTab = textEditor.getTab(i);
-				if (currentTab == null) {
-					break;
-				}
-				if (currentTab == targetTab) {
-					return i;
-				}
-			}
-			catch (Exception e) {
-				break;
-			}
-		}
-		return -1;
+		return ScriptRegistry.getId(textEditor, activeTab);
 	}
 
 	/**
@@ -0,0 +1,116 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Unit tests for {@link ContextBudget}.
+ */
+public class ContextBudgetTest {
+
+	/** One token per character keeps the arithmetic visible */
+	private static final ContextBudget BUDGET = new ContextBudget(600,
+		String::length);
+
+	private static JsonObject item(final String type, final String content) {
+		final JsonObject json = new JsonObject();
+		json.addProperty(ContextItem.TYPE_KEY, type);
+		json.addProperty("content", content);
+		return json;
+	}
+
+	private static String lines(final int count) {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			sb.append("print(").append(i).append(");\n");
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void testWithinBudget() {
+		final JsonObject script = item("script", "run(\"Blobs\");");
+		final ContextBudget.Result result = BUDGET.fit(List.of(
+			new ContextBudget.Entry("script", script)));
+		assertFalse(result.isReduced());
+		assertSame(script, result.getJson().get(0));
+	}
+
+	@Test
+	public void testLeastImportantReducedFirst() {
+		// Given: a script and two slices of app context, together over budget
+		final JsonObject script = item("script", lines(30));
+		final JsonObject images = item("image_context", lines(40));
+		final JsonObject macros = item("macro_context", "x");
+
+		// When: they are fit into the budget
+		final ContextBudget.Result result = BUDGET.fit(List.of(
+			new ContextBudget.Entry("script", script), new ContextBudget.Entry(
+				"images", images), new ContextBudget.Entry("macros", macros)));
+
+		// Then: the small last slice is omitted, the large one truncated
+		assertTrue(result.getTokens() <= 600);
+		assertEquals(List.of("images"), result.getTruncated());
+		assertEquals(List.of("macros"), result.getOmitted());
+		assertSame(script, result.getJson().get(0));
+		final JsonObject truncated = result.getJson().get(1).getAsJsonObject();
+		assertTrue(truncated.has(ContextBudget.TRUNCATED_KEY));
+		assertTrue(truncated.get("content").getAsString().startsWith(
+			"print(0);\n"));
+		final JsonElement stub = result.getJson().get(2);
+		assertEquals("macro_context", stub.getAsJsonObject().get(
+			ContextItem.TYPE_KEY).getAsString());
+		assertTrue(stub.getAsJsonObject().has(ContextBudget.OMITTED_KEY));
+
+		// And: the input is not modified
+		assertFalse(images.has(ContextBudget.TRUNCATED_KEY));
+	}
+
+	@Test
+	public void testUntruncatableEntryIsOmitted() {
+		// Given: an entry that must not be cut short, over budget on its own
+		final JsonObject diff = item("script", lines(80));
+
+		// When: it is fit into the budget
+		final ContextBudget.Result result = BUDGET.fit(List.of(
+			new ContextBudget.Entry("diff", diff, false)));
+
+		// Then: it is omitted rather than truncated
+		assertEquals(List.of(), result.getTruncated());
+		assertEquals(List.of("diff"), result.getOmitted());
+		final JsonObject stub = result.getJson().get(0).getAsJsonObject();
+		assertTrue(stub.has(ContextBudget.OMITTED_KEY));
+		assertFalse(stub.has("content"));
+	}
+}
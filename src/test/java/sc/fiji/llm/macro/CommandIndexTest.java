@@ -0,0 +1,100 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CommandIndex}.
+ */
+public class CommandIndexTest {
+
+	private static CommandIndex<String> index(final String... menuPaths) {
+		final CommandIndex<String> index = new CommandIndex<>();
+		for (final String menuPath : menuPaths) {
+			final String name = menuPath.substring(menuPath.lastIndexOf('>') + 1)
+				.trim();
+			index.add(name, name, menuPath);
+		}
+		return index;
+	}
+
+	@Test
+	public void testRanking() {
+		// Given: commands matching "blur" in different ways
+		final CommandIndex<String> index = index(
+			"Process > Filters > Gaussian Blur...", "Process > Filters > Blur",
+			"Process > Filters > Blur 3D...", "Plugins > Blurring > Unsharp Mask...",
+			"Image > Adjust > Threshold...");
+
+		// When: searching
+		final List<String> results = index.search("Blur", 10);
+
+		// Then: exact, then prefix, then contains, then menu path matches
+		assertEquals(List.of("Blur", "Blur 3D...", "Gaussian Blur...",
+			"Unsharp Mask..."), results);
+	}
+
+	@Test
+	public void testWordsAndTypos() {
+		final CommandIndex<String> index = index(
+			"Analyze > Analyze Particles...", "Image > Adjust > Auto Threshold");
+		assertEquals(List.of("Analyze Particles..."), index.search("anal part",
+			10));
+		assertEquals(List.of("Auto Threshold"), index.search("threshld", 10));
+		assertTrue(index.search("xyz", 10).isEmpty());
+	}
+
+	@Test
+	public void testAddRemove() {
+		final CommandIndex<String> index = index("File > Open...",
+			"File > Save As > Tiff...");
+		assertEquals(1, index.search("open", 10).size());
+		index.remove("Open...");
+		assertTrue(index.search("open", 10).isEmpty());
+		assertEquals(1, index.size());
+		assertEquals(1, index.search("tiff", 1).size());
+	}
+
+	@Test
+	public void testMenuPathLookup() {
+		// Given: two commands sharing a menu path
+		final CommandIndex<String> index = new CommandIndex<>();
+		index.add("first", "Blobs", "File > Open Samples > Blobs");
+		index.add("second", "Blobs", "File > Open Samples > Blobs");
+
+		// Then: the first added wins until it is removed
+		assertEquals("first", index.getByMenuPath("File > Open Samples > Blobs"));
+		index.remove("first");
+		assertEquals("second", index.getByMenuPath(
+			"File > Open Samples > Blobs"));
+		index.remove("second");
+		assertNull(index.getByMenuPath("File > Open Samples > Blobs"));
+	}
+}
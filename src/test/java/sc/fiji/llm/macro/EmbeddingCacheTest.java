@@ -0,0 +1,121 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+
+/**
+ * Unit tests for {@link EmbeddingCache}.
+ */
+public class EmbeddingCacheTest {
+
+	/** Embeds a text as its length and vowel count, counting texts embedded */
+	private static class CountingModel implements EmbeddingModel {
+
+		private final List<String> embedded = new ArrayList<>();
+
+		@Override
+		public Response<List<Embedding>> embedAll(
+			final List<TextSegment> segments)
+		{
+			final List<Embedding> embeddings = new ArrayList<>();
+			for (final TextSegment segment : segments) {
+				final String text = segment.text();
+				embedded.add(text);
+				embeddings.add(Embedding.from(new float[] { text.length(), text
+					.replaceAll("[^aeiou]", "").length() }));
+			}
+			return Response.from(embeddings);
+		}
+	}
+
+	@Test
+	public void testEmbedsEachTextOnce() {
+		// Given: a cache that already embedded "blur"
+		final CountingModel model = new CountingModel();
+		final EmbeddingCache cache = new EmbeddingCache("test");
+		cache.embedAll(model, List.of("blur"));
+
+		// When: "blur" is requested again along with a repeated new text
+		final List<float[]> vectors = cache.embedAll(model, List.of("threshold",
+			"blur", "threshold"));
+
+		// Then: only the new text was embedded, and once
+		assertEquals(List.of("blur", "threshold"), model.embedded);
+		assertArrayEquals(new float[] { 9, 2 }, vectors.get(0), 0);
+		assertArrayEquals(new float[] { 4, 1 }, vectors.get(1), 0);
+		assertArrayEquals(vectors.get(0), vectors.get(2), 0);
+	}
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		final File file = File.createTempFile("embeddings", ".cache");
+		file.deleteOnExit();
+
+		// Given: a saved cache
+		final EmbeddingCache saved = new EmbeddingCache("test");
+		saved.embedAll(new CountingModel(), List.of("blur", "threshold"));
+		assertTrue(saved.isModified());
+		saved.save(file);
+		assertFalse(saved.isModified());
+
+		// When: it is loaded for the same model
+		final EmbeddingCache loaded = new EmbeddingCache("test");
+		loaded.load(file);
+		final CountingModel model = new CountingModel();
+		final List<float[]> vectors = loaded.embedAll(model, List.of("blur"));
+
+		// Then: nothing is embedded again
+		assertTrue(model.embedded.isEmpty());
+		assertFalse(loaded.isModified());
+		assertArrayEquals(new float[] { 4, 1 }, vectors.get(0), 0);
+	}
+
+	@Test
+	public void testOtherModelIsIgnored() throws Exception {
+		final File file = File.createTempFile("embeddings", ".cache");
+		file.deleteOnExit();
+		final EmbeddingCache saved = new EmbeddingCache("test");
+		saved.embedAll(new CountingModel(), List.of("blur"));
+		saved.save(file);
+
+		// Vectors from another model are not comparable, so they are dropped
+		final EmbeddingCache other = new EmbeddingCache("other");
+		other.load(file);
+		assertEquals(0, other.size());
+	}
+}
@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link EmbeddingIndex}.
+ */
+public class EmbeddingIndexTest {
+
+	private static final EmbeddingIndex<String> INDEX = new EmbeddingIndex<>(
+		List.of("x", "y", "xy"), List.of(new float[] { 2, 0 }, new float[] { 0,
+			3 }, new float[] { 1, 1 }));
+
+	@Test
+	public void testCosineOrder() {
+		// Given: a query mostly along x, and not scaled to unit length
+		final List<EmbeddingIndex.Match<String>> matches = INDEX.search(
+			new float[] { 4, 1 }, 3, -1);
+
+		// Then: items are ranked by angle, not by length
+		assertEquals(List.of("x", "xy", "y"), matches.stream().map(
+			EmbeddingIndex.Match::item).toList());
+		assertEquals(4 / Math.sqrt(17), matches.get(0).score(), 1e-6);
+	}
+
+	@Test
+	public void testLimitAndMinScore() {
+		assertEquals(1, INDEX.search(new float[] { 1, 1 }, 1, -1).size());
+		assertEquals("xy", INDEX.search(new float[] { 1, 1 }, 1, -1).get(0)
+			.item());
+		// "y" is orthogonal to the query
+		assertEquals(2, INDEX.search(new float[] { 1, 0 }, 3, 0.5).size());
+	}
+
+	@Test
+	public void testNoMatch() {
+		assertTrue(INDEX.search(new float[] { 0, 0 }, 3, -1).isEmpty());
+		assertTrue(INDEX.search(new float[] { 1, 0 }, 0, -1).isEmpty());
+		assertTrue(new EmbeddingIndex<String>(List.of(), List.of()).search(
+			new float[] { 1 }, 3, -1).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongDimensions() {
+		INDEX.search(new float[] { 1, 0, 0 }, 3, -1);
+	}
+}
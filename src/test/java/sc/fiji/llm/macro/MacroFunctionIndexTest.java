@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import sc.fiji.llm.macro.MacroFunctionRegistry.MacroFunction;
+
+/**
+ * Unit tests for {@link MacroFunctionIndex}.
+ */
+public class MacroFunctionIndexTest {
+
+	private static final MacroFunctionIndex INDEX = new MacroFunctionIndex(List
+		.of(new MacroFunction("getPixel(x, y)", "Image",
+			"Returns the value of the pixel at (x, y)."), new MacroFunction(
+				"setAutoThreshold(method)", "Image",
+				"Uses the specified method to set the threshold levels."),
+			new MacroFunction("getHistogram(values, counts, nBins)", "Analysis",
+				"Returns the histogram of the current image or selection."),
+			new MacroFunction("Array.sort(array)", "Array",
+				"Sorts the array, which must contain all numbers or all strings.")));
+
+	@Test
+	public void testTokenize() {
+		assertEquals(List.of("setautothreshold", "set", "auto", "threshold"),
+			MacroFunctionIndex.tokenize("setAutoThreshold"));
+		assertEquals(List.of("array", "sort", "value"), MacroFunctionIndex
+			.tokenize("Array.sort the value"));
+	}
+
+	@Test
+	public void testNameMatchesRankFirst() {
+		// Given: "pixel" in one name and "value" in several descriptions
+		final List<MacroFunctionIndex.Match> matches = INDEX.search("pixel value",
+			10);
+
+		// Then: the function named after the query is ranked first
+		assertEquals("getPixel(x, y)", matches.get(0).function().getName());
+	}
+
+	@Test
+	public void testPrefixAndFuzzyMatches() {
+		// Prefix of "threshold"
+		assertEquals("setAutoThreshold(method)", INDEX.search("thresh", 1).get(0)
+			.function().getName());
+		// One edit away from "histogram"
+		assertEquals("getHistogram(values, counts, nBins)", INDEX.search(
+			"histogrm", 1).get(0).function().getName());
+		// Nothing close
+		assertTrue(INDEX.search("zzzz", 10).isEmpty());
+	}
+
+	@Test
+	public void testSimilarWordForms() {
+		// No keyword, prefix or one-edit match; shares trigrams with "threshold"
+		assertEquals("setAutoThreshold(method)", INDEX.search("thresholding", 1)
+			.get(0).function().getName());
+	}
+
+	@Test
+	public void testFusedScores() {
+		// Given: "histogram" matches one function by keyword and several by
+		// spelling
+		final List<MacroFunctionIndex.Match> matches = INDEX.search("histogram",
+			10);
+
+		// Then: scores combine ranks only, so they share one bounded scale
+		assertEquals("getHistogram(values, counts, nBins)", matches.get(0)
+			.function().getName());
+		assertEquals(2.0 / 61, matches.get(0).score(), 1e-9);
+		for (int i = 1; i < matches.size(); i++) {
+			assertTrue(matches.get(i).score() <= matches.get(i - 1).score());
+			assertTrue(matches.get(i).score() <= 1.0 / 61);
+		}
+	}
+
+	@Test
+	public void testLookups() {
+		assertEquals("getPixel(x, y)", INDEX.getByName("getpixel(x, y)")
+			.getName());
+		assertEquals("getPixel(x, y)", INDEX.getByName("getPixel").getName());
+		assertNull(INDEX.getByName("putPixel"));
+		assertEquals(2, INDEX.getByCategory("image").size());
+		assertEquals(List.of("Analysis", "Array", "Image"), INDEX
+			.getCategories());
+	}
+
+	@Test
+	public void testWithinOneEdit() {
+		assertTrue(MacroFunctionIndex.withinOneEdit("histogrm", "histogram"));
+		assertTrue(MacroFunctionIndex.withinOneEdit("sort", "sorts"));
+		assertTrue(MacroFunctionIndex.withinOneEdit("sort", "sart"));
+		assertFalse(MacroFunctionIndex.withinOneEdit("sort", "tros"));
+		assertFalse(MacroFunctionIndex.withinOneEdit("sort", "sorted"));
+	}
+}
@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+
+import sc.fiji.llm.macro.MacroFunctionRegistry.MacroFunction;
+
+/**
+ * Unit tests for loading the {@link MacroFunctionRegistry} data.
+ */
+public class MacroFunctionRegistryTest {
+
+	@Test
+	public void testParse() throws IOException {
+		// Given: two categories with a comment and blank lines
+		final String text = "# comment\n\n[Math]\nabs(n)\tReturns |n|.\n" +
+			"pow(base, n)\tReturns base^n.\n\n[Constants]\nPI\tReturns pi.\n";
+
+		// When: the text is parsed
+		final List<MacroFunction> functions = MacroFunctionRegistry.parse(
+			new BufferedReader(new StringReader(text)));
+
+		// Then: functions keep their order, category and parameters
+		assertEquals(3, functions.size());
+		assertEquals("pow(base, n)", functions.get(1).getName());
+		assertEquals("Math", functions.get(1).getCategory());
+		assertEquals("Returns base^n.", functions.get(1).getDescription());
+		assertEquals(List.of("base", "n"), functions.get(1).getParameters());
+		assertEquals(List.of(), functions.get(2).getParameters());
+
+		// And: repeated strings are shared
+		assertSame(functions.get(0).getCategory(), functions.get(1)
+			.getCategory());
+		assertSame(functions.get(0).getParameters().get(0), functions.get(1)
+			.getParameters().get(1));
+	}
+
+	@Test(expected = IOException.class)
+	public void testFunctionWithoutCategory() throws IOException {
+		MacroFunctionRegistry.parse(new BufferedReader(new StringReader(
+			"abs(n)\tReturns |n|.\n")));
+	}
+
+	@Test
+	public void testBundledFunctions() {
+		assertTrue(MacroFunctionRegistry.getAllFunctions().size() > 400);
+		assertTrue(MacroFunctionRegistry.getCategories().contains("Math"));
+		assertNotNull(MacroFunctionRegistry.getByName("getPixel"));
+		assertEquals("number", MacroFunctionRegistry.getByName("getPixel")
+			.getReturnType());
+	}
+
+	@Test
+	public void testSearchIsBounded() {
+		// A short query resembles hundreds of functions
+		assertEquals(MacroFunctionRegistry.DEFAULT_SEARCH_LIMIT,
+			MacroFunctionRegistry.search("get").size());
+	}
+}
@@ -0,0 +1,394 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import sc.fiji.llm.macro.MacroFunctionRegistry.MacroFunction;
+
+/**
+ * Drafts a {@value MacroFunctionRegistry#RESOURCE} resource from a saved copy
+ * of {@value #DOCS_URL}. The build does not run it, and no copy of the page is
+ * kept in the repository; to refresh the resource, save the page and run the
+ * {@link #main} method from the test classpath with the page,
+ * {@code src/main/docs/macro/categories.txt} and the output file.
+ * <p>
+ * The page lists functions alphabetically, so their categories come from the
+ * overlay, which lists function identifiers under {@code [Category]} headers.
+ * Functions missing from the overlay are grouped by their prefix, e.g.
+ * {@code Array.}, or under {@value #OTHER}. Return types are inferred from the
+ * descriptions and must be reviewed before the draft replaces the resource.
+ * </p>
+ */
+public class MacroFunctionsGenerator {
+
+	static final String DOCS_URL =
+		"https://imagej.net/ij/developer/macro/functions.html";
+
+	/** Category of functions that are neither in the overlay nor prefixed */
+	static final String OTHER = "Other";
+
+	private static final Pattern ANCHOR = Pattern.compile(
+		"<a\\s+name\\s*=\\s*\"[^\"]*\"[^>]*>", Pattern.CASE_INSENSITIVE);
+	private static final Pattern SIGNATURE_END = Pattern.compile("</b>",
+		Pattern.CASE_INSENSITIVE);
+	private static final Pattern PARAGRAPH = Pattern.compile("<(p|hr|h\\d)\\b",
+		Pattern.CASE_INSENSITIVE);
+	private static final Pattern TAG = Pattern.compile("<[^>]*>");
+	private static final Pattern SIGNATURE = Pattern.compile(
+		"[A-Za-z][\\w.]*(\\(.*\\))?");
+	private static final Pattern STRING_RESULT = Pattern.compile(
+		"\\b(string|substring|title|name|path|directory|parent|text|label|" +
+			"contents|output|item|unit|information|metadata|property|checksum)s?" +
+			"\\b");
+	private static final Pattern AS_TYPE = Pattern.compile(
+		"\\bas an? (string|array|number)\\b");
+	/** A result described without "returns", e.g. "Breaks a string into an array" */
+	private static final Pattern CREATED_TYPE = Pattern.compile(
+		"\\b(into|to|creates|builds|gets) (an? )?([\\w-]+ ){0,2}" +
+			"(string|array|boolean|number)\\b");
+	private static final Pattern YES_NO = Pattern.compile("\\byes/no\\b");
+	private static final Pattern NUMBER_RESULT = Pattern.compile(
+		"\\b(value|number|count|measurement|width|height|size|length|id|index)" +
+			"(e?s)?\\b");
+
+	private MacroFunctionsGenerator() {}
+
+	public static void main(final String... args) throws IOException {
+		if (args.length != 3) {
+			System.err.println("Usage: MacroFunctionsGenerator <functions.html> " +
+				"<categories.txt> <macro-functions.txt>");
+			System.exit(1);
+		}
+		final Path snapshot = Paths.get(args[0]);
+		if (!Files.exists(snapshot)) {
+			throw new IOException("Missing docs snapshot " + snapshot + "; save " +
+				DOCS_URL + " there first");
+		}
+		final List<MacroFunction> docs = parseDocs(Files.readString(snapshot,
+			StandardCharsets.UTF_8));
+
+		final Map<String, String> overlay;
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[1]),
+			StandardCharsets.UTF_8))
+		{
+			overlay = parseOverlay(reader);
+		}
+
+		final List<MacroFunction> functions = categorize(docs, overlay);
+		final Path output = Paths.get(args[2]);
+		try (Writer writer = Files.newBufferedWriter(output,
+			StandardCharsets.UTF_8))
+		{
+			write(functions, writer);
+		}
+		System.out.println("Wrote " + functions.size() + " functions to " +
+			output);
+	}
+
+	/**
+	 * Parse the entries of the macro functions page. Each entry starts with a
+	 * named anchor and a bold signature, followed by its description up to the
+	 * next paragraph.
+	 *
+	 * @param html the page
+	 * @return The functions, without categories, in page order
+	 */
+	static List<MacroFunction> parseDocs(final String html) {
+		final List<Integer> starts = new ArrayList<>();
+		final Matcher anchor = ANCHOR.matcher(html);
+		while (anchor.find()) {
+			starts.add(anchor.end());
+		}
+		starts.add(html.length());
+
+		final List<MacroFunction> functions = new ArrayList<>();
+		final Set<String> seen = new HashSet<>();
+		for (int i = 0; i + 1 < starts.size(); i++) {
+			final String entry = html.substring(starts.get(i), starts.get(i + 1));
+			final Matcher signatureEnd = SIGNATURE_END.matcher(entry);
+			if (!signatureEnd.find()) {
+				continue;
+			}
+			final String name = text(entry.substring(0, signatureEnd.start()));
+			if (name.length() < 2 || !SIGNATURE.matcher(name).matches() || !seen
+				.add(name))
+			{
+				continue;
+			}
+			String body = entry.substring(signatureEnd.end());
+			final Matcher paragraph = PARAGRAPH.matcher(body);
+			if (paragraph.find()) {
+				body = body.substring(0, paragraph.start());
+			}
+			final String description = text(body);
+			if (!description.isEmpty()) {
+				functions.add(new MacroFunction(name, null, description,
+					inferReturnType(name, description)));
+			}
+		}
+		return functions;
+	}
+
+	/**
+	 * @param reader lines {@code [Category]} followed by function identifiers
+	 * @return The category of each identifier, in overlay order
+	 */
+	static Map<String, String> parseOverlay(final BufferedReader reader)
+		throws IOException
+	{
+		final Map<String, String> overlay = new LinkedHashMap<>();
+		String category = null;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			if (line.startsWith("[") && line.endsWith("]")) {
+				category = line.substring(1, line.length() - 1).trim();
+			}
+			else if (category == null) {
+				throw new IOException("Function before first category: " + line);
+			}
+			else {
+				overlay.putIfAbsent(line, category);
+			}
+		}
+		return overlay;
+	}
+
+	/**
+	 * Assign categories and order the functions: overlay categories first, in
+	 * overlay order, then other categories alphabetically. Within a category,
+	 * functions follow the overlay, then the page.
+	 */
+	static List<MacroFunction> categorize(final List<MacroFunction> docs,
+		final Map<String, String> overlay)
+	{
+		final Map<String, Integer> position = new HashMap<>();
+		final Map<String, List<MacroFunction>> listed = new LinkedHashMap<>();
+		for (final Map.Entry<String, String> entry : overlay.entrySet()) {
+			position.put(entry.getKey(), position.size());
+			listed.putIfAbsent(entry.getValue(), new ArrayList<>());
+		}
+		final Map<String, List<MacroFunction>> unlisted = new TreeMap<>();
+
+		for (final MacroFunction function : docs) {
+			final String id = identifier(function.getName());
+			String category = overlay.get(id);
+			if (category == null) {
+				final int dot = id.indexOf('.');
+				category = dot > 0 ? id.substring(0, dot) : OTHER;
+			}
+			(listed.containsKey(category) ? listed : unlisted).computeIfAbsent(
+				category, k -> new ArrayList<>()).add(new MacroFunction(function
+					.getName(), category, function.getDescription(), function
+						.getReturnType()));
+		}
+
+		final List<MacroFunction> functions = new ArrayList<>();
+		final Comparator<MacroFunction> byOverlay = Comparator.comparingInt(
+			f -> position.getOrDefault(identifier(f.getName()), Integer.MAX_VALUE));
+		for (final List<MacroFunction> category : listed.values()) {
+			category.sort(byOverlay);
+			functions.addAll(category);
+		}
+		unlisted.values().forEach(functions::addAll);
+		return functions;
+	}
+
+	/**
+	 * Guess what a function returns from its description. Functions that
+	 * "return" values by assigning to their arguments, e.g.
+	 * {@code getThreshold(lower, upper)}, are {@code void}.
+	 *
+	 * @return {@code void}, {@code boolean}, {@code array}, {@code string} or
+	 *         {@code number}; null if the description is not clear enough. The
+	 *         result is a draft, to be reviewed before it is committed.
+	 */
+	static String inferReturnType(final String name, final String description) {
+		final String lower = description.toLowerCase(Locale.ROOT);
+		final int returns = lower.indexOf("returns ");
+		if (returns < 0) {
+			final Matcher created = CREATED_TYPE.matcher(sentence(lower));
+			if (created.find()) {
+				return created.group(4);
+			}
+			// A dialog answered with Yes or No
+			return YES_NO.matcher(lower).find() ? "boolean" : "void";
+		}
+		final String id = identifier(name);
+		final String method = id.substring(id.lastIndexOf('.') + 1);
+		if (method.equals("is") || method.matches("is[A-Z].*")) {
+			return "boolean";
+		}
+		final String sentence = sentence(lower.substring(returns));
+		final Matcher as = AS_TYPE.matcher(sentence);
+		if (as.find()) {
+			return as.group(1);
+		}
+
+		// What is returned, without its qualification
+		String what = cut(sentence.substring("returns ".length()));
+		if (what.equals("it")) {
+			// e.g. "Converts string to an integer and returns it"
+			final String whole = sentence(lower);
+			return whole.contains("array") ? "array" : whole.matches(
+				".* to an? (number|integer)\\b.*") ? "number" : null;
+		}
+		if (what.matches("(a|the) (copy|version|contents)")) {
+			final int of = sentence.indexOf(" of ");
+			if (of >= 0) {
+				what += " " + cut(sentence.substring(of + " of ".length()));
+			}
+		}
+		final List<String> parameters = new MacroFunction(name, null, description)
+			.getParameters();
+		final boolean getter = method.startsWith("get");
+		if (what.startsWith("two ") || what.startsWith("three ") || getter &&
+			(mentionsAny(what, parameters) || parameters.size() > 1 && what.contains(
+				" and ")))
+		{
+			// Values are assigned to the arguments
+			return "void";
+		}
+		if (what.startsWith("true") || what.contains("true or false")) {
+			return "boolean";
+		}
+		if (what.contains("array") || id.startsWith("Array.") && what.endsWith(
+			"s"))
+		{
+			return "array";
+		}
+		if (what.contains("numeric") || what.contains("integer")) {
+			return "number";
+		}
+		if (STRING_RESULT.matcher(what).find()) {
+			return "string";
+		}
+		if (NUMBER_RESULT.matcher(what).find()) {
+			return "number";
+		}
+		// Getters with several arguments assign to them, e.g. getSelectionBounds
+		return parameters.size() > 1 && getter ? "void" : "number";
+	}
+
+	/** @return The text up to the end of its first sentence */
+	private static String sentence(final String text) {
+		final int end = text.indexOf(". ");
+		final String sentence = end < 0 ? text : text.substring(0, end);
+		return sentence.endsWith(".") ? sentence.substring(0, sentence.length() -
+			1) : sentence;
+	}
+
+	private static boolean mentionsAny(final String text,
+		final List<String> words)
+	{
+		for (final String word : words) {
+			if (Pattern.compile("\\b" + Pattern.quote(word.toLowerCase(
+				Locale.ROOT)) + "\\b").matcher(text).find())
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Cut a returned phrase before its qualification */
+	private static String cut(String what) {
+		for (final String end : new String[] { " of ", " in ", " at ", " that ",
+			" if ", " for ", " from ", " within ", " to ", " containing ",
+			" holding ", " with ", " as " })
+		{
+			final int index = what.indexOf(end);
+			if (index >= 0) {
+				what = what.substring(0, index);
+			}
+		}
+		return what;
+	}
+
+	/**
+	 * Write functions in the {@value MacroFunctionRegistry#RESOURCE} format.
+	 *
+	 * @param functions the functions, grouped by category
+	 */
+	static void write(final List<MacroFunction> functions, final Writer writer)
+		throws IOException
+	{
+		writer.write("# ImageJ macro built-in functions, from\n");
+		writer.write("# " + DOCS_URL + "\n");
+		writer.write("# Drafted by MacroFunctionsGenerator: review the return " +
+			"types, then remove this line.\n");
+		writer.write("#\n");
+		writer.write("# A line \"[Category]\" starts a category. Every other " +
+			"non-comment line is a\n");
+		writer.write("# function: its name (with parameter list), its return " +
+			"type as inferred from\n");
+		writer.write("# the description (empty if unclear) and its description, " +
+			"separated by tabs.\n");
+		writer.write("# Blank lines and lines starting with # are ignored.\n");
+		String category = null;
+		for (final MacroFunction function : functions) {
+			if (!function.getCategory().equals(category)) {
+				category = function.getCategory();
+				writer.write("\n[" + category + "]\n");
+			}
+			final String returnType = function.getReturnType();
+			writer.write(function.getName() + "\t" + (returnType == null ? ""
+				: returnType) + "\t" + function.getDescription() + "\n");
+		}
+	}
+
+	/** Strip tags and entities and collapse whitespace */
+	private static String text(final String html) {
+		return TAG.matcher(html).replaceAll(" ").replace("&nbsp;", " ").replace(
+			"&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace(
+				"&#39;", "'").replace("&amp;", "&").replaceAll("\\s+", " ").trim()
+			.replaceAll(" ([,.;:)])", "$1").replace("( ", "(");
+	}
+
+	private static String identifier(final String name) {
+		final int paren = name.indexOf('(');
+		return (paren < 0 ? name : name.substring(0, paren)).trim();
+	}
+}
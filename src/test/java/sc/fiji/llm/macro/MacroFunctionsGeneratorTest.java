@@ -0,0 +1,134 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import sc.fiji.llm.macro.MacroFunctionRegistry.MacroFunction;
+
+/**
+ * Unit tests for {@link MacroFunctionsGenerator}.
+ */
+public class MacroFunctionsGeneratorTest {
+
+	private static final String PAGE = "<h2><a name=\"A\"></a>A</h2>\n" +
+		"<a name=\"abs\"></a><b>abs(n)</b><br>\nReturns the absolute value of " +
+		"<i>n</i>.\n<p>\n" +
+		"<b><a name=\"Array.trim\"></a>Array.trim(array, n)</b><br>\n" +
+		"Returns an array that contains the first <i>n</i> elements of " +
+		"<i>array</i>.\n<p>\nSee also: Array.slice\n" +
+		"<a name=\"getThreshold\"></a><b>getThreshold(lower, upper)</b><br>\n" +
+		"Returns the lower and upper threshold levels &amp; more.\n<p>\n" +
+		"<a name=\"beep\"></a><b>beep()</b><br>\nEmits an audible beep.\n";
+
+	@Test
+	public void testParseDocs() {
+		final List<MacroFunction> functions = MacroFunctionsGenerator.parseDocs(
+			PAGE);
+
+		// The letter heading is skipped; text after the first paragraph is not
+		assertEquals(4, functions.size());
+		assertEquals("abs(n)", functions.get(0).getName());
+		assertEquals("Returns the absolute value of n.", functions.get(0)
+			.getDescription());
+		assertEquals("Array.trim(array, n)", functions.get(1).getName());
+		assertEquals("Returns an array that contains the first n elements of " +
+			"array.", functions.get(1).getDescription());
+		assertEquals("Returns the lower and upper threshold levels & more.",
+			functions.get(2).getDescription());
+		assertEquals(List.of("number", "array", "void", "void"), functions
+			.stream().map(MacroFunction::getReturnType).toList());
+	}
+
+	@Test
+	public void testInferReturnType() {
+		assertEquals("boolean", MacroFunctionsGenerator.inferReturnType(
+			"File.exists(path)", "Returns true if the specified file exists."));
+		assertEquals("string", MacroFunctionsGenerator.inferReturnType(
+			"getTitle()", "Returns the title of the current image."));
+		assertEquals("string", MacroFunctionsGenerator.inferReturnType(
+			"Color.foreground()", "Returns the foreground color as a string."));
+		assertEquals("number", MacroFunctionsGenerator.inferReturnType(
+			"parseInt(string)", "Converts string to an integer and returns it."));
+		assertEquals("array", MacroFunctionsGenerator.inferReturnType(
+			"Array.copy(array)", "Returns a copy of array."));
+		// Values assigned to the arguments
+		assertEquals("void", MacroFunctionsGenerator.inferReturnType(
+			"getStatistics(area, mean, min, max)",
+			"Returns the area, average pixel value, minimum and maximum."));
+		assertEquals("void", MacroFunctionsGenerator.inferReturnType(
+			"getHistogram(values, counts, nBins)",
+			"Returns the histogram of the current image."));
+		// Results described without "returns"
+		assertEquals("array", MacroFunctionsGenerator.inferReturnType(
+			"split(string, delimiters)",
+			"Breaks a string into an array of substrings."));
+		assertEquals("string", MacroFunctionsGenerator.inferReturnType(
+			"String.join(array)",
+			"Creates a comma-delimited string from the elements of 'array'."));
+		assertEquals("boolean", MacroFunctionsGenerator.inferReturnType(
+			"getBoolean(message)",
+			"Displays a dialog box with Yes/No/Cancel buttons."));
+		assertEquals("void", MacroFunctionsGenerator.inferReturnType(
+			"Array.sort(array)", "Sorts array, which must contain all numbers."));
+		// Unclear
+		assertNull(MacroFunctionsGenerator.inferReturnType("eval(code)",
+			"Evaluates code and returns it."));
+	}
+
+	@Test
+	public void testCategorizeAndWrite() throws IOException {
+		// Given: an overlay that lists some of the functions
+		final Map<String, String> overlay = MacroFunctionsGenerator.parseOverlay(
+			new BufferedReader(new StringReader(
+				"# comment\n[Math]\nabs\n\n[Threshold]\ngetThreshold\n")));
+		final List<MacroFunction> functions = MacroFunctionsGenerator.categorize(
+			MacroFunctionsGenerator.parseDocs(PAGE), overlay);
+
+		// Then: listed functions keep their categories, others are grouped by
+		// prefix or as other, after the listed ones
+		assertEquals(List.of("Math", "Threshold", "Array",
+			MacroFunctionsGenerator.OTHER), functions.stream().map(
+				MacroFunction::getCategory).toList());
+
+		// And: the written resource reads back with its return types
+		final StringWriter writer = new StringWriter();
+		MacroFunctionsGenerator.write(functions, writer);
+		final List<MacroFunction> parsed = MacroFunctionRegistry.parse(
+			new BufferedReader(new StringReader(writer.toString())));
+		assertEquals(4, parsed.size());
+		assertEquals("Threshold", parsed.get(1).getCategory());
+		assertEquals("void", parsed.get(1).getReturnType());
+		assertEquals("array", parsed.get(2).getReturnType());
+	}
+}
@@ -0,0 +1,75 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.macro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TrigramIndex}.
+ */
+public class TrigramIndexTest {
+
+	private static final TrigramIndex<String[]> INDEX = new TrigramIndex<>(
+		List.of(new String[] { "Gaussian Blur...", "Smooths the image by blurring" },
+			new String[] { "Analyze Particles...", "Counts and measures objects" },
+			new String[] { "getHistogram", "Returns the histogram of the image" },
+			new String[] { "Array.sort", "Sorts the array" }), e -> e[0],
+		e -> e[1]);
+
+	private static String first(final String query) {
+		return INDEX.search(query, 1).get(0).item()[0];
+	}
+
+	@Test
+	public void testRelatedWordForms() {
+		// "blurred" and "counting" share trigrams with "blurring" and "counts"
+		assertEquals("Gaussian Blur...", first("make it blurred"));
+		assertEquals("Analyze Particles...", first("counting objects"));
+		assertEquals("getHistogram", first("histogrm"));
+	}
+
+	@Test
+	public void testLimitAndOrder() {
+		final List<TrigramIndex.Match<String[]>> matches = INDEX.search(
+			"image histogram", 10);
+		assertEquals("getHistogram", matches.get(0).item()[0]);
+		for (int i = 1; i < matches.size(); i++) {
+			assertTrue(matches.get(i - 1).score() >= matches.get(i).score());
+		}
+		assertEquals(1, INDEX.search("image histogram", 1).size());
+	}
+
+	@Test
+	public void testNoMatch() {
+		assertTrue(INDEX.search("zzzz qqqq", 5).isEmpty());
+		assertTrue(INDEX.search("", 5).isEmpty());
+		assertTrue(new TrigramIndex<String>(List.of(), Function.identity(),
+			Function.identity()).search("blur", 5).isEmpty());
+	}
+}
@@ -0,0 +1,91 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RollingPercentiles} and
+ * {@link DefaultChatMetricsService}.
+ */
+public class ChatMetricsTest {
+
+	@Test
+	public void testRollingWindowDropsOldSamples() {
+		// Given: a window of 3 that has seen 5 samples
+		final RollingPercentiles window = new RollingPercentiles(3);
+		for (int i = 1; i <= 5; i++) {
+			window.add(i);
+		}
+
+		// Then: only the 3 most recent samples count
+		assertEquals(3, window.size());
+		assertEquals(4.0, window.mean(), 1e-9);
+		assertEquals(3.0, window.percentile(0), 0);
+		assertEquals(4.0, window.percentile(50), 0);
+		assertEquals(5.0, window.percentile(100), 0);
+	}
+
+	@Test
+	public void testStatsPerProviderAndModel() {
+		// Given: turns recorded for two models of the same provider
+		final DefaultChatMetricsService service = new DefaultChatMetricsService();
+		service.record(turn("OpenAI", "a", TurnMetrics.Outcome.COMPLETED, 100, 2));
+		service.record(turn("OpenAI", "a", TurnMetrics.Outcome.COMPLETED, 300, 0));
+		service.record(turn("OpenAI", "a", TurnMetrics.Outcome.FAILED, 5000, 0));
+		service.record(turn("OpenAI", "b", TurnMetrics.Outcome.CANCELLED, 50, 0));
+
+		// When: we take snapshots
+		final ChatModelStats a = service.getStats("OpenAI", "a");
+		final List<ChatModelStats> all = service.getAllStats();
+
+		// Then: each model is tracked separately
+		assertEquals(2, all.size());
+		assertEquals(3, a.turns());
+		assertEquals(1, a.failures());
+		assertEquals(1, service.getStats("OpenAI", "b").cancellations());
+
+		// And: failed turns do not skew the latency percentiles
+		assertEquals(300.0, a.p95TotalMillis(), 0);
+		assertEquals(1.0, a.meanToolIterations(), 1e-9);
+		assertEquals(2, a.maxToolIterations());
+
+		// And: token usage is summed over all turns
+		assertEquals(30, a.inputTokens());
+		assertEquals(4, service.getRecentTurns().size());
+		assertNull(service.getStats("Ollama", "a"));
+	}
+
+	private static TurnMetrics turn(final String provider, final String model,
+		final TurnMetrics.Outcome outcome, final double totalMillis,
+		final int toolIterations)
+	{
+		return new TurnMetrics(0, provider, model, outcome, totalMillis / 2,
+			totalMillis, 20, toolIterations, 10, 10, 20, 30);
+	}
+}
@@ -0,0 +1,100 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import sc.fiji.llm.tools.ToolErrorType;
+
+/**
+ * Unit tests for {@link LatencyHistogram} and {@link DefaultToolMetricsService}.
+ */
+public class ToolMetricsTest {
+
+	@Test
+	public void testHistogramPercentiles() {
+		// Given: 99 fast samples and one slow one
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		histogram.record(TimeUnit.SECONDS.toNanos(1));
+
+		// Then: the median stays within the 2x bucket error of 1ms
+		assertEquals(100, histogram.count());
+		assertTrue(histogram.percentileMillis(50) >= 1);
+		assertTrue(histogram.percentileMillis(50) <= 2.1);
+
+		// And: the maximum is reported exactly
+		assertEquals(1000.0, histogram.percentileMillis(100), 1e-6);
+		assertEquals(1000.0, LatencyHistogram.toMillis(histogram.maxNanos()),
+			1e-6);
+	}
+
+	@Test
+	public void testEmptyHistogram() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0.0, histogram.percentileMillis(95), 0);
+		assertEquals(0.0, histogram.meanMillis(), 0);
+	}
+
+	@Test
+	public void testToolStatsAggregation() {
+		// Given: a metrics service with two tools recorded
+		final DefaultToolMetricsService service = new DefaultToolMetricsService();
+		service.recordExecution("fast", -1, TimeUnit.MILLISECONDS.toNanos(1), 10,
+			100);
+		service.recordExecution("slow", TimeUnit.MILLISECONDS.toNanos(5),
+			TimeUnit.MILLISECONDS.toNanos(500), 30, 5);
+		service.recordExecution("slow", TimeUnit.MILLISECONDS.toNanos(5),
+			TimeUnit.MILLISECONDS.toNanos(500), 10, 15);
+		service.recordError("slow", ToolErrorType.ARGUMENT);
+
+		// When: we take a snapshot
+		final List<ToolStats> stats = service.getAllStats();
+
+		// Then: the tool with the highest total latency comes first
+		assertEquals(2, stats.size());
+		assertEquals("slow", stats.get(0).toolName());
+
+		final ToolStats slow = service.getStats("slow");
+		assertEquals(2, slow.calls());
+		assertEquals(20.0, slow.meanArgumentChars(), 1e-6);
+		assertEquals(30, slow.maxArgumentChars());
+		assertEquals(10.0, slow.meanResultChars(), 1e-6);
+		assertEquals(1, slow.errors(ToolErrorType.ARGUMENT));
+		assertEquals(0, slow.errors(ToolErrorType.EXECUTION));
+		assertEquals(0.5, slow.errorRate(ToolErrorType.ARGUMENT), 1e-6);
+
+		// And: unknown queue times are not recorded
+		assertEquals(0.0, service.getStats("fast").meanQueueMillis(), 0);
+		assertNull(service.getStats("missing"));
+	}
+}
@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * Unit tests for {@link TurnRecorder}.
+ */
+public class TurnRecorderTest {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final List<TurnMetrics> recorded = new ArrayList<>();
+	private final TurnRecorder recorder = new TurnRecorder("OpenAI", "a",
+		recorded::add, nanos::get);
+
+	private void at(final long millis) {
+		nanos.set(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	private static ChatResponse response(final int outputTokens) {
+		return ChatResponse.builder().aiMessage(AiMessage.from("x")).tokenUsage(
+			new TokenUsage(100, outputTokens)).build();
+	}
+
+	@Test
+	public void testThroughputExcludesToolExecution() {
+		// Given: a call that streams 10 tokens in 100 ms, then requests a tool
+		at(100);
+		recorder.partialResponse();
+		at(200);
+		recorder.toolIteration(response(10));
+
+		// And: a call that only requests a tool, after a slow tool execution
+		at(5000);
+		recorder.toolIteration(response(15));
+
+		// When: the final call streams 30 tokens in 200 ms
+		at(5500);
+		recorder.partialResponse();
+		at(5700);
+		recorder.complete(response(30));
+
+		// Then: throughput covers only the time the calls spent streaming
+		final TurnMetrics turn = recorded.get(0);
+		assertEquals(40 / 0.3, turn.tokensPerSecond(), 1e-6);
+		assertEquals(100.0, turn.timeToFirstTokenMillis(), 1e-6);
+		assertEquals(5700.0, turn.totalMillis(), 1e-6);
+		assertEquals(2, turn.toolIterations());
+	}
+
+	@Test
+	public void testNoThroughputWithoutStreamedTokens() {
+		// Given: a turn whose only call streamed nothing
+		at(300);
+
+		// When: it completes
+		recorder.complete(response(30));
+
+		// Then: throughput is unknown
+		assertEquals(-1.0, recorded.get(0).tokensPerSecond(), 0);
+	}
+}
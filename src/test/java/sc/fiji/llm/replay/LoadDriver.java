@@ -0,0 +1,332 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.scijava.Context;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import sc.fiji.llm.assistant.AssistantService;
+import sc.fiji.llm.assistant.FijiAssistant;
+import sc.fiji.llm.chat.Conversation;
+import sc.fiji.llm.chat.ConversationService;
+import sc.fiji.llm.metrics.ChatMetricsService;
+import sc.fiji.llm.metrics.ChatModelStats;
+import sc.fiji.llm.metrics.ToolMetricsService;
+import sc.fiji.llm.metrics.ToolStats;
+import sc.fiji.llm.metrics.TurnRecorder;
+import sc.fiji.llm.provider.ProviderService;
+import sc.fiji.llm.tools.AiToolService;
+import sc.fiji.llm.tools.ToolContext;
+
+/**
+ * Headless load test pushing concurrent conversations through the
+ * {@link AssistantService}, {@link AiToolService} and
+ * {@link ConversationService} against the offline {@link ReplayProvider}, then
+ * printing throughput and latency as JSON. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=sc.fiji.llm.replay.LoadDriver \
+ *   -Dexec.args="--conversations 16 --turns 10 --token-ms 5"
+ * </pre>
+ * <p>
+ * Options: {@code --conversations N}, {@code --turns N},
+ * {@code --script FILE} (replay JSON or a {@code doc/chats} export),
+ * {@code --first-token-ms N}, {@code --token-ms N}, {@code --jitter-ms N},
+ * {@code --seed N}, {@code --timeout-s N} (per turn) and {@code --export FILE}
+ * (per-turn metrics as CSV or JSON Lines).
+ * </p>
+ */
+public class LoadDriver {
+
+	private static final String DEFAULT_SCRIPT = "/replay/macro-session.json";
+
+	private final Context context;
+
+	public LoadDriver(Context context) {
+		this.context = context;
+	}
+
+	public static void main(String... args) throws Exception {
+		int conversations = 8;
+		int turns = 6;
+		String scriptPath = null;
+		long firstTokenMillis = 200;
+		long tokenMillis = 10;
+		long jitterMillis = 5;
+		long seed = 42;
+		long timeoutSeconds = 60;
+		String export = null;
+
+		for (int i = 0; i < args.length; i++) {
+			String value = i + 1 < args.length ? args[i + 1] : null;
+			switch (args[i]) {
+				case "--conversations":
+					conversations = Integer.parseInt(value);
+					break;
+				case "--turns":
+					turns = Integer.parseInt(value);
+					break;
+				case "--script":
+					scriptPath = value;
+					break;
+				case "--first-token-ms":
+					firstTokenMillis = Long.parseLong(value);
+					break;
+				case "--token-ms":
+					tokenMillis = Long.parseLong(value);
+					break;
+				case "--jitter-ms":
+					jitterMillis = Long.parseLong(value);
+					break;
+				case "--seed":
+					seed = Long.parseLong(value);
+					break;
+				case "--timeout-s":
+					timeoutSeconds = Long.parseLong(value);
+					break;
+				case "--export":
+					export = value;
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+			i++;
+		}
+
+		ReplayScript script = scriptPath == null ? defaultScript() : ReplayScript
+			.fromFile(Paths.get(scriptPath));
+		ReplaySettings settings = new ReplaySettings(Duration.ofMillis(
+			firstTokenMillis), Duration.ofMillis(tokenMillis), Duration.ofMillis(
+				jitterMillis), seed);
+
+		Context context = new Context();
+		try {
+			LoadDriver driver = new LoadDriver(context);
+			JsonObject report = driver.run(script, settings, conversations, turns,
+				Duration.ofSeconds(timeoutSeconds));
+			if (export != null) {
+				context.getService(ChatMetricsService.class).exportTurns(new File(
+					export));
+			}
+			System.out.println(new GsonBuilder().setPrettyPrinting().create().toJson(
+				report));
+		}
+		finally {
+			context.dispose();
+		}
+	}
+
+	/**
+	 * Run the given number of concurrent conversations to completion.
+	 *
+	 * @return A JSON report of throughput, per-turn latency and tool metrics
+	 */
+	public JsonObject run(ReplayScript script, ReplaySettings settings,
+		int conversationCount, int turnsPerConversation, Duration turnTimeout)
+		throws InterruptedException
+	{
+		if (script.getTurns().isEmpty()) {
+			throw new IllegalArgumentException("Replay script has no turns");
+		}
+
+		ProviderService providerService = context.getService(
+			ProviderService.class);
+		AssistantService assistantService = context.getService(
+			AssistantService.class);
+		ConversationService conversationService = context.getService(
+			ConversationService.class);
+		ChatMetricsService chatMetricsService = context.getService(
+			ChatMetricsService.class);
+		ToolMetricsService toolMetricsService = context.getService(
+			ToolMetricsService.class);
+
+		ReplayProvider provider = (ReplayProvider) providerService.getProvider(
+			ReplayProvider.NAME);
+		provider.configure(script, settings);
+		chatMetricsService.reset();
+		toolMetricsService.reset();
+
+		// ConversationService is not thread-safe, so register up front
+		SystemMessage systemMessage = SystemMessage.from(
+			"You are a helpful assistant for Fiji.");
+		List<Conversation> conversations = new ArrayList<>();
+		for (int i = 0; i < conversationCount; i++) {
+			conversations.add(conversationService.createConversation("replay-load-" +
+				i, systemMessage));
+		}
+
+		AtomicInteger completed = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(conversationCount);
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Conversation conversation : conversations) {
+				futures.add(pool.submit(() -> {
+					ChatMemory memory = provider.createTokenChatMemory(
+						ReplayProvider.MODEL_NAME);
+					memory.add(systemMessage);
+					FijiAssistant assistant = assistantService.createAssistant(
+						FijiAssistant.class, ReplayProvider.NAME, ReplayProvider.MODEL_NAME,
+						memory, provider.defaultChatRequestParameters());
+
+					for (int t = 0; t < turnsPerConversation; t++) {
+						String prompt = script.getTurns().get(t % script.getTurns().size())
+							.getUser();
+						if (runTurn(assistant, conversation, prompt, turnTimeout)) {
+							completed.incrementAndGet();
+						}
+						else {
+							failed.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				}
+				catch (Exception e) {
+					failed.incrementAndGet();
+				}
+			}
+		}
+		finally {
+			pool.shutdownNow();
+			// Keep load test conversations out of the saved chat history
+			for (Conversation conversation : conversations) {
+				conversationService.removeConversation(conversation.name());
+			}
+		}
+		double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+		JsonObject report = new JsonObject();
+		report.addProperty("conversations", conversationCount);
+		report.addProperty("turns_per_conversation", turnsPerConversation);
+		report.addProperty("turns_completed", completed.get());
+		report.addProperty("turns_failed", failed.get());
+		report.addProperty("wall_seconds", wallSeconds);
+		report.addProperty("turns_per_second", completed.get() / wallSeconds);
+		ChatModelStats stats = chatMetricsService.getStats(ReplayProvider.NAME,
+			ReplayProvider.MODEL_NAME);
+		if (stats != null) {
+			report.add("chat", stats.toJson());
+			report.addProperty("output_tokens_per_second", stats.outputTokens() /
+				wallSeconds);
+		}
+		JsonArray tools = new JsonArray();
+		for (ToolStats toolStats : toolMetricsService.getAllStats()) {
+			tools.add(toolStats.toJson());
+		}
+		report.add("tools", tools);
+		return report;
+	}
+
+	/**
+	 * Send one message the way {@code FijiAssistantChat} does and wait for the
+	 * response.
+	 *
+	 * @return {@code true} if the turn completed successfully
+	 */
+	private boolean runTurn(FijiAssistant assistant, Conversation conversation,
+		String prompt, Duration timeout)
+	{
+		AiToolService aiToolService = context.getService(AiToolService.class);
+		ChatMetricsService chatMetricsService = context.getService(
+			ChatMetricsService.class);
+
+		UserMessage userMsg = UserMessage.builder().addContent(new TextContent(
+			prompt)).build();
+		conversation.addMessage(prompt, userMsg);
+		ChatRequest chatRequest = ChatRequest.builder().messages(userMsg)
+			.toolSpecifications(aiToolService.getToolsForContext(ToolContext.ANY))
+			.build();
+
+		TurnRecorder turnRecorder = chatMetricsService.startTurn(
+			ReplayProvider.NAME, ReplayProvider.MODEL_NAME);
+		StringBuilder text = new StringBuilder();
+		CompletableFuture<Boolean> done = new CompletableFuture<>();
+		assistant.chatStreaming(chatRequest)
+			.onIntermediateResponse(response -> {
+				turnRecorder.toolIteration(response);
+				aiToolService.processIntermediateResponse(response);
+			})
+			.beforeToolExecution(aiToolService::processToolRequest)
+			.onToolExecuted(aiToolService::processToolExecution)
+			.onPartialResponse(token -> {
+				turnRecorder.partialResponse();
+				text.append(token);
+			})
+			.onCompleteResponse(response -> {
+				turnRecorder.complete(response);
+				conversation.addMessage(text.toString(), response.aiMessage());
+				done.complete(true);
+			})
+			.onError(error -> {
+				turnRecorder.fail();
+				done.complete(false);
+			})
+			.start();
+
+		try {
+			return done.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (Exception e) {
+			turnRecorder.fail();
+			return false;
+		}
+	}
+
+	private static ReplayScript defaultScript() throws IOException {
+		try (Reader reader = new InputStreamReader(LoadDriver.class
+			.getResourceAsStream(DEFAULT_SCRIPT), StandardCharsets.UTF_8))
+		{
+			return ReplayScript.fromJson(reader);
+		}
+	}
+}
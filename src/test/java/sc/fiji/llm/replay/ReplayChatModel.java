@@ -0,0 +1,50 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.replay;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * Blocking counterpart of {@link ReplayStreamingChatModel}, answering
+ * immediately with the complete scripted step.
+ */
+public class ReplayChatModel implements ChatModel {
+
+	private final ReplayScript script;
+	private final ReplayStreamingChatModel streamingModel;
+
+	public ReplayChatModel(ReplayScript script,
+		ReplayStreamingChatModel streamingModel)
+	{
+		this.script = script;
+		this.streamingModel = streamingModel;
+	}
+
+	@Override
+	public ChatResponse doChat(ChatRequest chatRequest) {
+		return streamingModel.toResponse(ReplayStreamingChatModel.selectStep(
+			script, chatRequest), chatRequest);
+	}
+}
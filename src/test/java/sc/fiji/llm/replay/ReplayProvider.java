@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.replay;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.scijava.plugin.Plugin;
+
+import dev.langchain4j.memory.chat.TokenWindowChatMemory;
+import dev.langchain4j.model.chat.ChatModel;
+import sc.fiji.llm.provider.CharacterTokenCountEstimator;
+import sc.fiji.llm.provider.LLMProvider;
+
+/**
+ * Offline {@link LLMProvider} replaying a {@link ReplayScript}, for load tests
+ * that must not call a real API. Only available on the test classpath.
+ */
+@Plugin(type = LLMProvider.class, name = ReplayProvider.NAME)
+public class ReplayProvider implements LLMProvider {
+
+	public static final String NAME = "Replay";
+	public static final String MODEL_NAME = "replay";
+
+	private volatile ReplayScript script = new ReplayScript();
+	private volatile ReplaySettings settings = ReplaySettings.immediate();
+	private ExecutorService executor;
+
+	/**
+	 * Set the script and timing used by models created after this call.
+	 */
+	public void configure(ReplayScript script, ReplaySettings settings) {
+		this.script = script;
+		this.settings = settings;
+	}
+
+	@Override
+	public void initialize() {
+		executor = Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "fiji-llm-replay");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public void dispose() {
+		if (executor != null) executor.shutdownNow();
+	}
+
+	@Override
+	public boolean requiresApiKey() {
+		return false;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public String getDescription() {
+		return "Replays recorded conversations without network access";
+	}
+
+	@Override
+	public List<String> getAvailableModels() {
+		return Collections.singletonList(MODEL_NAME);
+	}
+
+	@Override
+	public String getModelsDocumentationUrl() {
+		return "";
+	}
+
+	@Override
+	public String getApiKeyUrl() {
+		return "";
+	}
+
+	@Override
+	public TokenWindowChatMemory createTokenChatMemory(String modelName) {
+		return TokenWindowChatMemory.withMaxTokens(12000,
+			new CharacterTokenCountEstimator());
+	}
+
+	@Override
+	public ChatModel createChatModel(String modelName) {
+		return new ReplayChatModel(script, createStreamingChatModel(modelName));
+	}
+
+	@Override
+	public ReplayStreamingChatModel createStreamingChatModel(String modelName) {
+		return new ReplayStreamingChatModel(script, settings, executor);
+	}
+}
@@ -0,0 +1,266 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.replay;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * A recorded sequence of chat turns to be replayed by
+ * {@link ReplayStreamingChatModel}. Each turn holds the user prompt and the
+ * assistant steps that answer it; every step but the last may request tools.
+ * <p>
+ * Scripts are stored as JSON matching the structure of this class, or can be
+ * imported from VS Code chat exports such as those in {@code doc/chats}.
+ * </p>
+ */
+public class ReplayScript {
+
+	private List<ReplayTurn> turns = new ArrayList<>();
+
+	// No-arg constructor for GSON
+	public ReplayScript() {}
+
+	public ReplayScript(List<ReplayTurn> turns) {
+		this.turns = new ArrayList<>(turns);
+	}
+
+	public List<ReplayTurn> getTurns() {
+		return Collections.unmodifiableList(turns);
+	}
+
+	/**
+	 * Find the turn answering the given user prompt.
+	 *
+	 * @param userText the prompt text
+	 * @param fallbackIndex index to use if no turn matches the prompt; wrapped
+	 *          around the number of turns
+	 * @return The matching turn, or {@code null} if this script is empty
+	 */
+	public ReplayTurn findTurn(String userText, int fallbackIndex) {
+		if (turns.isEmpty()) return null;
+		for (ReplayTurn turn : turns) {
+			if (turn.getUser() != null && turn.getUser().equals(userText)) {
+				return turn;
+			}
+		}
+		return turns.get(Math.floorMod(fallbackIndex, turns.size()));
+	}
+
+	/**
+	 * Read a script in this class's own JSON format.
+	 */
+	public static ReplayScript fromJson(Reader reader) {
+		ReplayScript script = new Gson().fromJson(reader, ReplayScript.class);
+		return script == null ? new ReplayScript() : script;
+	}
+
+	/**
+	 * Read a script from a file. Files containing a top-level
+	 * {@code requests} array are treated as VS Code chat exports.
+	 */
+	public static ReplayScript fromFile(Path file) throws IOException {
+		try (Reader reader = Files.newBufferedReader(file,
+			StandardCharsets.UTF_8))
+		{
+			JsonElement json = JsonParser.parseReader(reader);
+			if (json.isJsonObject() && json.getAsJsonObject().has("requests")) {
+				return fromChatExport(json.getAsJsonObject());
+			}
+			return new Gson().fromJson(json, ReplayScript.class);
+		}
+	}
+
+	/**
+	 * Convert a VS Code chat export. Markdown parts become streamed text and
+	 * tool invocations become tool calls without arguments, named after the
+	 * recorded tool id.
+	 */
+	public static ReplayScript fromChatExport(JsonObject export) {
+		List<ReplayTurn> turns = new ArrayList<>();
+		for (JsonElement requestElement : export.getAsJsonArray("requests")) {
+			JsonObject request = requestElement.getAsJsonObject();
+			String user = request.getAsJsonObject("message").get("text")
+				.getAsString();
+
+			List<ReplayStep> steps = new ArrayList<>();
+			StringBuilder text = new StringBuilder();
+			List<ReplayToolCall> toolCalls = new ArrayList<>();
+			JsonArray response = request.getAsJsonArray("response");
+			for (JsonElement partElement : response) {
+				JsonObject part = partElement.getAsJsonObject();
+				String kind = part.has("kind") ? part.get("kind").getAsString()
+					: "markdownContent";
+				switch (kind) {
+					case "markdownContent":
+						if (!toolCalls.isEmpty()) {
+							// Text after tool calls starts the next step
+							steps.add(new ReplayStep(text.toString(), toolCalls));
+							text.setLength(0);
+							toolCalls = new ArrayList<>();
+						}
+						if (part.has("value")) {
+							text.append(part.get("value").getAsString());
+						}
+						break;
+					case "inlineReference":
+						text.append('`').append(referenceName(part.getAsJsonObject(
+							"inlineReference"))).append('`');
+						break;
+					case "toolInvocationSerialized":
+						toolCalls.add(new ReplayToolCall(part.get("toolId").getAsString(),
+							"{}"));
+						break;
+					default:
+						// Progress messages, code block URIs etc. are not streamed
+						break;
+				}
+			}
+			steps.add(new ReplayStep(text.toString(), toolCalls));
+			turns.add(new ReplayTurn(user, steps));
+		}
+		return new ReplayScript(turns);
+	}
+
+	private static String referenceName(JsonObject reference) {
+		if (reference == null) return "";
+		JsonElement path = reference.has("path") ? reference.get("path")
+			: reference.get("name");
+		if (path == null) return "";
+		String name = path.getAsString();
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * One user prompt and the assistant steps answering it.
+	 */
+	public static class ReplayTurn {
+
+		private String user;
+		private List<ReplayStep> steps = new ArrayList<>();
+
+		public ReplayTurn() {}
+
+		public ReplayTurn(String user, List<ReplayStep> steps) {
+			this.user = user;
+			this.steps = new ArrayList<>(steps);
+		}
+
+		public String getUser() {
+			return user;
+		}
+
+		public List<ReplayStep> getSteps() {
+			return Collections.unmodifiableList(steps);
+		}
+
+		/**
+		 * Collapse the recorded steps to those that can be replayed with the
+		 * given tools. Tool calls to unavailable tools are dropped, and the text
+		 * of steps left without any tool call is merged into the following step.
+		 * The last returned step never requests tools.
+		 *
+		 * @param availableTools names of the tools offered in the chat request
+		 * @return The steps to replay, never empty
+		 */
+		public List<ReplayStep> stepsFor(Collection<String> availableTools) {
+			List<ReplayStep> result = new ArrayList<>();
+			StringBuilder text = new StringBuilder();
+			for (ReplayStep step : steps) {
+				if (step.getText() != null) text.append(step.getText());
+				List<ReplayToolCall> calls = new ArrayList<>();
+				for (ReplayToolCall call : step.getToolCalls()) {
+					if (availableTools.contains(call.getName())) calls.add(call);
+				}
+				if (!calls.isEmpty()) {
+					result.add(new ReplayStep(text.toString(), calls));
+					text.setLength(0);
+				}
+			}
+			result.add(new ReplayStep(text.toString(), Collections.emptyList()));
+			return result;
+		}
+	}
+
+	/**
+	 * Text streamed by the assistant, optionally followed by tool calls.
+	 */
+	public static class ReplayStep {
+
+		private String text;
+		private List<ReplayToolCall> toolCalls = new ArrayList<>();
+
+		public ReplayStep() {}
+
+		public ReplayStep(String text, List<ReplayToolCall> toolCalls) {
+			this.text = text;
+			this.toolCalls = new ArrayList<>(toolCalls);
+		}
+
+		public String getText() {
+			return text == null ? "" : text;
+		}
+
+		public List<ReplayToolCall> getToolCalls() {
+			return toolCalls == null ? Collections.emptyList() : Collections
+				.unmodifiableList(toolCalls);
+		}
+	}
+
+	/**
+	 * A tool call requested by the assistant.
+	 */
+	public static class ReplayToolCall {
+
+		private String name;
+		private String arguments;
+
+		public ReplayToolCall() {}
+
+		public ReplayToolCall(String name, String arguments) {
+			this.name = name;
+			this.arguments = arguments;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getArguments() {
+			return arguments == null ? "{}" : arguments;
+		}
+	}
+}
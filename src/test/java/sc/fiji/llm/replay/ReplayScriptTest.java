@@ -0,0 +1,156 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import sc.fiji.llm.replay.ReplayScript.ReplayStep;
+import sc.fiji.llm.replay.ReplayScript.ReplayToolCall;
+import sc.fiji.llm.replay.ReplayScript.ReplayTurn;
+
+/**
+ * Unit tests for {@link ReplayScript} and {@link ReplayStreamingChatModel}.
+ */
+public class ReplayScriptTest {
+
+	private static final ReplayTurn TURN = new ReplayTurn("hello", List.of(
+		new ReplayStep("Looking. ", List.of(new ReplayToolCall("copilot_read",
+			"{}"))), new ReplayStep("Checking. ", List.of(new ReplayToolCall(
+				"listMacroCategories", "{}"))), new ReplayStep("Done.", List.of())));
+
+	@Test
+	public void testUnavailableToolsAreCollapsed() {
+		// When: only one of the recorded tools is offered
+		final List<ReplayStep> steps = TURN.stepsFor(Set.of(
+			"listMacroCategories"));
+
+		// Then: the text of the dropped tool call moves to the next step
+		assertEquals(2, steps.size());
+		assertEquals("Looking. Checking. ", steps.get(0).getText());
+		assertEquals("listMacroCategories", steps.get(0).getToolCalls().get(0)
+			.getName());
+		assertEquals("Done.", steps.get(1).getText());
+		assertTrue(steps.get(1).getToolCalls().isEmpty());
+
+		// And: without tools the whole turn is a single text step
+		assertEquals(1, TURN.stepsFor(Set.of()).size());
+	}
+
+	@Test
+	public void testTokenizePreservesText() {
+		final String text = "Run  *Analyze Particles*\n\nthen read\tresults ";
+		final List<String> tokens = ReplayStreamingChatModel.tokenize(text);
+		assertEquals(text, String.join("", tokens));
+		assertEquals("Run  ", tokens.get(0));
+	}
+
+	@Test
+	public void testStreamsScriptedSteps() {
+		// Given: a model replaying a single turn without delays
+		final ReplayScript script = new ReplayScript(List.of(TURN));
+		final ReplayStreamingChatModel model = new ReplayStreamingChatModel(
+			script, ReplaySettings.immediate(), Runnable::run);
+		final ToolSpecification tool = ToolSpecification.builder().name(
+			"listMacroCategories").build();
+		final UserMessage user = UserMessage.from("hello");
+
+		// When: the user message is sent
+		final RecordingHandler first = new RecordingHandler();
+		model.doChat(ChatRequest.builder().messages(user).toolSpecifications(tool)
+			.build(), first);
+
+		// Then: the first step is streamed and requests the tool
+		assertEquals("Looking. Checking. ", first.text.toString());
+		final AiMessage toolCall = first.response.aiMessage();
+		assertTrue(toolCall.hasToolExecutionRequests());
+
+		// When: the tool result is sent back
+		final ToolExecutionRequest request = toolCall.toolExecutionRequests().get(
+			0);
+		final RecordingHandler second = new RecordingHandler();
+		model.doChat(ChatRequest.builder().messages(user, toolCall,
+			ToolExecutionResultMessage.from(request, "[]")).toolSpecifications(tool)
+			.build(), second);
+
+		// Then: the final step is streamed
+		assertTrue(first.errors.isEmpty() && second.errors.isEmpty());
+		assertEquals("Done.", second.text.toString());
+		assertFalse(second.response.aiMessage().hasToolExecutionRequests());
+		assertTrue(second.response.tokenUsage().inputTokenCount() > 0);
+	}
+
+	@Test
+	public void testImportChatExport() throws IOException {
+		final ReplayScript script = ReplayScript.fromFile(Paths.get("doc", "chats",
+			"30-oct-2025-chatcommand.json"));
+
+		// Then: the recorded tool invocations become tool calls
+		assertEquals(1, script.getTurns().size());
+		final ReplayTurn turn = script.getTurns().get(0);
+		assertTrue(turn.getUser().startsWith("ok I want to make"));
+		assertTrue(turn.getSteps().size() > 1);
+		assertFalse(turn.getSteps().get(0).getToolCalls().isEmpty());
+	}
+
+	private static class RecordingHandler implements
+		StreamingChatResponseHandler
+	{
+
+		private final StringBuilder text = new StringBuilder();
+		private final List<Throwable> errors = new ArrayList<>();
+		private ChatResponse response;
+
+		@Override
+		public void onPartialResponse(final String partialResponse) {
+			text.append(partialResponse);
+		}
+
+		@Override
+		public void onCompleteResponse(final ChatResponse completeResponse) {
+			response = completeResponse;
+		}
+
+		@Override
+		public void onError(final Throwable error) {
+			errors.add(error);
+		}
+	}
+}
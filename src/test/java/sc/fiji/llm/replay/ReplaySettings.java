@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.replay;
+
+import java.time.Duration;
+
+/**
+ * Timing parameters for replayed token streams.
+ */
+public class ReplaySettings {
+
+	private final Duration firstTokenDelay;
+	private final Duration tokenDelay;
+	private final Duration jitter;
+	private final long seed;
+
+	/**
+	 * @param firstTokenDelay delay before the first streamed token
+	 * @param tokenDelay delay between streamed tokens
+	 * @param jitter maximum random delay added to each pause
+	 * @param seed seed for the jitter; replays with the same seed are identical
+	 */
+	public ReplaySettings(Duration firstTokenDelay, Duration tokenDelay,
+		Duration jitter, long seed)
+	{
+		this.firstTokenDelay = firstTokenDelay;
+		this.tokenDelay = tokenDelay;
+		this.jitter = jitter;
+		this.seed = seed;
+	}
+
+	/**
+	 * @return Settings that stream without any delay
+	 */
+	public static ReplaySettings immediate() {
+		return new ReplaySettings(Duration.ZERO, Duration.ZERO, Duration.ZERO, 0);
+	}
+
+	public Duration firstTokenDelay() {
+		return firstTokenDelay;
+	}
+
+	public Duration tokenDelay() {
+		return tokenDelay;
+	}
+
+	public Duration jitter() {
+		return jitter;
+	}
+
+	public long seed() {
+		return seed;
+	}
+}
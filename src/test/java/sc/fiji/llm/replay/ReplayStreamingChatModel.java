@@ -0,0 +1,197 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.replay;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+import sc.fiji.llm.provider.CharacterTokenCountEstimator;
+import sc.fiji.llm.replay.ReplayScript.ReplayStep;
+import sc.fiji.llm.replay.ReplayScript.ReplayToolCall;
+import sc.fiji.llm.replay.ReplayScript.ReplayTurn;
+
+/**
+ * {@link StreamingChatModel} that answers each request from a
+ * {@link ReplayScript} instead of a remote API. The model is stateless: the
+ * turn is chosen by the text of the last user message, and the step within the
+ * turn by the number of tool-calling assistant messages since then, so any
+ * number of conversations can share one instance. Output is streamed word by
+ * word with configurable delays; identical requests produce identical streams.
+ */
+public class ReplayStreamingChatModel implements StreamingChatModel {
+
+	private final ReplayScript script;
+	private final ReplaySettings settings;
+	private final Executor executor;
+	private final TokenCountEstimator estimator =
+		new CharacterTokenCountEstimator();
+
+	public ReplayStreamingChatModel(ReplayScript script, ReplaySettings settings,
+		Executor executor)
+	{
+		this.script = script;
+		this.settings = settings;
+		this.executor = executor;
+	}
+
+	@Override
+	public void doChat(ChatRequest chatRequest,
+		StreamingChatResponseHandler handler)
+	{
+		executor.execute(() -> {
+			try {
+				stream(chatRequest, handler);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				handler.onError(e);
+			}
+			catch (RuntimeException e) {
+				handler.onError(e);
+			}
+		});
+	}
+
+	private void stream(ChatRequest chatRequest,
+		StreamingChatResponseHandler handler) throws InterruptedException
+	{
+		ReplayStep step = selectStep(script, chatRequest);
+		String text = step.getText();
+		Random random = new Random(settings.seed() ^ text.hashCode());
+
+		pause(settings.firstTokenDelay(), random);
+		for (String token : tokenize(text)) {
+			handler.onPartialResponse(token);
+			pause(settings.tokenDelay(), random);
+		}
+
+		handler.onCompleteResponse(toResponse(step, chatRequest));
+	}
+
+	ChatResponse toResponse(ReplayStep step, ChatRequest chatRequest) {
+		List<ToolExecutionRequest> requests = new ArrayList<>();
+		int callIndex = 0;
+		for (ReplayToolCall call : step.getToolCalls()) {
+			requests.add(ToolExecutionRequest.builder().id("replay-" + chatRequest
+				.messages().size() + "-" + callIndex++).name(call.getName()).arguments(
+					call.getArguments()).build());
+		}
+
+		AiMessage.Builder message = AiMessage.builder();
+		if (!step.getText().isEmpty()) message.text(step.getText());
+		if (!requests.isEmpty()) message.toolExecutionRequests(requests);
+		AiMessage aiMessage = message.build();
+
+		return ChatResponse.builder().aiMessage(aiMessage).modelName(
+			ReplayProvider.MODEL_NAME).finishReason(requests.isEmpty()
+				? FinishReason.STOP : FinishReason.TOOL_EXECUTION).tokenUsage(
+					new TokenUsage(estimator.estimateTokenCountInMessages(chatRequest
+						.messages()), estimator.estimateTokenCountInMessage(aiMessage)))
+			.build();
+	}
+
+	/**
+	 * Pick the scripted step answering the given request.
+	 */
+	static ReplayStep selectStep(ReplayScript script, ChatRequest chatRequest) {
+		List<ChatMessage> messages = chatRequest.messages();
+		String userText = null;
+		int userMessages = 0;
+		int toolRounds = 0;
+		for (ChatMessage message : messages) {
+			if (message instanceof UserMessage) {
+				UserMessage userMessage = (UserMessage) message;
+				userText = userMessage.hasSingleText() ? userMessage.singleText()
+					: null;
+				userMessages++;
+				toolRounds = 0;
+			}
+			else if (message instanceof AiMessage && ((AiMessage) message)
+				.hasToolExecutionRequests())
+			{
+				toolRounds++;
+			}
+		}
+
+		ReplayTurn turn = script.findTurn(userText, userMessages - 1);
+		if (turn == null) {
+			return new ReplayStep("", Collections.emptyList());
+		}
+		List<ReplayStep> steps = turn.stepsFor(toolNames(chatRequest));
+		return steps.get(Math.min(toolRounds, steps.size() - 1));
+	}
+
+	private static Set<String> toolNames(ChatRequest chatRequest) {
+		List<ToolSpecification> specs = chatRequest.toolSpecifications();
+		if (specs == null) return Collections.emptySet();
+		return specs.stream().map(ToolSpecification::name).collect(Collectors
+			.toSet());
+	}
+
+	/**
+	 * Split text into word-sized chunks, keeping whitespace attached to the
+	 * preceding word.
+	 */
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		int start = 0;
+		for (int i = 1; i < text.length(); i++) {
+			if (Character.isWhitespace(text.charAt(i - 1)) && !Character
+				.isWhitespace(text.charAt(i)))
+			{
+				tokens.add(text.substring(start, i));
+				start = i;
+			}
+		}
+		if (start < text.length()) tokens.add(text.substring(start));
+		return tokens;
+	}
+
+	private void pause(Duration delay, Random random)
+		throws InterruptedException
+	{
+		long millis = delay.toMillis();
+		long jitter = settings.jitter().toMillis();
+		if (jitter > 0) millis += random.nextInt((int) Math.min(Integer.MAX_VALUE,
+			jitter + 1));
+		if (millis > 0) Thread.sleep(millis);
+	}
+}
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LineDiff}.
+ */
+public class LineDiffTest {
+
+	private static List<String> lines(final String text) {
+		return Arrays.asList(text.split("\n", -1));
+	}
+
+	/** Diff the texts and apply the hunks to a document holding the first */
+	private static String roundTrip(final String from, final String to)
+		throws BadLocationException
+	{
+		final Document document = new PlainDocument();
+		document.insertString(0, from, null);
+		ScriptDocumentUtilities.applyHunks(document, LineDiff.diff(lines(from),
+			lines(to)));
+		return document.getText(0, document.getLength());
+	}
+
+	@Test
+	public void testMinimalHunks() {
+		final List<LineDiff.Hunk> hunks = LineDiff.diff(lines("a\nb\nc\nd\ne"),
+			lines("a\nB\nc\nd\ne\nf"));
+		assertEquals(2, hunks.size());
+		assertEquals(1, hunks.get(0).getOldStart());
+		assertEquals(2, hunks.get(0).getOldEnd());
+		assertEquals(List.of("B"), hunks.get(0).getLines());
+		assertEquals(5, hunks.get(1).getOldStart());
+		assertEquals(List.of("f"), hunks.get(1).getLines());
+		assertTrue(LineDiff.diff(lines("a\nb"), lines("a\nb")).isEmpty());
+	}
+
+	@Test
+	public void testEdgeCases() throws BadLocationException {
+		assertEquals("a\n", roundTrip("a\nb", "a\n"));
+		assertEquals("a", roundTrip("a\n", "a"));
+		assertEquals("x\na", roundTrip("a", "x\na"));
+		assertEquals("a\nx", roundTrip("a", "a\nx"));
+		assertEquals("", roundTrip("a\nb\nc", ""));
+		assertEquals("a\n\n\nb", roundTrip("a\nb", "a\n\n\nb"));
+	}
+
+	@Test
+	public void testRandomEdits() throws BadLocationException {
+		// Given: random texts over a small alphabet, so lines repeat often
+		final Random random = new Random(42);
+		for (int trial = 0; trial < 500; trial++) {
+			final String from = randomText(random);
+			final String to = randomText(random);
+
+			// Then: applying the diff always reproduces the target
+			assertEquals(to, roundTrip(from, to));
+		}
+	}
+
+	private static String randomText(final Random random) {
+		final List<String> lines = new ArrayList<>();
+		final int count = 1 + random.nextInt(12);
+		for (int i = 0; i < count; i++) {
+			lines.add(random.nextInt(4) == 0 ? "" : String.valueOf((char) ('a' +
+				random.nextInt(4))));
+		}
+		return String.join("\n", lines);
+	}
+}
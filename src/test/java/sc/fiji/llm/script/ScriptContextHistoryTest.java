@@ -0,0 +1,173 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import sc.fiji.llm.context.ContextBudget;
+
+/**
+ * Unit tests for {@link ScriptContextHistory}.
+ */
+public class ScriptContextHistoryTest {
+
+	private static ScriptContextItem script(final String content) {
+		return new ScriptContextItem("test.ijm", content, 0, 1, "IJ1 Macro");
+	}
+
+	private static String body() {
+		final StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			lines.append("print(\"step ").append(i).append("\");\n");
+		}
+		return "run(\"Blobs\");\nsetAutoThreshold(\"Default\");\n" + lines;
+	}
+
+	/** Sends the item and adds the resulting message to the memory */
+	private static JsonObject send(final ScriptContextHistory history,
+		final ScriptContextItem item, final Set<String> full,
+		final Set<String> remembered)
+	{
+		final JsonObject json = history.toJson(item, full::contains,
+			remembered::contains).getAsJsonObject();
+		final JsonArray context = new JsonArray();
+		context.add(json);
+		history.record(item, json);
+		full.addAll(ScriptContextHistory.getFullContentHashes(context));
+		remembered.addAll(ScriptContextHistory.getContentHashes(context));
+		return json;
+	}
+
+	@Test
+	public void testDiffAgainstRememberedVersion() {
+		final ScriptContextHistory history = new ScriptContextHistory();
+		final Set<String> full = new HashSet<>();
+		final Set<String> remembered = new HashSet<>();
+		final String body = body();
+
+		// Given: the script was sent in full and is still in memory
+		final JsonObject first = send(history, script(body), full, remembered);
+		assertTrue(first.has(ScriptContextItem.CONTENT_KEY));
+		assertEquals(1, full.size());
+
+		// When: an edited version is attached
+		final ScriptContextItem edited = script(body.replace("Default", "Otsu"));
+		final JsonObject second = send(history, edited, full, remembered);
+
+		// Then: only a diff against the full version is sent
+		assertFalse(second.has(ScriptContextItem.CONTENT_KEY));
+		assertEquals(script(body).getContentHash(), second.get(
+			ScriptContextItem.BASE_HASH_KEY).getAsString());
+		assertTrue(second.get(ScriptContextItem.CONTENT_DIFF_KEY).getAsString()
+			.contains("+setAutoThreshold(\"Otsu\");"));
+		assertEquals(edited.getContentHash(), second.get(
+			ScriptContextItem.CONTENT_HASH_KEY).getAsString());
+	}
+
+	@Test
+	public void testFullContentAfterEviction() {
+		final ScriptContextHistory history = new ScriptContextHistory();
+		final String body = body();
+		history.record(script(body), script(body).toJson());
+
+		// The earlier full version is no longer remembered
+		final JsonObject json = history.toJson(script(body + "close();\n"),
+			hash -> false, hash -> false).getAsJsonObject();
+		assertTrue(json.has(ScriptContextItem.CONTENT_KEY));
+		assertFalse(json.has(ScriptContextItem.CONTENT_DIFF_KEY));
+	}
+
+	@Test
+	public void testDiffIsOmittedNotTruncated() {
+		final ScriptContextHistory history = new ScriptContextHistory();
+		final Set<String> full = new HashSet<>();
+		final Set<String> remembered = new HashSet<>();
+		final String body = body();
+		final ScriptContextItem original = script(body);
+		send(history, original, full, remembered);
+
+		// Given: a diff slightly over the budget
+		final StringBuilder added = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			added.append("print(\"added step ").append(i).append("\");\n");
+		}
+		final ScriptContextItem otsu = script(body.replace("Default", "Otsu") +
+			added);
+		final JsonObject diff = history.toJson(otsu, full::contains,
+			remembered::contains).getAsJsonObject();
+		assertTrue(ScriptContextHistory.isDiff(diff));
+		final ContextBudget budget = new ContextBudget(diff.toString().length() -
+			20, String::length);
+
+		// When: it is fit into the budget
+		final JsonObject sent = budget.fit(List.of(new ContextBudget.Entry(
+			"test.ijm", diff, !ScriptContextHistory.isDiff(diff)))).getJson().get(0)
+			.getAsJsonObject();
+		history.record(otsu, sent);
+
+		// Then: it is omitted rather than sent as a partial patch
+		assertTrue(sent.has(ContextBudget.OMITTED_KEY));
+		assertFalse(sent.has(ScriptContextItem.CONTENT_DIFF_KEY));
+		assertFalse(sent.has(ScriptContextItem.BASE_HASH_KEY));
+
+		// And: the next diff builds on the version that arrived intact
+		final JsonObject next = history.toJson(script(body.replace("Default",
+			"Li")), full::contains, remembered::contains).getAsJsonObject();
+		assertEquals(original.getContentHash(), next.get(
+			ScriptContextItem.BASE_HASH_KEY).getAsString());
+	}
+
+	@Test
+	public void testLostMessageIsNotABase() {
+		final ScriptContextHistory history = new ScriptContextHistory();
+		final Set<String> full = new HashSet<>();
+		final Set<String> remembered = new HashSet<>();
+		final String body = body();
+		final ScriptContextItem original = script(body);
+		send(history, original, full, remembered);
+
+		// Given: a diff that was recorded, but whose message never reached memory
+		final ScriptContextItem otsu = script(body.replace("Default", "Otsu"));
+		history.record(otsu, history.toJson(otsu, full::contains,
+			remembered::contains));
+
+		// When: the script is attached again
+		final JsonObject next = history.toJson(script(body.replace("Default",
+			"Li")), full::contains, remembered::contains).getAsJsonObject();
+
+		// Then: the full content is sent, as the model never saw the diff
+		assertTrue(next.has(ScriptContextItem.CONTENT_KEY));
+		assertFalse(next.has(ScriptContextItem.CONTENT_DIFF_KEY));
+	}
+}
@@ -0,0 +1,130 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ScriptDocumentUtilities}.
+ */
+public class ScriptDocumentUtilitiesTest {
+
+	private static Document document(final String text)
+		throws BadLocationException
+	{
+		final Document document = new PlainDocument();
+		document.insertString(0, text, null);
+		return document;
+	}
+
+	private static String edit(final String text, final ScriptEdit... edits)
+		throws BadLocationException
+	{
+		final Document document = document(text);
+		final List<ScriptEdit> list = List.of(edits);
+		assertNull(ScriptDocumentUtilities.validateEdits(list,
+			ScriptDocumentUtilities.getLineCount(document)));
+		ScriptDocumentUtilities.applyEdits(document, list);
+		return document.getText(0, document.getLength());
+	}
+
+	@Test
+	public void testLines() throws BadLocationException {
+		final Document document = document("a\nbb\nccc\n");
+		assertEquals(4, ScriptDocumentUtilities.getLineCount(document));
+		assertEquals("bb\nccc", ScriptDocumentUtilities.getLines(document, 2, 3));
+		assertEquals("", ScriptDocumentUtilities.getLines(document, 4, 4));
+		assertEquals(2, ScriptDocumentUtilities.getLineStartOffset(document, 2));
+	}
+
+	@Test
+	public void testPages() throws BadLocationException {
+		// Given: one "token" per character, newlines included
+		final Document document = document("aaa\nbbb\nccc\nddd");
+
+		// Then: pages stop before the budget is exceeded
+		assertEquals(2, ScriptDocumentUtilities.getPageEndLine(document, 1, 9,
+			String::length));
+		assertEquals(4, ScriptDocumentUtilities.getPageEndLine(document, 3, 100,
+			String::length));
+		// A line larger than the budget is still returned alone
+		assertEquals(3, ScriptDocumentUtilities.getPageEndLine(document, 3, 1,
+			String::length));
+	}
+
+	@Test
+	public void testSingleEdits() throws BadLocationException {
+		// Replace, insert and delete in the middle
+		assertEquals("a\nX\nc", edit("a\nb\nc", new ScriptEdit(2, 2, "X")));
+		assertEquals("a\nX\nb\nc", edit("a\nb\nc", new ScriptEdit(2, 1, "X")));
+		assertEquals("a\nc", edit("a\nb\nc", new ScriptEdit(2, 2, "")));
+
+		// At the end, no newline is added or left behind
+		assertEquals("a\nb\nX", edit("a\nb\nc", new ScriptEdit(3, 3, "X")));
+		assertEquals("a\nb\nc\nX", edit("a\nb\nc", new ScriptEdit(4, 3, "X")));
+		assertEquals("a", edit("a\nb\nc", new ScriptEdit(2, 3, "")));
+
+		// Inserting nothing is a no-op anywhere, including after the last line
+		assertEquals("a\nb\nc", edit("a\nb\nc", new ScriptEdit(2, 1, "")));
+		assertEquals("a\nb\nc", edit("a\nb\nc", new ScriptEdit(4, 3, "")));
+
+		// A single newline replaces lines with one blank line
+		assertEquals("a\n\nc", edit("a\nb\nc", new ScriptEdit(2, 2, "\n")));
+		assertEquals("a\n\n", edit("a\nb\nc", new ScriptEdit(2, 3, "\n")));
+	}
+
+	@Test
+	public void testBatchUsesOriginalLineNumbers() throws BadLocationException {
+		// Given: edits in any order, numbered against the original text
+		final String result = edit("1\n2\n3\n4\n5", new ScriptEdit(1, 1, "one"),
+			new ScriptEdit(5, 5, "five\nsix"), new ScriptEdit(3, 3, ""),
+			new ScriptEdit(2, 1, "1.5"));
+
+		// Then: each edit lands where it would alone
+		assertEquals("one\n1.5\n2\n4\nfive\nsix", result);
+	}
+
+	@Test
+	public void testInvalidEdits() {
+		assertNotNull(ScriptDocumentUtilities.validateEdits(List.of(), 3));
+		assertNotNull(ScriptDocumentUtilities.validateEdits(List.of(
+			new ScriptEdit(0, 1, "x")), 3));
+		assertNotNull(ScriptDocumentUtilities.validateEdits(List.of(
+			new ScriptEdit(2, 4, "x")), 3));
+		// Overlapping ranges, and two insertions at the same line
+		assertNotNull(ScriptDocumentUtilities.validateEdits(List.of(
+			new ScriptEdit(1, 2, "x"), new ScriptEdit(2, 3, "y")), 3));
+		assertNotNull(ScriptDocumentUtilities.validateEdits(List.of(
+			new ScriptEdit(2, 1, "x"), new ScriptEdit(2, 1, "y")), 3));
+	}
+}
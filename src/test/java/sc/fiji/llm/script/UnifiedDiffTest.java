@@ -0,0 +1,101 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.script;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link UnifiedDiff}.
+ */
+public class UnifiedDiffTest {
+
+	private static final List<String> SCRIPT = List.of("run(\"Blobs\");",
+		"setAutoThreshold(\"Default\");", "", "run(\"Analyze Particles...\");",
+		"print(\"done\");");
+
+	@Test
+	public void testContextIsStripped() {
+		// Given: a diff with file headers and a blank context line
+		final String diff = "--- a/script.ijm\n+++ b/script.ijm\n" +
+			"@@ -2,3 +2,3 @@\n setAutoThreshold(\"Default\");\n\n" +
+			"-run(\"Analyze Particles...\");\n+run(\"Analyze Particles...\", \"display\");\n";
+
+		// When: it is parsed
+		final List<LineDiff.Hunk> hunks = UnifiedDiff.parse(diff, SCRIPT);
+
+		// Then: only the changed line remains
+		assertEquals(1, hunks.size());
+		assertEquals(3, hunks.get(0).getOldStart());
+		assertEquals(4, hunks.get(0).getOldEnd());
+		assertEquals(List.of("run(\"Analyze Particles...\", \"display\");"), hunks
+			.get(0).getLines());
+	}
+
+	@Test
+	public void testWrongLineNumbersAreTolerated() {
+		// The header says line 1, but the context is at line 5
+		final List<LineDiff.Hunk> hunks = UnifiedDiff.parse(
+			"@@ -1,1 +1,2 @@\n print(\"done\");\n+close();", SCRIPT);
+		assertEquals(5, hunks.get(0).getOldStart());
+		assertEquals(5, hunks.get(0).getOldEnd());
+		assertEquals(List.of("close();"), hunks.get(0).getLines());
+	}
+
+	@Test
+	public void testFormat() {
+		// Given: the script with one line changed and one appended
+		final List<String> changed = List.of("run(\"Blobs\");",
+			"setAutoThreshold(\"Otsu\");", "", "run(\"Analyze Particles...\");",
+			"print(\"done\");", "close();");
+
+		// When: the diff is written with one line of context
+		final String diff = UnifiedDiff.format(SCRIPT, changed, 1);
+
+		// Then: nearby changes are separate hunks with standard headers
+		assertEquals("@@ -1,3 +1,3 @@\n run(\"Blobs\");\n" +
+			"-setAutoThreshold(\"Default\");\n+setAutoThreshold(\"Otsu\");\n \n" +
+			"@@ -5,1 +5,2 @@\n print(\"done\");\n+close();\n", diff);
+
+		// And: parsing it back yields the changes
+		final List<LineDiff.Hunk> hunks = UnifiedDiff.parse(diff, SCRIPT);
+		assertEquals(2, hunks.size());
+		assertEquals(1, hunks.get(0).getOldStart());
+		assertEquals(List.of("close();"), hunks.get(1).getLines());
+		assertEquals("", UnifiedDiff.format(SCRIPT, SCRIPT, 3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMismatchedContext() {
+		UnifiedDiff.parse("@@ -1,1 +1,1 @@\n-run(\"Clown\");\n+run(\"Boats\");",
+			SCRIPT);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingHeader() {
+		UnifiedDiff.parse("-run(\"Blobs\");\n+run(\"Boats\");", SCRIPT);
+	}
+}
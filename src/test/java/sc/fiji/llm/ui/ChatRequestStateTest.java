@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ChatRequestState}.
+ */
+public class ChatRequestStateTest {
+
+	@Test
+	public void testCancelRunsCurrentCanceller() {
+		// Given: a request whose stream has started
+		final ChatRequestState request = new ChatRequestState();
+		final AtomicInteger threadCancels = new AtomicInteger();
+		final AtomicInteger streamCancels = new AtomicInteger();
+		request.setCanceller(threadCancels::incrementAndGet);
+		assertTrue(request.markStarted());
+		assertFalse(request.markStarted());
+		request.setCanceller(streamCancels::incrementAndGet);
+
+		// When: the user stops it twice
+		assertTrue(request.cancel());
+		assertFalse(request.cancel());
+
+		// Then: only the stream is cancelled, once, and it cannot complete later
+		assertEquals(0, threadCancels.get());
+		assertEquals(1, streamCancels.get());
+		assertTrue(request.isCancelled());
+		assertFalse(request.complete());
+		assertFalse(request.fail(new RuntimeException()));
+	}
+
+	@Test
+	public void testCancellerSetAfterCancelRunsImmediately() {
+		// Given: a request stopped before its stream reported back
+		final ChatRequestState request = new ChatRequestState();
+		request.cancel();
+
+		// When: the stream registers its handle
+		final AtomicInteger streamCancels = new AtomicInteger();
+		request.setCanceller(streamCancels::incrementAndGet);
+
+		// Then: the stream is cancelled right away
+		assertEquals(1, streamCancels.get());
+	}
+
+	@Test
+	public void testCompletedRequestCannotBeCancelled() {
+		final ChatRequestState request = new ChatRequestState();
+		final AtomicInteger cancels = new AtomicInteger();
+		request.setCanceller(cancels::incrementAndGet);
+		assertTrue(request.complete());
+		assertFalse(request.cancel());
+		assertTrue(request.isDone());
+		assertFalse(request.isCancelled());
+		assertEquals(0, cancels.get());
+	}
+}
@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the block splitting of {@link IncrementalMarkdownRenderer}.
+ * Blocks are "rendered" by wrapping them in brackets so the split points are
+ * visible.
+ */
+public class IncrementalMarkdownRendererTest {
+
+	@Test
+	public void testParagraphsAreFinishedOnce() {
+		// Given: three paragraphs, the last one still being streamed
+		final String[] result = stream("Para one.\n\nPara two.\n\nPara three");
+
+		// Then: a block is only finished once the next block's first line is
+		// complete, so the incomplete line keeps the second paragraph pending
+		assertEquals("[Para one.\n\n]", result[0]);
+		assertEquals("[Para two.\n\nPara three]", result[1]);
+	}
+
+	@Test
+	public void testBlankLinesInCodeFenceDoNotSplit() {
+		final String[] result = stream(
+			"Code:\n\n```python\na = 1\n\nb = 2\n```\n\nDone.\n");
+		assertEquals("[Code:\n\n][```python\na = 1\n\nb = 2\n```\n\n]",
+			result[0]);
+		assertEquals("[Done.\n]", result[1]);
+	}
+
+	@Test
+	public void testListsAndContinuationsStayTogether() {
+		final String[] result = stream(
+			"1. First\n\n2. Second\n\n   more about second\n\nAfter.\n");
+		assertEquals("[1. First\n\n2. Second\n\n   more about second\n\n]",
+			result[0]);
+		assertEquals("[After.\n]", result[1]);
+	}
+
+	@Test
+	public void testChunkingDoesNotMatter() {
+		final String text = "# Title\n\nSome text\nmore text\n\n- a\n- b\n\n" +
+			"```\nx\n\n```\n\n| a | b |\n|---|---|\n| 1 | 2 |\n\nEnd";
+		final IncrementalMarkdownRenderer whole = new IncrementalMarkdownRenderer(
+			md -> "[" + md + "]");
+		final IncrementalMarkdownRenderer.Update update = whole.append(text);
+		final String[] streamed = stream(text);
+		assertEquals(whole.stableHtml(), streamed[0]);
+		assertEquals(update.tailHtml(), streamed[1]);
+	}
+
+	/**
+	 * Stream text one character at a time.
+	 *
+	 * @return The concatenated finished HTML and the final tail HTML
+	 */
+	private static String[] stream(final String text) {
+		final IncrementalMarkdownRenderer renderer =
+			new IncrementalMarkdownRenderer(md -> "[" + md + "]");
+		final StringBuilder finished = new StringBuilder();
+		String tail = "";
+		for (int i = 0; i < text.length(); i++) {
+			final IncrementalMarkdownRenderer.Update update = renderer.append(text
+				.substring(i, i + 1));
+			finished.append(update.finishedHtml());
+			tail = update.tailHtml();
+		}
+		assertEquals(renderer.stableHtml(), finished.toString());
+		return new String[] { finished.toString(), tail };
+	}
+}
@@ -0,0 +1,60 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MarkdownRenderer} sanitization.
+ */
+public class MarkdownRendererTest {
+
+	@Test
+	public void testRawHtmlIsCleaned() {
+		final String html = MarkdownRenderer.renderToSafeFragment(
+			"Hi <script>alert(1)</script>\n\n<iframe src=\"https://x\"></iframe>");
+		assertFalse(html.contains("<script"));
+		assertFalse(html.contains("<iframe"));
+	}
+
+	@Test
+	public void testUnsafeLinksAreCleaned() {
+		final String html = MarkdownRenderer.renderToSafeFragment(
+			"[click](javascript:alert(1)) and <javascript:alert(2)>");
+		assertFalse(html.contains("javascript:"));
+	}
+
+	@Test
+	public void testPlainMarkdownIsRendered() {
+		final String html = MarkdownRenderer.renderToSafeFragment(
+			"# Title\n\nSee [the guide](https://imagej.net) or " +
+				"https://fiji.sc.\n\n```python\nprint(1 < 2)\n```\n");
+		assertTrue(html.contains("<h1>Title</h1>"));
+		assertTrue(html.contains("href=\"https://imagej.net\""));
+		assertTrue(html.contains("href=\"https://fiji.sc\""));
+		assertTrue(html.contains("1 &lt; 2"));
+	}
+}
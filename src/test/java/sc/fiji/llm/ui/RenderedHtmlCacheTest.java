@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RenderedHtmlCache}.
+ */
+public class RenderedHtmlCacheTest {
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		// Given: a cache holding two documents
+		final AtomicInteger renders = new AtomicInteger();
+		final Function<String, String> renderer = md -> {
+			renders.incrementAndGet();
+			return "<p>" + md + "</p>";
+		};
+		final RenderedHtmlCache cache = new RenderedHtmlCache(2);
+
+		// When: "a" is used again before "c" is added
+		assertEquals("<p>a</p>", cache.get("a", renderer));
+		cache.get("b", renderer);
+		cache.get("a", renderer);
+		cache.get("c", renderer);
+		assertEquals(3, renders.get());
+
+		// Then: "b" was evicted and "a" was kept
+		assertEquals(2, cache.size());
+		cache.get("a", renderer);
+		assertEquals(3, renders.get());
+		cache.get("b", renderer);
+		assertEquals(4, renders.get());
+	}
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		// Given: a saved cache
+		final File file = File.createTempFile("rendered-html", ".cache");
+		file.deleteOnExit();
+		final RenderedHtmlCache cache = new RenderedHtmlCache();
+		cache.get("# Title", md -> "<h1>Title</h1>");
+		cache.save(file);
+
+		// When: it is loaded into a new cache
+		final RenderedHtmlCache loaded = new RenderedHtmlCache();
+		loaded.load(file);
+
+		// Then: the entry is served without rendering
+		assertEquals(1, loaded.size());
+		assertEquals("<h1>Title</h1>", loaded.get("# Title", md -> "miss"));
+	}
+
+	@Test
+	public void testMalformedFileIsIgnored() throws Exception {
+		final File file = File.createTempFile("rendered-html", ".cache");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "{\"version\": 0, \"entries\": {\"k\": \"v\"}}"
+			.getBytes(StandardCharsets.UTF_8));
+		final RenderedHtmlCache cache = new RenderedHtmlCache();
+		cache.load(file);
+		assertEquals(0, cache.size());
+
+		Files.write(file.toPath(), "not json".getBytes(StandardCharsets.UTF_8));
+		cache.load(file);
+		assertEquals(0, cache.size());
+	}
+}
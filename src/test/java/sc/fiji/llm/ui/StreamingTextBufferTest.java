@@ -0,0 +1,79 @@
+/*-
+ * #%L
+ * A Fiji plugin for integrating large language models.
+ * %%
+ * Copyright (C) 2025 ImageJ Developers
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+package sc.fiji.llm.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StreamingTextBuffer}.
+ */
+public class StreamingTextBufferTest {
+
+	@Test
+	public void testTokensAreCoalesced() throws Exception {
+		// Given: a buffer recording what reaches the EDT
+		final StringBuilder shown = new StringBuilder();
+		final AtomicInteger flushes = new AtomicInteger();
+		final AtomicInteger scrolls = new AtomicInteger();
+		final StreamingTextBuffer buffer = new StreamingTextBuffer(text -> {
+			assertTrue(SwingUtilities.isEventDispatchThread());
+			shown.append(text);
+			flushes.incrementAndGet();
+		}, scrolls::incrementAndGet);
+
+		// When: 200 tokens arrive about 2ms apart, faster than the frame rate
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			final String token = "t" + i + " ";
+			expected.append(token);
+			buffer.append(token);
+			Thread.sleep(2);
+		}
+		SwingUtilities.invokeAndWait(buffer::close);
+
+		// Then: all text arrives in order, in far fewer EDT updates
+		assertEquals(expected.toString(), shown.toString());
+		assertEquals(expected.toString(), buffer.getText());
+		assertTrue("flushes: " + flushes.get(), flushes.get() < 100);
+		assertEquals(flushes.get(), scrolls.get());
+	}
+
+	@Test
+	public void testAppendAfterCloseIsIgnored() throws Exception {
+		final StringBuilder shown = new StringBuilder();
+		final StreamingTextBuffer buffer = new StreamingTextBuffer(shown::append,
+			null);
+		buffer.append("kept");
+		SwingUtilities.invokeAndWait(buffer::close);
+		buffer.append("dropped");
+		SwingUtilities.invokeAndWait(() -> {});
+		assertEquals("kept", shown.toString());
+	}
+}